@@ -0,0 +1,77 @@
+package com.microfinance.benchmarks;
+
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.LoanSnapshot;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic synthetic portfolios, so every run measures the same data
+ */
+final class BenchmarkData {
+    static final long SEED = 42;
+    static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+    private static final String[] STATUSES = {"Active", "Active", "Active", "Overdue", "Completed"};
+
+    private BenchmarkData() {
+    }
+
+    static List<Borrower> borrowers(int count) {
+        Random random = new Random(SEED);
+        List<Borrower> borrowers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            borrowers.add(new Borrower("Borrower " + i, "borrower" + i + "@example.com",
+                String.valueOf(9_000_000_000L + i), i + " Market Road", 10_000 + random.nextInt(90_000)));
+        }
+        return borrowers;
+    }
+
+    /**
+     * @param borrowerIds IDs to assign loans to, round robin
+     */
+    static List<Loan> loans(int count, int[] borrowerIds) {
+        Random random = new Random(SEED);
+        List<Loan> loans = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int borrowerId = borrowerIds[i % borrowerIds.length];
+            double amount = amount(random);
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            double balance = status.equals("Completed") ? 0 : Math.round(amount * random.nextDouble() * 100) / 100.0;
+            LocalDate loanDate = TODAY.minusDays(random.nextInt(1_000));
+            LocalDate dueDate = loanDate.plusMonths(1 + random.nextInt(24));
+            loans.add(new Loan(i + 1, borrowerId, "Borrower " + borrowerId, amount, balance, status,
+                loanDate, dueDate, 5 + random.nextInt(2_000) / 100.0));
+        }
+        return loans;
+    }
+
+    /**
+     * Build a snapshot directly, without a list of Loan objects, so 10M rows fit in a few hundred MB
+     */
+    static LoanSnapshot snapshot(int count) {
+        Random random = new Random(SEED);
+        LoanSnapshot.Builder builder = new LoanSnapshot.Builder(count);
+        int borrowers = Math.max(1, count / 3);
+        for (int i = 0; i < count; i++) {
+            int borrowerId = 1 + random.nextInt(borrowers);
+            double amount = amount(random);
+            String status = STATUSES[random.nextInt(STATUSES.length)];
+            double balance = status.equals("Completed") ? 0 : Math.round(amount * random.nextDouble() * 100) / 100.0;
+            LocalDate loanDate = TODAY.minusDays(random.nextInt(1_000));
+            builder.add(i + 1, borrowerId, "Borrower " + borrowerId, amount, balance, status,
+                loanDate, loanDate.plusMonths(1 + random.nextInt(24)), 5 + random.nextInt(2_000) / 100.0);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Log-normal loan amounts: mostly a few hundred to a few thousand, with a long tail
+     */
+    private static double amount(Random random) {
+        double amount = Math.exp(7.5 + random.nextGaussian() * 0.8);
+        return Math.round(Math.min(amount, 500_000) * 100) / 100.0;
+    }
+}
@@ -0,0 +1,72 @@
+package com.microfinance.benchmarks;
+
+import com.microfinance.service.LoanCalculationService;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * EMI calculation and input validators. Inputs cycle through a table of
+ * realistic values so the JIT cannot fold them into constants.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CalculationBenchmark {
+    private static final int INPUTS = 1024;
+
+    private final double[] principals = new double[INPUTS];
+    private final double[] rates = new double[INPUTS];
+    private final int[] tenures = new int[INPUTS];
+    private final String[] phones = new String[INPUTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkData.SEED);
+        for (int i = 0; i < INPUTS; i++) {
+            principals[i] = 500 + random.nextInt(50_000);
+            rates[i] = random.nextInt(10) == 0 ? 0 : random.nextInt(3_000) / 100.0;
+            tenures[i] = 3 + random.nextInt(58);
+            phones[i] = random.nextInt(10) == 0 ? "12345" : String.valueOf(6_000_000_000L + random.nextInt(1_000_000_000));
+        }
+    }
+
+    private int nextIndex() {
+        next = (next + 1) & (INPUTS - 1);
+        return next;
+    }
+
+    @Benchmark
+    public double calculateEMI() {
+        int i = nextIndex();
+        return LoanCalculationService.calculateEMI(principals[i], rates[i], tenures[i]);
+    }
+
+    @Benchmark
+    public boolean isValidLoanAmount() {
+        return LoanCalculationService.isValidLoanAmount(principals[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidInterestRate() {
+        return LoanCalculationService.isValidInterestRate(rates[nextIndex()]);
+    }
+
+    @Benchmark
+    public boolean isValidPhoneNumber() {
+        return LoanCalculationService.isValidPhoneNumber(phones[nextIndex()]);
+    }
+}
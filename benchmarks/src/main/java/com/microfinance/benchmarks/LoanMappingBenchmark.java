@@ -0,0 +1,87 @@
+package com.microfinance.benchmarks;
+
+import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.LoanDAO;
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.util.EmbeddedDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * ResultSet-to-Loan mapping in LoanDAO, measured through its read paths against
+ * an embedded H2 database, so no MySQL server is needed. Absolute times include
+ * H2's own query cost; compare runs rather than reading them as MySQL latencies.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanMappingBenchmark {
+    @Param({"10000"})
+    public int loanCount;
+
+    private HikariDataSource dataSource;
+    private LoanDAO loanDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        dataSource = EmbeddedDatabase.create("mapping-benchmark");
+        BorrowerDAO borrowerDAO = new BorrowerDAO(dataSource::getConnection);
+        loanDAO = new LoanDAO(dataSource::getConnection);
+
+        List<Borrower> borrowers = BenchmarkData.borrowers(Math.max(1, loanCount / 3));
+        borrowerDAO.addBorrowers(borrowers);
+        int[] borrowerIds = borrowers.stream().mapToInt(Borrower::getId).toArray();
+        List<Loan> loans = BenchmarkData.loans(loanCount, borrowerIds);
+        if (loanDAO.addLoans(loans).hasFailures()) {
+            throw new IllegalStateException("Could not load the benchmark portfolio");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        EmbeddedDatabase.drop(dataSource);
+    }
+
+    /**
+     * Stream and map every row
+     */
+    @Benchmark
+    public int forEachLoan(Blackhole blackhole) {
+        return loanDAO.forEachLoan(blackhole::consume);
+    }
+
+    /**
+     * Stream every row into the columnar snapshot used by the reports
+     */
+    @Benchmark
+    public Object loadSnapshot() {
+        return loanDAO.loadSnapshot();
+    }
+
+    /**
+     * Map one 100-row keyset page, the dashboard's unit of work
+     */
+    @Benchmark
+    public List<Loan> firstPage() {
+        return loanDAO.getLoansPage(null, 0, 100);
+    }
+}
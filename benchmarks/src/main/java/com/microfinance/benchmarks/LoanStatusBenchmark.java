@@ -0,0 +1,73 @@
+package com.microfinance.benchmarks;
+
+import com.microfinance.dao.InMemoryStore;
+import com.microfinance.model.Loan;
+import com.microfinance.service.LoanService;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Status and overdue classification in LoanService over a portfolio, with the
+ * date read once per pass and, for comparison, once per loan
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoanStatusBenchmark {
+    @Param({"10000"})
+    public int loanCount;
+
+    private LoanService loanService;
+    private Loan[] loans;
+
+    @Setup
+    public void setUp() {
+        // The classification methods never touch the repository
+        loanService = new LoanService(new InMemoryStore().loans());
+        List<Loan> generated = BenchmarkData.loans(loanCount, new int[] {1});
+        loans = generated.toArray(new Loan[0]);
+    }
+
+    @Benchmark
+    public void determineLoanStatus(Blackhole blackhole) {
+        LocalDate today = LocalDate.now();
+        for (Loan loan : loans) {
+            blackhole.consume(loanService.determineLoanStatus(loan, today));
+        }
+    }
+
+    @Benchmark
+    public void determineLoanStatusReadingClockPerLoan(Blackhole blackhole) {
+        for (Loan loan : loans) {
+            blackhole.consume(loanService.determineLoanStatus(loan));
+        }
+    }
+
+    @Benchmark
+    public int countOverdue() {
+        LocalDate today = LocalDate.now();
+        int overdue = 0;
+        for (Loan loan : loans) {
+            if (loanService.isLoanOverdue(loan, today)) {
+                overdue++;
+            }
+        }
+        return overdue;
+    }
+}
@@ -0,0 +1,55 @@
+package com.microfinance.benchmarks;
+
+import com.microfinance.model.LoanSnapshot;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.service.LoanSizeHistogram;
+import com.microfinance.service.PortfolioAnalytics;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The aggregations behind ReportsWindow (portfolio summary, top loans, loan-size
+ * histogram) over a columnar snapshot of 10k, 1M and 10M loans
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class PortfolioAggregationBenchmark {
+    @Param({"10000", "1000000", "10000000"})
+    public int loanCount;
+
+    private LoanSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        snapshot = BenchmarkData.snapshot(loanCount);
+    }
+
+    @Benchmark
+    public PortfolioSummary summarize() {
+        return PortfolioAnalytics.summarize(snapshot, BenchmarkData.TODAY);
+    }
+
+    @Benchmark
+    public int[] topTenByAmount() {
+        return PortfolioAnalytics.topRowsByAmount(snapshot, 10);
+    }
+
+    @Benchmark
+    public LoanSizeHistogram loanSizeHistogram() {
+        return LoanSizeHistogram.of(snapshot);
+    }
+}
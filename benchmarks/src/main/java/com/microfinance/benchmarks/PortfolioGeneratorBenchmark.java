@@ -0,0 +1,87 @@
+package com.microfinance.benchmarks;
+
+import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.LoanDAO;
+import com.microfinance.dao.PaymentDAO;
+import com.microfinance.service.CsvPortfolioSink;
+import com.microfinance.service.PortfolioGenerator;
+import com.microfinance.service.RepositoryPortfolioSink;
+import com.microfinance.util.EmbeddedDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generating a whole synthetic portfolio (borrowers, loans and payment history)
+ * into CSV files and into an empty embedded H2 database through the repositories.
+ * Each invocation writes into a fresh directory or database. For the full-size
+ * run use -p borrowers=100000 -p loans=1000000.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PortfolioGeneratorBenchmark {
+    @Param({"10000"})
+    public int borrowers;
+
+    @Param({"100000"})
+    public int loans;
+
+    private Path directory;
+    private HikariDataSource dataSource;
+
+    @Setup(Level.Invocation)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("portfolio-benchmark");
+        dataSource = EmbeddedDatabase.create("generator-benchmark");
+    }
+
+    @TearDown(Level.Invocation)
+    public void tearDown() throws IOException {
+        EmbeddedDatabase.drop(dataSource);
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public PortfolioGenerator.Summary toCsv() throws IOException {
+        try (CsvPortfolioSink sink = new CsvPortfolioSink(directory)) {
+            return generator().generate(borrowers, loans, sink);
+        }
+    }
+
+    @Benchmark
+    public PortfolioGenerator.Summary toEmbeddedDatabase() throws IOException {
+        try (RepositoryPortfolioSink sink = new RepositoryPortfolioSink(new BorrowerDAO(dataSource::getConnection),
+                new LoanDAO(dataSource::getConnection), new PaymentDAO(dataSource::getConnection), 5_000)) {
+            return generator().generate(borrowers, loans, sink);
+        }
+    }
+
+    private static PortfolioGenerator generator() {
+        return new PortfolioGenerator(BenchmarkData.SEED, BenchmarkData.TODAY, 36, 0.12);
+    }
+}
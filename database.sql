@@ -32,10 +32,13 @@ CREATE TABLE IF NOT EXISTS loans (
     FOREIGN KEY (borrower_id) REFERENCES borrowers(id) ON DELETE CASCADE,
     INDEX idx_borrower_id (borrower_id),
     INDEX idx_status (status),
-    INDEX idx_loan_date (loan_date)
+    INDEX idx_loan_date (loan_date),
+    -- Serves the overdue query: due_date < CURDATE() AND outstanding_balance > 0
+    -- Existing databases: CREATE INDEX idx_due_balance ON loans (due_date, outstanding_balance);
+    INDEX idx_due_balance (due_date, outstanding_balance)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
--- Create the payments table (optional, for tracking individual payments)
+-- Create the payments table (append-only ledger of individual payments, written by LoanDAO.recordPayment and PaymentDAO)
 CREATE TABLE IF NOT EXISTS payments (
     id INT AUTO_INCREMENT PRIMARY KEY,
     loan_id INT NOT NULL,
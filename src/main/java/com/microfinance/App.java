@@ -1,20 +1,37 @@
 package com.microfinance;
 
 import com.microfinance.dao.LoanDAO;
+import com.microfinance.dao.LoanRepository;
 import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.BorrowerRepository;
+import com.microfinance.dao.TimedBorrowerRepository;
+import com.microfinance.dao.TimedLoanRepository;
 import com.microfinance.model.Loan;
 import com.microfinance.model.Borrower;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.service.AsyncLoanService;
+import com.microfinance.service.BorrowerNameIndex;
+import com.microfinance.service.BorrowerSearchIndex;
 import com.microfinance.service.LoanService;
 import com.microfinance.service.LoanCalculationService;
 import com.microfinance.exception.InvalidLoanAmountException;
-import com.microfinance.exception.BorrowerNotFoundException;
+import com.microfinance.ui.FrameStallMonitor;
+import com.microfinance.ui.IncrementalTableFilter;
+import com.microfinance.ui.PagedSearch;
+import com.microfinance.ui.PagedTableLoader;
 import com.microfinance.util.DatabaseConnection;
+import com.microfinance.util.FlightEvents;
+import com.microfinance.util.Log;
+import com.microfinance.util.Metrics;
+import com.microfinance.util.StartupTimer;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.beans.property.ObjectProperty;
 import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleObjectProperty;
 import javafx.beans.property.SimpleStringProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.collections.transformation.FilteredList;
 import javafx.geometry.Insets;
 import javafx.geometry.Side;
 import javafx.scene.Scene;
@@ -26,40 +43,57 @@ import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.scene.layout.Priority;
 import javafx.stage.Stage;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * JavaFX Application for Microfinance Loan Tracker
  * Enhanced with side navigation, KPI dashboard, and improved UI
  */
 public class App extends Application {
+    private static final Log LOG = Log.getLogger(App.class);
+    private static final int PAGE_SIZE = 100;
+    private static final int SEARCH_LIMIT = 200;
+    private static final int SUGGESTION_LIMIT = 10;
+
     private TableView<LoanRecord> loanTable;
     private Label statusLabel;
     private Label totalActiveLoanLabel;
     private Label totalOutstandingLabel;
     private Label overdueAccountsLabel;
-    private LoanDAO loanDAO;
-    private BorrowerDAO borrowerDAO;
+    private LoanRepository loanDAO;
+    private BorrowerRepository borrowerDAO;
     private LoanService loanService;
+    private AsyncLoanService asyncService;
+    private FrameStallMonitor frameMonitor;
+    // Null until the background build finishes; searches fall back to the database until then
+    private volatile BorrowerSearchIndex searchIndex;
+    // Null until built; the Issue Loan dialog resolves names in the database until then
+    private volatile BorrowerNameIndex nameIndex;
+    // Builds started on the FX thread, kept so a reconnect reuses one still in flight
+    private CompletableFuture<BorrowerSearchIndex> searchIndexBuild;
+    private CompletableFuture<BorrowerNameIndex> nameIndexBuild;
     private boolean databaseAvailable = false;
+    private final StartupTimer startupTimer = StartupTimer.sinceJvmStart();
+    private Label dbStatus;
     private BorderPane root;
     private VBox contentArea;
-    private List<Loan> allLoans;
+    private PortfolioSummary reportSummary;
 
     @Override
     public void start(Stage primaryStage) {
         try {
-            // Initialize DAOs and Services
-            loanDAO = new LoanDAO();
-            borrowerDAO = new BorrowerDAO();
+            startupTimer.mark("fx start");
+
+            // Initialize DAOs and Services; nothing here touches the database
+            Metrics.get().start();
+            loanDAO = new TimedLoanRepository(new LoanDAO());
+            borrowerDAO = new TimedBorrowerRepository(new BorrowerDAO());
             loanService = new LoanService(loanDAO);
-            
-            // Test database connection
-            databaseAvailable = DatabaseConnection.testConnection();
-            
-            if (!databaseAvailable) {
-                System.out.println("Warning: Database connection not available. Running in offline mode.");
-            }
+            asyncService = new AsyncLoanService(loanDAO, borrowerDAO, loanService);
             
             // Create root layout with BorderPane
             root = new BorderPane();
@@ -80,23 +114,90 @@ public class App extends Application {
 
             // Create scene
             Scene scene = new Scene(root, 1400, 800);
+            scene.addPostLayoutPulseListener(new Runnable() {
+                @Override
+                public void run() {
+                    scene.removePostLayoutPulseListener(this);
+                    startupTimer.mark("first frame");
+                }
+            });
             primaryStage.setTitle("Microfinance Loan Tracker");
             primaryStage.setScene(scene);
             primaryStage.setOnCloseRequest(e -> {
+                if (loanService.getPaymentStats().getCount() > 0) {
+                    LOG.info(loanService.getPaymentStats().toString());
+                }
+                LOG.info(LoanDAO.getCache().toString());
+                LOG.info(BorrowerDAO.getCache().toString());
+                frameMonitor.stop();
+                if (frameMonitor.isEnabled()) {
+                    LOG.info(frameMonitor.toString());
+                }
+                Metrics.get().stop();
+                LOG.info(Metrics.get().dump());
+                asyncService.shutdown();
                 DatabaseConnection.closePool();
             });
             primaryStage.show();
+            startupTimer.mark("stage shown");
+            frameMonitor = FrameStallMonitor.fromSystemProperty();
+            frameMonitor.start();
             
-            // Load and display dashboard
+            // Open the pool in the background; the dashboard is shown once it answers
+            connectDatabase();
+
+        } catch (Exception e) {
+            LOG.error("Failed to start application: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Create and warm the connection pool off the FX thread, then show the dashboard,
+     * or the offline page if the database cannot be reached
+     */
+    private void connectDatabase() {
+        dbStatus.setText("⏳ Connecting to database...");
+        showConnectingMessage();
+        asyncService.supply(DatabaseConnection::warmUp).whenCompleteAsync((available, error) -> {
+            databaseAvailable = error == null && available;
+            dbStatus.setText(databaseAvailable ? "✅ Database Connected" : "❌ Database Offline");
+            startupTimer.mark(databaseAvailable ? "pool ready" : "pool unavailable");
             if (databaseAvailable) {
-                loadLoansFromDatabase();
                 displayDashboard();
+                buildSearchIndex();
             } else {
+                LOG.warn("Database connection not available. Running in offline mode.");
                 displayOfflineMessage();
+                LOG.info(startupTimer.toString());
             }
+        }, Platform::runLater);
+    }
 
-        } catch (Exception e) {
-            e.printStackTrace();
+    private void showConnectingMessage() {
+        contentArea.getChildren().clear();
+        VBox connectingBox = new VBox(20);
+        connectingBox.setPadding(new Insets(40));
+        connectingBox.setStyle("-fx-alignment: center;");
+
+        Label titleLabel = new Label("Connecting to database...");
+        titleLabel.setStyle("-fx-font-size: 18; -fx-font-weight: bold;");
+
+        connectingBox.getChildren().addAll(titleLabel, new ProgressIndicator());
+        contentArea.getChildren().add(connectingBox);
+    }
+
+    /**
+     * Start the borrower index builds, unless one is finished or still running.
+     * A build that failed is started again
+     */
+    private void buildSearchIndex() {
+        if (searchIndexBuild == null || searchIndexBuild.isCompletedExceptionally()) {
+            searchIndexBuild = asyncService.buildSearchIndex();
+            searchIndexBuild.thenAccept(index -> searchIndex = index);
+        }
+        if (nameIndexBuild == null || nameIndexBuild.isCompletedExceptionally()) {
+            nameIndexBuild = asyncService.buildNameIndex();
+            nameIndexBuild.thenAccept(index -> nameIndex = index);
         }
     }
 
@@ -127,7 +228,6 @@ public class App extends Application {
         // Refresh Button
         Button refreshBtn = createNavButton("🔄 Refresh", e -> {
             if (databaseAvailable) {
-                loadLoansFromDatabase();
                 displayDashboard();
             }
         });
@@ -163,7 +263,7 @@ public class App extends Application {
         statusLabel = new Label("Ready");
         statusLabel.setStyle("-fx-font-size: 11;");
         
-        Label dbStatus = new Label(databaseAvailable ? "✅ Database Connected" : "❌ Database Offline");
+        dbStatus = new Label(databaseAvailable ? "✅ Database Connected" : "❌ Database Offline");
         dbStatus.setStyle("-fx-font-size: 11; -fx-font-weight: bold;");
         
         statusBar.getChildren().addAll(statusLabel, new Separator(), dbStatus);
@@ -171,6 +271,8 @@ public class App extends Application {
     }
 
     private void displayDashboard() {
+        FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Dashboard");
+        rebuild.begin();
         contentArea.getChildren().clear();
         
         VBox dashboard = new VBox(15);
@@ -190,24 +292,32 @@ public class App extends Application {
         
         dashboard.getChildren().addAll(headerLabel, kpiBox, new Separator(), loansSection);
         contentArea.getChildren().add(dashboard);
+        rebuild.commit();
     }
 
     private HBox createKPIDashboard() {
         HBox kpiBox = new HBox(15);
         kpiBox.setPadding(new Insets(10));
         
-        // Load fresh data
-        allLoans = loanDAO.getAllLoans();
-        
-        // Calculate KPIs
-        long activeLoans = allLoans.stream().filter(l -> "ACTIVE".equalsIgnoreCase(l.getStatus())).count();
-        double totalOutstanding = allLoans.stream().mapToDouble(Loan::getOutstandingBalance).sum();
-        long overdueCount = loanService.getOverdueAccountCount();
-        
-        // Create KPI Cards
-        totalActiveLoanLabel = new Label(String.valueOf(activeLoans));
-        totalOutstandingLabel = new Label(String.format("$%.2f", totalOutstanding));
-        overdueAccountsLabel = new Label(String.valueOf(overdueCount));
+        // Create KPI Cards with placeholders until the aggregate query returns
+        totalActiveLoanLabel = new Label("...");
+        totalOutstandingLabel = new Label("...");
+        overdueAccountsLabel = new Label("...");
+        asyncService.getPortfolioSummary().whenCompleteAsync((summary, error) -> {
+            if (error != null) {
+                totalActiveLoanLabel.setText("-");
+                totalOutstandingLabel.setText("-");
+                overdueAccountsLabel.setText("-");
+                return;
+            }
+            totalActiveLoanLabel.setText(String.valueOf(summary.getLoanCount("ACTIVE")));
+            totalOutstandingLabel.setText(String.format("$%.2f", summary.getTotalOutstandingBalance()));
+            overdueAccountsLabel.setText(String.valueOf(summary.getOverdueCount()));
+            if (startupTimer.getMillis("dashboard data") < 0) {
+                startupTimer.mark("dashboard data");
+                LOG.info(startupTimer.toString());
+            }
+        }, Platform::runLater);
         
         kpiBox.getChildren().addAll(
             createKPICard("💳 Active Loans", totalActiveLoanLabel, "#3498db"),
@@ -278,31 +388,32 @@ public class App extends Application {
         statusCol.setPrefWidth(100);
         statusCol.setCellValueFactory(cellData -> cellData.getValue().statusProperty());
         
-        // Apply search filter
+        // Apply search filter on borrower name or loan ID; the newline keeps a query from spanning both
         ObservableList<LoanRecord> loanList = FXCollections.observableArrayList();
-        for (Loan loan : allLoans) {
-            loanList.add(new LoanRecord(
-                loan.getId(), loan.getBorrowerName(), loan.getLoanAmount(),
-                loan.getOutstandingBalance(), loan.getDueDate().toString(), loanService.determineLoanStatus(loan)
-            ));
-        }
-        
-        FilteredList<LoanRecord> filteredList = new FilteredList<>(loanList);
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            filteredList.setPredicate(record -> {
-                if (newVal == null || newVal.isEmpty()) {
-                    return true;
-                }
-                String lowerCase = newVal.toLowerCase();
-                return record.getBorrower().toLowerCase().contains(lowerCase) ||
-                       String.valueOf(record.getId()).contains(lowerCase);
-            });
-        });
+        IncrementalTableFilter<LoanRecord> filter = new IncrementalTableFilter<>(loanList,
+            record -> record.getBorrower() + "\n" + record.getId());
+        filter.bind(searchField.textProperty());
         
         loanTable.getColumns().addAll(idCol, borrowerCol, amountCol, balanceCol, dueCol, statusCol);
-        loanTable.setItems(filteredList);
+        loanTable.setItems(filter.getView());
         loanTable.setPrefHeight(400);
         VBox.setVgrow(loanTable, Priority.ALWAYS);
+
+        // Load loans page by page as the table scrolls
+        LocalDate today = LocalDate.now();
+        PagedTableLoader<Loan, LoanRecord> loader = new PagedTableLoader<>(loanTable, loanList,
+            last -> asyncService.getLoansPage(last, PAGE_SIZE),
+            loan -> new LoanRecord(
+                loan.getId(), loan.getBorrowerName(), loan.getLoanAmount(),
+                loan.getOutstandingBalance(), loan.getDueDate().toString(), loanService.determineLoanStatus(loan, today)
+            )
+        );
+        // Reload from a database search by borrower name or loan ID unless the loaded rows hold every match
+        PagedSearch search = new PagedSearch(loader::isExhausted, query -> loader.restart(query.isEmpty()
+            ? last -> asyncService.getLoansPage(last, PAGE_SIZE)
+            : last -> asyncService.searchLoansPage(query, last, PAGE_SIZE)));
+        filter.setOnQuery(search::queryChanged);
+        loader.start();
         
         section.getChildren().addAll(searchBox, loanTable);
         return section;
@@ -310,6 +421,8 @@ public class App extends Application {
 
     @SuppressWarnings("unchecked")
     private void displayBorrowers() {
+        FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Borrowers");
+        rebuild.begin();
         contentArea.getChildren().clear();
         
         VBox borrowersView = new VBox(15);
@@ -354,21 +467,48 @@ public class App extends Application {
         
         borrowerTable.getColumns().addAll(nameCol, phoneCol, addressCol, incomeCol);
         
-        // Load borrowers
-        List<Borrower> borrowers = borrowerDAO.getAllBorrowers();
+        // Load borrowers page by page as the table scrolls
         ObservableList<BorrowerRecord> borrowerList = FXCollections.observableArrayList();
-        for (Borrower b : borrowers) {
-            borrowerList.add(new BorrowerRecord(b.getId(), b.getName(), b.getPhone(), b.getAddress(), b.getIncome()));
-        }
         borrowerTable.setItems(borrowerList);
         borrowerTable.setPrefHeight(400);
         VBox.setVgrow(borrowerTable, Priority.ALWAYS);
+        new PagedTableLoader<Borrower, BorrowerRecord>(borrowerTable, borrowerList,
+            last -> asyncService.getBorrowersPage(last, PAGE_SIZE),
+            App::toBorrowerRecord
+        ).start();
+
+        // Search box: results replace the paged list while there is a query
+        TextField searchField = new TextField();
+        searchField.setPromptText("Search by name, phone or email...");
+        searchField.setPrefWidth(300);
+        searchField.textProperty().addListener((obs, oldValue, newValue) -> {
+            String query = newValue.trim();
+            if (query.isEmpty()) {
+                borrowerTable.setItems(borrowerList);
+                return;
+            }
+            BorrowerSearchIndex index = searchIndex;
+            if (index != null) {
+                borrowerTable.setItems(toBorrowerRecords(index.search(query, SEARCH_LIMIT)));
+            } else {
+                asyncService.searchBorrowersByName(query).thenAcceptAsync(results -> {
+                    // Ignore results for a query the user has already changed
+                    if (query.equals(searchField.getText().trim())) {
+                        borrowerTable.setItems(toBorrowerRecords(results));
+                    }
+                }, Platform::runLater);
+            }
+        });
+        HBox searchBox = new HBox(10, new Label("🔍 Search:"), searchField);
         
-        borrowersView.getChildren().addAll(headerLabel, buttonBox, new Separator(), borrowerTable);
+        borrowersView.getChildren().addAll(headerLabel, buttonBox, searchBox, new Separator(), borrowerTable);
         contentArea.getChildren().add(borrowersView);
+        rebuild.commit();
     }
 
     private void displayLoans() {
+        FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Loans");
+        rebuild.begin();
         contentArea.getChildren().clear();
         
         VBox loansView = new VBox(15);
@@ -395,9 +535,12 @@ public class App extends Application {
         
         loansView.getChildren().addAll(headerLabel, buttonBox, new Separator(), tableSection);
         contentArea.getChildren().add(loansView);
+        rebuild.commit();
     }
 
     private void displayPayments() {
+        FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Payments");
+        rebuild.begin();
         contentArea.getChildren().clear();
         
         VBox paymentsView = new VBox(15);
@@ -418,9 +561,12 @@ public class App extends Application {
         
         paymentsView.getChildren().addAll(headerLabel, buttonBox, new Separator(), tableSection);
         contentArea.getChildren().add(paymentsView);
+        rebuild.commit();
     }
 
     private void displayReports() {
+        FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Reports");
+        rebuild.begin();
         contentArea.getChildren().clear();
         
         VBox reportsView = new VBox(15);
@@ -430,8 +576,26 @@ public class App extends Application {
         Label headerLabel = new Label("📈 Reports & Analytics");
         headerLabel.setStyle("-fx-font-size: 24; -fx-font-weight: bold;");
         
+        Label loadingLabel = new Label("Loading reports...");
+        reportsView.getChildren().addAll(headerLabel, loadingLabel);
+        contentArea.getChildren().add(reportsView);
+
+        asyncService.getReportSummary().whenCompleteAsync((summary, error) -> {
+            if (error != null) {
+                loadingLabel.setText("Could not load reports: " + error.getMessage());
+                return;
+            }
+            reportSummary = summary;
+            reportsView.getChildren().remove(loadingLabel);
+            populateReports(reportsView);
+        }, Platform::runLater);
+        rebuild.commit();
+    }
+
+    private void populateReports(VBox reportsView) {
+        FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Reports data");
+        rebuild.begin();
         // Metrics Display
-        allLoans = loanDAO.getAllLoans();
         HBox metricsBox = createDetailedMetrics();
         
         // Charts
@@ -456,17 +620,17 @@ public class App extends Application {
         
         chartsBox.getChildren().addAll(pieContainer, balanceContainer);
         
-        reportsView.getChildren().addAll(headerLabel, metricsBox, chartsBox);
-        contentArea.getChildren().add(reportsView);
+        reportsView.getChildren().addAll(metricsBox, chartsBox);
+        rebuild.commit();
     }
 
     private HBox createDetailedMetrics() {
-        double totalLoaned = allLoans.stream().mapToDouble(Loan::getLoanAmount).sum();
-        double totalOutstanding = allLoans.stream().mapToDouble(Loan::getOutstandingBalance).sum();
-        double totalRepaid = totalLoaned - totalOutstanding;
-        long activeLoans = allLoans.stream().filter(l -> "ACTIVE".equalsIgnoreCase(l.getStatus())).count();
-        long completedLoans = allLoans.stream().filter(l -> "PAID_OFF".equalsIgnoreCase(l.getStatus())).count();
-        double averageLoanAmount = allLoans.isEmpty() ? 0 : totalLoaned / allLoans.size();
+        double totalLoaned = reportSummary.getTotalLoanAmount();
+        double totalOutstanding = reportSummary.getTotalOutstandingBalance();
+        double totalRepaid = reportSummary.getTotalRepaid();
+        long activeLoans = reportSummary.getLoanCount("ACTIVE");
+        long completedLoans = reportSummary.getLoanCount("PAID_OFF");
+        double averageLoanAmount = reportSummary.getAverageLoanAmount();
 
         HBox hbox = new HBox(12);
         hbox.setStyle("-fx-padding: 10;");
@@ -505,20 +669,18 @@ public class App extends Application {
         pieChart.setTitle("Loan Status Distribution");
         pieChart.setLegendSide(Side.BOTTOM);
 
-        if (allLoans == null || allLoans.isEmpty()) {
-            System.out.println("[DEBUG] No loans available.");
+        if (reportSummary == null || reportSummary.getTotalLoanCount() == 0) {
+            LOG.debug("No loans available.");
             pieChart.getData().add(new PieChart.Data("No Data", 1));
             pieChart.getData().get(0).getNode().setStyle("-fx-pie-color: #bdc3c7;");
             return pieChart;
         }
 
-        long active = allLoans.stream().filter(l -> "ACTIVE".equalsIgnoreCase(l.getStatus())).count();
-        long overdue = allLoans.stream().filter(l -> "OVERDUE".equalsIgnoreCase(l.getStatus())).count();
-        long paidOff = allLoans.stream().filter(l -> "PAID_OFF".equalsIgnoreCase(l.getStatus())).count();
+        long active = reportSummary.getLoanCount("ACTIVE");
+        long overdue = reportSummary.getLoanCount("OVERDUE");
+        long paidOff = reportSummary.getLoanCount("PAID_OFF");
 
-        System.out.println("[DEBUG] Active Loans: " + active);
-        System.out.println("[DEBUG] Overdue Loans: " + overdue);
-        System.out.println("[DEBUG] Paid Off Loans: " + paidOff);
+        LOG.debug(() -> "Active Loans: " + active + ", Overdue Loans: " + overdue + ", Paid Off Loans: " + paidOff);
 
         PieChart.Data activeData = new PieChart.Data("Active", active);
         PieChart.Data overdueData = new PieChart.Data("Overdue", overdue);
@@ -541,15 +703,14 @@ public class App extends Application {
         pieChart.setTitle("Outstanding vs Repaid");
         pieChart.setLegendSide(Side.BOTTOM);
 
-        if (allLoans == null || allLoans.isEmpty()) {
+        if (reportSummary == null || reportSummary.getTotalLoanCount() == 0) {
             pieChart.getData().add(new PieChart.Data("No Data", 1));
             pieChart.getData().get(0).getNode().setStyle("-fx-pie-color: #bdc3c7;");
             return pieChart;
         }
 
-        double totalLoaned = allLoans.stream().mapToDouble(Loan::getLoanAmount).sum();
-        double totalOutstanding = allLoans.stream().mapToDouble(Loan::getOutstandingBalance).sum();
-        double totalRepaid = totalLoaned - totalOutstanding;
+        double totalOutstanding = reportSummary.getTotalOutstandingBalance();
+        double totalRepaid = reportSummary.getTotalRepaid();
 
         PieChart.Data outstandingData = new PieChart.Data("Outstanding", totalOutstanding);
         PieChart.Data repaidData = new PieChart.Data("Repaid", totalRepaid);
@@ -649,20 +810,18 @@ public class App extends Application {
 
             String fullName = firstName + " " + lastName;
             Borrower newBorrower = new Borrower(fullName, email, phone, address, income);
-            boolean added = false;
-            try {
-                added = borrowerDAO.addBorrower(newBorrower);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                showAlert("Error", "Exception occurred: " + ex.getMessage());
-                return;
-            }
-            if (added) {
-                showAlert("Success", "Borrower added successfully!");
-                displayBorrowers();
-            } else {
-                showAlert("Error", "Failed to add borrower. Please check database and logs.");
-            }
+            statusLabel.setText("Saving borrower...");
+            asyncService.addBorrower(newBorrower).whenCompleteAsync((added, error) -> {
+                statusLabel.setText("Ready");
+                if (error != null) {
+                    showAlert("Error", "Exception occurred: " + unwrap(error).getMessage());
+                } else if (added) {
+                    showAlert("Success", "Borrower added successfully!");
+                    displayBorrowers();
+                } else {
+                    showAlert("Error", "Failed to add borrower. Please check database and logs.");
+                }
+            }, Platform::runLater);
         }
     }
 
@@ -718,13 +877,14 @@ public class App extends Application {
                 return;
             }
             Borrower updated = new Borrower(selected.getId(), name, "", phone, address, income);
-            boolean success = borrowerDAO.updateBorrower(updated);
-            if (success) {
-                showAlert("Success", "Borrower updated successfully!");
-                displayBorrowers();
-            } else {
-                showAlert("Error", "Failed to update borrower.");
-            }
+            asyncService.updateBorrower(updated).whenCompleteAsync((success, error) -> {
+                if (error == null && success) {
+                    showAlert("Success", "Borrower updated successfully!");
+                    displayBorrowers();
+                } else {
+                    showAlert("Error", "Failed to update borrower.");
+                }
+            }, Platform::runLater);
         }
     }
 
@@ -752,13 +912,14 @@ public class App extends Application {
         confirm.setHeaderText("Are you sure you want to delete this borrower?");
         confirm.setContentText("Borrower: " + selected.nameProperty().get());
         if (confirm.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
-            boolean success = borrowerDAO.deleteBorrower(selected.getId());
-            if (success) {
-                showAlert("Success", "Borrower deleted successfully!");
-                displayBorrowers();
-            } else {
-                showAlert("Error", "Failed to delete borrower.");
-            }
+            asyncService.deleteBorrower(selected.getId()).whenCompleteAsync((success, error) -> {
+                if (error == null && success) {
+                    showAlert("Success", "Borrower deleted successfully!");
+                    displayBorrowers();
+                } else {
+                    showAlert("Error", "Failed to delete borrower.");
+                }
+            }, Platform::runLater);
         }
     }
 
@@ -776,6 +937,7 @@ public class App extends Application {
         VBox inputBox = new VBox(10);
         TextField borrowerField = new TextField();
         borrowerField.setPromptText("Borrower name");
+        ObjectProperty<BorrowerNameIndex.Suggestion> chosenBorrower = attachBorrowerAutocomplete(borrowerField);
         TextField amountField = new TextField();
         amountField.setPromptText("Loan amount");
         TextField interestRateField = new TextField();
@@ -838,41 +1000,101 @@ public class App extends Application {
         dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
 
         if (dialog.showAndWait().orElse(ButtonType.CANCEL) == ButtonType.OK) {
+            String borrowerName = borrowerField.getText().trim();
+            double amount;
+            double rate;
+            int months;
             try {
-                String borrowerName = borrowerField.getText().trim();
-                double amount = Double.parseDouble(amountField.getText());
-                double rate = Double.parseDouble(interestRateField.getText());
-                int months = Integer.parseInt(tenureField.getText());
+                amount = Double.parseDouble(amountField.getText());
+                rate = Double.parseDouble(interestRateField.getText());
+                months = Integer.parseInt(tenureField.getText());
+            } catch (NumberFormatException ex) {
+                showAlert("Error", "Please enter valid values for all fields");
+                return;
+            }
 
-                // Find borrowerId by name
-                int borrowerId = -1;
-                List<Borrower> borrowersList = borrowerDAO.getAllBorrowers();
-                for (Borrower b : borrowersList) {
-                    if (b.getName().equalsIgnoreCase(borrowerName)) {
-                        borrowerId = b.getId();
-                        break;
-                    }
-                }
-                if (borrowerId == -1) {
+            // Resolve the borrower from the picked suggestion or the name index without touching
+            // the database; only query it while the index is still being built
+            BorrowerNameIndex.Suggestion chosen = chosenBorrower.get();
+            BorrowerNameIndex index = nameIndex;
+            CompletableFuture<Integer> borrowerIdLookup;
+            if (chosen != null && chosen.getName().equalsIgnoreCase(borrowerName)) {
+                borrowerIdLookup = CompletableFuture.completedFuture(chosen.getId());
+            } else if (index != null) {
+                borrowerIdLookup = CompletableFuture.completedFuture(index.findId(borrowerName));
+            } else {
+                borrowerIdLookup = asyncService.findBorrowerIdByName(borrowerName);
+            }
+
+            // Then use LoanService for validation and creation
+            statusLabel.setText("Issuing loan...");
+            borrowerIdLookup.thenCompose(borrowerId -> borrowerId == -1
+                ? CompletableFuture.completedFuture((Loan) null)
+                : asyncService.issueLoan(borrowerId, borrowerName, amount, rate, months)
+            ).whenCompleteAsync((loan, error) -> {
+                statusLabel.setText("Ready");
+                Throwable cause = error == null ? null : unwrap(error);
+                if (cause instanceof InvalidLoanAmountException) {
+                    showAlert("Validation Error", cause.getMessage());
+                } else if (cause != null) {
+                    showAlert("Error", cause.getMessage());
+                } else if (loan == null) {
                     showAlert("Error", "Borrower not found. Please add the borrower first.");
-                    return;
+                } else {
+                    showAlert("Success", "Loan issued successfully!");
+                    displayLoans();
+                    statusLabel.setText("✓ Loan issued successfully!");
                 }
+            }, Platform::runLater);
+        }
+    }
 
-                // Use LoanService for validation and creation
-                loanService.issueLoan(borrowerId, borrowerName, amount, rate, months);
-
-                showAlert("Success", "Loan issued successfully!");
-                loadLoansFromDatabase();
-                displayLoans();
-                statusLabel.setText("✓ Loan issued successfully!");
-            } catch (NumberFormatException ex) {
-                showAlert("Error", "Please enter valid values for all fields");
-            } catch (InvalidLoanAmountException ex) {
-                showAlert("Validation Error", ex.getMessage());
-            } catch (BorrowerNotFoundException ex) {
-                showAlert("Error", ex.getMessage());
+    /**
+     * Show borrower-name completions from the name index under a text field as the user types
+     *
+     * @return The suggestion the user picked; cleared when the text is edited afterwards
+     */
+    private ObjectProperty<BorrowerNameIndex.Suggestion> attachBorrowerAutocomplete(TextField field) {
+        ObjectProperty<BorrowerNameIndex.Suggestion> chosen = new SimpleObjectProperty<>();
+        ContextMenu popup = new ContextMenu();
+        field.textProperty().addListener((obs, oldText, text) -> {
+            if (chosen.get() != null && !chosen.get().getName().equals(text)) {
+                chosen.set(null);
             }
-        }
+            BorrowerNameIndex index = nameIndex;
+            if (index == null || !field.isFocused()) {
+                popup.hide();
+                return;
+            }
+            List<BorrowerNameIndex.Suggestion> suggestions = index.complete(text, SUGGESTION_LIMIT);
+            // Nothing to offer once the text is already the only match
+            if (suggestions.isEmpty()
+                    || (suggestions.size() == 1 && suggestions.get(0).getName().equalsIgnoreCase(text.trim()))) {
+                popup.hide();
+                return;
+            }
+            List<MenuItem> items = new ArrayList<>(suggestions.size());
+            for (BorrowerNameIndex.Suggestion suggestion : suggestions) {
+                MenuItem item = new MenuItem(suggestion.getName() + "  (#" + suggestion.getId() + ")");
+                item.setMnemonicParsing(false);
+                item.setOnAction(e -> {
+                    field.setText(suggestion.getName());
+                    field.positionCaret(suggestion.getName().length());
+                    chosen.set(suggestion);
+                });
+                items.add(item);
+            }
+            popup.getItems().setAll(items);
+            if (!popup.isShowing()) {
+                popup.show(field, Side.BOTTOM, 0, 0);
+            }
+        });
+        field.focusedProperty().addListener((obs, wasFocused, focused) -> {
+            if (!focused) {
+                popup.hide();
+            }
+        });
+        return chosen;
     }
 
     private void handleRecordPayment() {
@@ -913,18 +1135,21 @@ public class App extends Application {
                     showAlert("Error", String.format("Payment cannot exceed outstanding balance ($%.2f)", outstanding));
                     return;
                 }
-                if (loanService.recordPayment(selectedLoan.getId(), payment)) {
-                    showAlert("Success", String.format("Payment of $%.2f recorded successfully!", payment));
-                    loadLoansFromDatabase();
-                    displayPayments();
-                    statusLabel.setText("✓ Payment recorded: $" + payment);
-                } else {
-                    showAlert("Error", "Failed to record payment");
-                }
+                statusLabel.setText("Recording payment...");
+                asyncService.recordPayment(selectedLoan.getId(), payment).whenCompleteAsync((recorded, error) -> {
+                    statusLabel.setText("Ready");
+                    if (error != null) {
+                        showAlert("Error", unwrap(error).getMessage());
+                    } else if (recorded) {
+                        showAlert("Success", String.format("Payment of $%.2f recorded successfully!", payment));
+                        displayPayments();
+                        statusLabel.setText("✓ Payment recorded: $" + payment);
+                    } else {
+                        showAlert("Error", "Failed to record payment");
+                    }
+                }, Platform::runLater);
             } catch (NumberFormatException ex) {
                 showAlert("Error", "Please enter a valid payment amount");
-            } catch (IllegalArgumentException ex) {
-                showAlert("Error", ex.getMessage());
             }
         }
     }
@@ -938,33 +1163,34 @@ public class App extends Application {
         Label titleLabel = new Label("📡 Offline Mode");
         titleLabel.setStyle("-fx-font-size: 24; -fx-font-weight: bold;");
         
-        Label messageLabel = new Label("Database connection not available.\n\nPlease ensure:\n1. MySQL is running\n2. Database 'microfinance_db' exists\n3. Credentials are correct in DatabaseConnection.java");
+        Label messageLabel = new Label("Database connection not available.\n\nPlease ensure:\n1. MySQL is running\n2. Database 'microfinance_db' exists\n3. Credentials are correct in microfinance.properties");
         messageLabel.setStyle("-fx-font-size: 14; -fx-text-alignment: center;");
         
         Button retryBtn = new Button("🔄 Retry Connection");
         retryBtn.setStyle("-fx-font-size: 12; -fx-padding: 10;");
-        retryBtn.setOnAction(e -> {
-            databaseAvailable = DatabaseConnection.testConnection();
-            if (databaseAvailable) {
-                loadLoansFromDatabase();
-                displayDashboard();
-            }
-        });
+        retryBtn.setOnAction(e -> connectDatabase());
         
         offlineBox.getChildren().addAll(titleLabel, messageLabel, retryBtn);
         contentArea.getChildren().add(offlineBox);
     }
 
-    private void loadLoansFromDatabase() {
-        if (!databaseAvailable) {
-            return;
-        }
-        
-        try {
-            allLoans = loanDAO.getAllLoans();
-        } catch (Exception e) {
-            System.err.println("Error loading loans: " + e.getMessage());
+    private static BorrowerRecord toBorrowerRecord(Borrower b) {
+        return new BorrowerRecord(b.getId(), b.getName(), b.getPhone(), b.getAddress(), b.getIncome());
+    }
+
+    private static ObservableList<BorrowerRecord> toBorrowerRecords(List<Borrower> borrowers) {
+        ObservableList<BorrowerRecord> records = FXCollections.observableArrayList();
+        for (Borrower b : borrowers) {
+            records.add(toBorrowerRecord(b));
         }
+        return records;
+    }
+
+    /**
+     * Get the exception thrown by an async call, without the CompletionException wrapper
+     */
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
     }
 
     private void showAlert(String title, String message) {
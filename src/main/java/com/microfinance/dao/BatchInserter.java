@@ -0,0 +1,123 @@
+package com.microfinance.dao;
+
+import com.microfinance.util.Log;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Shared chunked INSERT logic for the DAO bulk-import methods.
+ * Each chunk is sent as one JDBC batch (rewritten into a multi-row INSERT by the
+ * driver) and committed on its own. If a chunk fails, it is rolled back and
+ * replayed row by row so that only the offending rows are rejected.
+ *
+ * @param <T> The type of item inserted
+ */
+class BatchInserter<T> {
+    private static final Log LOG = Log.getLogger(BatchInserter.class);
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    /**
+     * Binds one item to the INSERT statement parameters
+     */
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T item) throws SQLException;
+    }
+
+    /**
+     * Receives the generated key of an inserted item
+     */
+    @FunctionalInterface
+    interface KeySetter<T> {
+        void setKey(T item, int key);
+    }
+
+    private final String sql;
+    private final Binder<T> binder;
+    private final KeySetter<T> keySetter;
+
+    BatchInserter(String sql, Binder<T> binder, KeySetter<T> keySetter) {
+        this.sql = sql;
+        this.binder = binder;
+        this.keySetter = keySetter;
+    }
+
+    BatchResult<T> insert(ConnectionProvider connections, Collection<T> items, int batchSize, BatchProgressListener listener) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        List<T> rows = items instanceof List ? (List<T>) items : new ArrayList<>(items);
+        BatchResult<T> result = new BatchResult<>();
+        int total = rows.size();
+
+        try (Connection conn = connections.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int start = 0; start < total; start += batchSize) {
+                    int end = Math.min(start + batchSize, total);
+                    insertChunk(conn, stmt, rows, start, end, result);
+                    listener.onProgress(end, total);
+                }
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            LOG.error("Batch insert aborted: " + e.getMessage(), e);
+            int processed = result.getSuccessCount() + result.getFailures().size();
+            for (int i = processed; i < total; i++) {
+                result.addFailure(i, rows.get(i), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private void insertChunk(Connection conn, PreparedStatement stmt, List<T> rows, int start, int end,
+                             BatchResult<T> result) throws SQLException {
+        try {
+            for (int i = start; i < end; i++) {
+                binder.bind(stmt, rows.get(i));
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                for (int i = start; i < end && keys.next(); i++) {
+                    keySetter.setKey(rows.get(i), keys.getInt(1));
+                }
+            }
+            conn.commit();
+            result.addSuccesses(end - start);
+        } catch (SQLException | RuntimeException e) {
+            conn.rollback();
+            stmt.clearBatch();
+            insertRowByRow(conn, stmt, rows, start, end, result);
+        }
+    }
+
+    private void insertRowByRow(Connection conn, PreparedStatement stmt, List<T> rows, int start, int end,
+                                BatchResult<T> result) throws SQLException {
+        for (int i = start; i < end; i++) {
+            T item = rows.get(i);
+            try {
+                binder.bind(stmt, item);
+                stmt.executeUpdate();
+                try (ResultSet keys = stmt.getGeneratedKeys()) {
+                    if (keys.next()) {
+                        keySetter.setKey(item, keys.getInt(1));
+                    }
+                }
+                conn.commit();
+                result.addSuccesses(1);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                result.addFailure(i, item, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.microfinance.dao;
+
+/**
+ * Callback for reporting progress of a batched bulk operation
+ */
+@FunctionalInterface
+public interface BatchProgressListener {
+    BatchProgressListener NONE = (processed, total) -> { };
+
+    /**
+     * Called after each committed chunk
+     *
+     * @param processed Number of rows processed so far (inserted or rejected)
+     * @param total Total number of rows in the operation
+     */
+    void onProgress(int processed, int total);
+}
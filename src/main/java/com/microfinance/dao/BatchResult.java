@@ -0,0 +1,91 @@
+package com.microfinance.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a batched bulk operation: how many rows were written and which were rejected
+ *
+ * @param <T> The type of item written
+ */
+public class BatchResult<T> {
+    private int successCount;
+    private final List<Failure<T>> failures = new ArrayList<>();
+
+    void addSuccesses(int count) {
+        successCount += count;
+    }
+
+    void addFailure(int index, T item, String message) {
+        failures.add(new Failure<>(index, item, message));
+    }
+
+    void addAll(BatchResult<T> other) {
+        successCount += other.successCount;
+        failures.addAll(other.failures);
+    }
+
+    /**
+     * @return Number of rows written successfully
+     */
+    public int getSuccessCount() {
+        return successCount;
+    }
+
+    /**
+     * @return Rejected rows, in input order
+     */
+    public List<Failure<T>> getFailures() {
+        return Collections.unmodifiableList(failures);
+    }
+
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "BatchResult{" +
+                "successCount=" + successCount +
+                ", failureCount=" + failures.size() +
+                '}';
+    }
+
+    /**
+     * A single rejected row
+     */
+    public static class Failure<T> {
+        private final int index;
+        private final T item;
+        private final String message;
+
+        public Failure(int index, T item, String message) {
+            this.index = index;
+            this.item = item;
+            this.message = message;
+        }
+
+        /**
+         * @return Position of the row in the input collection
+         */
+        public int getIndex() {
+            return index;
+        }
+        public T getItem() {
+            return item;
+        }
+        public String getMessage() {
+            return message;
+        }
+
+        @Override
+        public String toString() {
+            return "Failure{" +
+                    "index=" + index +
+                    ", item=" + item +
+                    ", message='" + message + '\'' +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.microfinance.dao;
+
+import com.microfinance.model.Borrower;
+
+/**
+ * Callback for keeping in-memory borrower indexes current.
+ * Called synchronously by any BorrowerRepository after each successful write.
+ */
+public interface BorrowerChangeListener {
+    /**
+     * A borrower was inserted or updated
+     *
+     * @param borrower The saved borrower, with its generated ID; listeners must not modify it
+     */
+    void borrowerSaved(Borrower borrower);
+
+    /**
+     * A borrower was deleted
+     */
+    void borrowerDeleted(int id);
+}
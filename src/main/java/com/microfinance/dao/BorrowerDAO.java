@@ -1,92 +1,208 @@
 package com.microfinance.dao;
 
 import com.microfinance.model.Borrower;
-import com.microfinance.util.DatabaseConnection;
+import com.microfinance.util.AppConfig;
+import com.microfinance.util.Log;
+import com.microfinance.util.LruCache;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Borrower operations
+ *
+ * Runs against the application's MySQL pool by default, or against any
+ * ConnectionProvider such as an embedded H2 database in MySQL mode.
  */
-public class BorrowerDAO {
+public class BorrowerDAO implements BorrowerRepository {
+    private static final Log LOG = Log.getLogger(BorrowerDAO.class);
+
+    /**
+     * Read-through cache for getBorrowerById, shared by all instances on the application pool
+     */
+    private static final LruCache<Integer, Borrower> BORROWER_CACHE = new LruCache<>("Borrower",
+        AppConfig.get().getLong("cache.borrowers.maxEntries", 10_000),
+        AppConfig.get().getLong("cache.ttlMs", 300_000));
+
+    private static final List<BorrowerChangeListener> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private static final String INSERT_BORROWER_SQL =
+        "INSERT INTO borrowers (name, email, phone, address, income) VALUES (?, ?, ?, ?, ?)";
+
+    private static final BatchInserter<Borrower> BATCH_INSERTER =
+        new BatchInserter<>(INSERT_BORROWER_SQL, BorrowerDAO::bindBorrower, Borrower::setId);
+
+    private final ConnectionProvider connections;
+    private final LruCache<Integer, Borrower> borrowerCache;
+
+    /**
+     * A DAO on the application's MySQL pool, sharing the process-wide borrower cache
+     */
+    public BorrowerDAO() {
+        this.connections = ConnectionProvider.DEFAULT;
+        this.borrowerCache = BORROWER_CACHE;
+    }
+
+    /**
+     * A DAO on another database. The shared cache is keyed by borrower ID alone, so
+     * this DAO reads through instead
+     */
+    public BorrowerDAO(ConnectionProvider connections) {
+        this.connections = connections;
+        this.borrowerCache = new LruCache<>("Borrower", 0, 0);
+    }
 
     /**
      * Add a new borrower to the database
      */
+    @Override
     public boolean addBorrower(Borrower borrower) {
-        String sql = "INSERT INTO borrowers (name, email, phone, address, income) VALUES (?, ?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setString(1, borrower.getName());
-            stmt.setString(2, borrower.getEmail());
-            stmt.setString(3, borrower.getPhone());
-            stmt.setString(4, borrower.getAddress());
-            stmt.setDouble(5, borrower.getIncome());
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_BORROWER_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindBorrower(stmt, borrower);
             int rowsInserted = stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    borrower.setId(keys.getInt(1));
+                }
+            }
+            if (rowsInserted > 0) {
+                fireSaved(borrower);
+            }
             return rowsInserted > 0;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Failed to add borrower: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Failed to add borrower: " + e.getMessage(), e);
             return false;
         }
     }
 
+    /**
+     * Bulk-insert borrowers using JDBC batching, committing once per chunk.
+     * Generated IDs are written back to the Borrower objects. A failing row is
+     * reported in the result and does not abort the rest of the load.
+     *
+     * @param borrowers The borrowers to insert
+     * @param batchSize Rows per batch and per commit
+     * @param listener Progress callback invoked after each chunk
+     * @return Inserted count and the rejected rows
+     */
+    @Override
+    public BatchResult<Borrower> addBorrowers(Collection<Borrower> borrowers, int batchSize, BatchProgressListener listener) {
+        BatchResult<Borrower> result = BATCH_INSERTER.insert(connections, borrowers, batchSize, listener);
+        if (!LISTENERS.isEmpty()) {
+            for (Borrower borrower : borrowers) {
+                // Rejected rows never receive a generated ID
+                if (borrower.getId() > 0) {
+                    fireSaved(borrower);
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Get all borrowers from the database
      */
+    @Override
     public List<Borrower> getAllBorrowers() {
         List<Borrower> borrowers = new ArrayList<>();
         String sql = "SELECT * FROM borrowers ORDER BY id DESC";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connections.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             
             while (rs.next()) {
-                Borrower borrower = new Borrower(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("address"),
-                    rs.getDouble("income")
-                );
+                Borrower borrower = mapBorrower(rs);
                 borrowers.add(borrower);
             }
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error retrieving borrowers: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error retrieving borrowers: " + e.getMessage(), e);
         }
         return borrowers;
     }
 
     /**
-     * Get a borrower by ID
+     * Visit every borrower in ID order over a forward-only streaming cursor,
+     * without materializing the full list (e.g. to build in-memory indexes)
+     *
+     * @param visitor Callback invoked once per borrower
+     * @return Number of borrowers visited
      */
+    @Override
+    public int forEachBorrower(Consumer<Borrower> visitor) {
+        String sql = "SELECT * FROM borrowers ORDER BY id";
+        int visited = 0;
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(LoanDAO.fetchSize(conn, LoanDAO.STREAMING_FETCH_SIZE));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.accept(mapBorrower(rs));
+                    visited++;
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving borrowers: " + e.getMessage(), e);
+        }
+        return visited;
+    }
+
+    /**
+     * Get one page of borrowers, newest first, using keyset pagination on id
+     *
+     * @param afterId ID of the last row of the previous page, or 0 for the first page
+     * @param pageSize Maximum number of borrowers to return
+     * @return The next page of borrowers, empty when there are no more rows
+     */
+    @Override
+    public List<Borrower> getBorrowersPage(int afterId, int pageSize) {
+        List<Borrower> borrowers = new ArrayList<>();
+        String sql = "SELECT * FROM borrowers WHERE id < ? ORDER BY id DESC LIMIT ?";
+
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, afterId > 0 ? afterId : Integer.MAX_VALUE);
+            stmt.setInt(2, pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    borrowers.add(mapBorrower(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving borrower page: " + e.getMessage(), e);
+        }
+        return borrowers;
+    }
+
+    /**
+     * Get a borrower by ID, served from the borrower cache when possible
+     *
+     * @return A copy the caller may modify, or null if there is no such borrower
+     */
+    @Override
     public Borrower getBorrowerById(int id) {
+        Borrower borrower = borrowerCache.get(id, this::loadBorrowerById);
+        return borrower == null ? null : new Borrower(borrower);
+    }
+
+    private Borrower loadBorrowerById(int id) {
         String sql = "SELECT * FROM borrowers WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connections.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
             
             if (rs.next()) {
-                return new Borrower(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("address"),
-                    rs.getDouble("income")
-                );
+                return mapBorrower(rs);
             }
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error retrieving borrower: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error retrieving borrower: " + e.getMessage(), e);
         }
         return null;
     }
@@ -94,10 +210,11 @@ public class BorrowerDAO {
     /**
      * Update a borrower
      */
+    @Override
     public boolean updateBorrower(Borrower borrower) {
         String sql = "UPDATE borrowers SET name = ?, email = ?, phone = ?, address = ?, income = ? WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connections.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setString(1, borrower.getName());
             stmt.setString(2, borrower.getEmail());
@@ -106,60 +223,158 @@ public class BorrowerDAO {
             stmt.setDouble(5, borrower.getIncome());
             stmt.setInt(6, borrower.getId());
             int rowsUpdated = stmt.executeUpdate();
+            if (rowsUpdated > 0) {
+                fireSaved(borrower);
+            }
             return rowsUpdated > 0;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error updating borrower: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error updating borrower: " + e.getMessage(), e);
             return false;
+        } finally {
+            invalidate(borrowerCache, borrower.getId());
         }
     }
 
     /**
      * Delete a borrower
      */
+    @Override
     public boolean deleteBorrower(int id) {
         String sql = "DELETE FROM borrowers WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connections.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             int rowsDeleted = stmt.executeUpdate();
+            if (rowsDeleted > 0) {
+                fireDeleted(id);
+            }
             return rowsDeleted > 0;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error deleting borrower: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error deleting borrower: " + e.getMessage(), e);
             return false;
+        } finally {
+            invalidate(borrowerCache, id);
+        }
+    }
+
+    /**
+     * Drop a borrower from the cache, along with every cached loan: loans carry the
+     * borrower's name and are deleted with the borrower
+     */
+    private static void invalidate(LruCache<Integer, Borrower> cache, int id) {
+        cache.invalidate(id);
+        LoanDAO.LOAN_CACHE.invalidateAll();
+        LoanDAO.loansChanged();
+    }
+
+    /**
+     * Register a listener notified after every successful borrower insert, update or delete
+     * made through any BorrowerRepository
+     */
+    public static void addChangeListener(BorrowerChangeListener listener) {
+        LISTENERS.add(listener);
+    }
+
+    public static void removeChangeListener(BorrowerChangeListener listener) {
+        LISTENERS.remove(listener);
+    }
+
+    static void fireSaved(Borrower borrower) {
+        if (LISTENERS.isEmpty()) {
+            return;
+        }
+        // Listeners may keep the object, so give them a copy the caller cannot change
+        Borrower saved = new Borrower(borrower);
+        for (BorrowerChangeListener listener : LISTENERS) {
+            listener.borrowerSaved(saved);
+        }
+    }
+
+    static void fireDeleted(int id) {
+        for (BorrowerChangeListener listener : LISTENERS) {
+            listener.borrowerDeleted(id);
+        }
+    }
+
+    /**
+     * @return The borrower cache shared by DAOs on the application pool, for statistics
+     */
+    public static LruCache<Integer, Borrower> getCache() {
+        return BORROWER_CACHE;
+    }
+
+    /**
+     * Resolve an exact borrower name to an ID with a lookup on idx_name
+     * (case-insensitive under the table's collation)
+     *
+     * @return The lowest ID with that name, or -1 if there is none
+     */
+    @Override
+    public int findBorrowerIdByName(String name) {
+        String sql = "SELECT id FROM borrowers WHERE name = ? ORDER BY id LIMIT 1";
+
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, name);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return rs.getInt("id");
+            }
+        } catch (SQLException e) {
+            LOG.error("Error resolving borrower name: " + e.getMessage(), e);
         }
+        return -1;
     }
 
     /**
-     * Search borrowers by name
+     * Search borrowers by name with LIKE '%name%' (a full table scan)
+     * Interactive search should use BorrowerSearchIndex; this is the fallback while it is built
      */
+    @Override
     public List<Borrower> searchBorrowersByName(String name) {
         List<Borrower> borrowers = new ArrayList<>();
         String sql = "SELECT * FROM borrowers WHERE name LIKE ? ORDER BY name";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connections.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setString(1, "%" + name + "%");
             ResultSet rs = stmt.executeQuery();
             while (rs.next()) {
-                Borrower borrower = new Borrower(
-                    rs.getInt("id"),
-                    rs.getString("name"),
-                    rs.getString("email"),
-                    rs.getString("phone"),
-                    rs.getString("address"),
-                    rs.getDouble("income")
-                );
+                Borrower borrower = mapBorrower(rs);
                 borrowers.add(borrower);
             }
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error searching borrowers: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error searching borrowers: " + e.getMessage(), e);
         }
         return borrowers;
     }
+
+    /**
+     * Bind a borrower to the parameters of INSERT_BORROWER_SQL
+     */
+    private static void bindBorrower(PreparedStatement stmt, Borrower borrower) throws SQLException {
+        stmt.setString(1, borrower.getName());
+        stmt.setString(2, borrower.getEmail());
+        stmt.setString(3, borrower.getPhone());
+        stmt.setString(4, borrower.getAddress());
+        stmt.setDouble(5, borrower.getIncome());
+    }
+
+    /**
+     * Map the current row of the borrowers table to a Borrower
+     */
+    private Borrower mapBorrower(ResultSet rs) throws SQLException {
+        return new Borrower(
+            rs.getInt("id"),
+            rs.getString("name"),
+            rs.getString("email"),
+            rs.getString("phone"),
+            rs.getString("address"),
+            rs.getDouble("income")
+        );
+    }
 }
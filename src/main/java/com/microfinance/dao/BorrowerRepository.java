@@ -0,0 +1,76 @@
+package com.microfinance.dao;
+
+import com.microfinance.model.Borrower;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage of borrowers.
+ *
+ * BorrowerDAO implements it over JDBC and InMemoryStore over concurrent maps.
+ * Every implementation notifies the listeners registered with
+ * BorrowerDAO.addChangeListener after each successful write.
+ */
+public interface BorrowerRepository {
+    /**
+     * Add a new borrower; its generated ID is written back
+     */
+    boolean addBorrower(Borrower borrower);
+
+    /**
+     * Bulk-insert borrowers with the default batch size
+     */
+    default BatchResult<Borrower> addBorrowers(Collection<Borrower> borrowers) {
+        return addBorrowers(borrowers, BatchInserter.DEFAULT_BATCH_SIZE, BatchProgressListener.NONE);
+    }
+
+    /**
+     * Bulk-insert borrowers, committing once per chunk. Generated IDs are written back;
+     * a failing row is reported in the result and does not abort the load.
+     */
+    BatchResult<Borrower> addBorrowers(Collection<Borrower> borrowers, int batchSize, BatchProgressListener listener);
+
+    /**
+     * Get all borrowers, newest first
+     */
+    List<Borrower> getAllBorrowers();
+
+    /**
+     * Visit every borrower in ID order without materializing the full list
+     *
+     * @return Number of borrowers visited
+     */
+    int forEachBorrower(Consumer<Borrower> visitor);
+
+    /**
+     * Get one page of borrowers, newest first
+     *
+     * @param afterId ID of the last row of the previous page, or 0 for the first page
+     */
+    List<Borrower> getBorrowersPage(int afterId, int pageSize);
+
+    /**
+     * @return A copy the caller may modify, or null if there is no such borrower
+     */
+    Borrower getBorrowerById(int id);
+
+    boolean updateBorrower(Borrower borrower);
+
+    /**
+     * Delete a borrower along with their loans and payments
+     */
+    boolean deleteBorrower(int id);
+
+    /**
+     * Resolve an exact borrower name (case-insensitive) to an ID
+     *
+     * @return The lowest ID with that name, or -1 if there is none
+     */
+    int findBorrowerIdByName(String name);
+
+    /**
+     * Search borrowers whose name contains the text (case-insensitive), ordered by name
+     */
+    List<Borrower> searchBorrowersByName(String name);
+}
@@ -0,0 +1,22 @@
+package com.microfinance.dao;
+
+import com.microfinance.util.DatabaseConnection;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Source of JDBC connections for the DAOs, e.g. the application pool or
+ * dataSource::getConnection for an embedded database
+ */
+@FunctionalInterface
+public interface ConnectionProvider {
+    /**
+     * The application's MySQL pool
+     */
+    ConnectionProvider DEFAULT = DatabaseConnection::getConnection;
+
+    /**
+     * @return A connection the caller must close
+     */
+    Connection getConnection() throws SQLException;
+}
@@ -0,0 +1,542 @@
+package com.microfinance.dao;
+
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.Payment;
+import com.microfinance.model.PortfolioSummary;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Borrowers, loans and payments held in concurrent maps, so the services can run
+ * in tests, benchmarks and load tests without a database.
+ *
+ * Behaves like the MySQL schema: IDs are generated, a loan must reference an
+ * existing borrower, deleting a borrower deletes their loans and payments, and
+ * names and statuses compare case-insensitively. Every read returns copies.
+ *
+ * Thread-safe. Stored objects are never modified; a write replaces the loan
+ * atomically in its map entry, so payments to different loans never contend.
+ * Reads do not lock: pages walk a (loan date, ID) index and skip entries that no
+ * longer match the stored loan.
+ */
+public class InMemoryStore {
+    private final ConcurrentSkipListMap<Integer, Borrower> borrowers = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Integer, Loan> loans = new ConcurrentHashMap<>();
+    // (loan date, ID) packed into a long by dateKey, for newest-first scans and keyset pages
+    private final ConcurrentSkipListSet<Long> byLoanDate = new ConcurrentSkipListSet<>();
+    private final ConcurrentLinkedQueue<Payment> payments = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger nextBorrowerId = new AtomicInteger(1);
+    private final AtomicInteger nextLoanId = new AtomicInteger(1);
+    private final AtomicInteger nextPaymentId = new AtomicInteger(1);
+    private final LoanRepository loanRepository = new Loans();
+    private final BorrowerRepository borrowerRepository = new Borrowers();
+
+    public LoanRepository loans() {
+        return loanRepository;
+    }
+
+    public BorrowerRepository borrowers() {
+        return borrowerRepository;
+    }
+
+    /**
+     * Get the ledger of a loan, oldest first
+     */
+    public List<Payment> getPaymentsByLoan(int loanId) {
+        List<Payment> result = new ArrayList<>();
+        for (Payment payment : payments) {
+            if (payment.getLoanId() == loanId) {
+                result.add(copy(payment));
+            }
+        }
+        result.sort(Comparator.comparing(Payment::getPaymentDate).thenComparingInt(Payment::getId));
+        return result;
+    }
+
+    public int getBorrowerCount() {
+        return borrowers.size();
+    }
+
+    public int getLoanCount() {
+        return loans.size();
+    }
+
+    private static long dateKey(LocalDate date, int id) {
+        return (date.toEpochDay() << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    private static long dateKey(Loan loan) {
+        return dateKey(loan.getLoanDate(), loan.getId());
+    }
+
+    private static Payment copy(Payment payment) {
+        return new Payment(payment.getId(), payment.getLoanId(), payment.getPaymentAmount(),
+            payment.getPaymentDate(), payment.getNotes());
+    }
+
+    /**
+     * Copy a stored loan with its borrower's current name, as the JDBC join does
+     */
+    private Loan view(Loan stored) {
+        Loan loan = new Loan(stored);
+        Borrower borrower = borrowers.get(stored.getBorrowerId());
+        if (borrower != null) {
+            loan.setBorrowerName(borrower.getName());
+        }
+        return loan;
+    }
+
+    /**
+     * Walk the loans of an index range, skipping entries left behind by a concurrent update
+     *
+     * @return false if the visitor asked to stop
+     */
+    private boolean walk(NavigableSet<Long> keys, LoanVisitor visitor) {
+        for (long key : keys) {
+            Loan loan = loans.get((int) key);
+            if (loan != null && dateKey(loan) == key && !visitor.visit(loan)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @FunctionalInterface
+    private interface LoanVisitor {
+        /**
+         * @return false to stop the walk
+         */
+        boolean visit(Loan stored);
+    }
+
+    private static boolean isOverdue(Loan loan, LocalDate today) {
+        return loan.getDueDate().isBefore(today) && loan.getOutstandingBalance() > 0;
+    }
+
+    /**
+     * Remove a loan and its payments, as ON DELETE CASCADE does
+     */
+    private boolean removeLoan(int id) {
+        Loan removed = loans.remove(id);
+        if (removed == null) {
+            return false;
+        }
+        byLoanDate.remove(dateKey(removed));
+        payments.removeIf(payment -> payment.getLoanId() == id);
+        return true;
+    }
+
+    private final class Loans implements LoanRepository {
+        @Override
+        public boolean addLoan(Loan loan) {
+            try {
+                return insert(loan) == null;
+            } finally {
+                LoanDAO.loansChanged();
+            }
+        }
+
+        /**
+         * @return null on success, otherwise why the loan was rejected
+         */
+        private String insert(Loan loan) {
+            if (!borrowers.containsKey(loan.getBorrowerId())) {
+                return "No borrower with ID: " + loan.getBorrowerId();
+            }
+            int id = nextLoanId.getAndIncrement();
+            Loan stored = new Loan(loan);
+            stored.setId(id);
+            stored.setBorrowerName(null);
+            byLoanDate.add(dateKey(stored));
+            loans.put(id, stored);
+            // The borrower may have been deleted while the loan was added; the cascade may have missed it
+            if (!borrowers.containsKey(loan.getBorrowerId())) {
+                removeLoan(id);
+                return "No borrower with ID: " + loan.getBorrowerId();
+            }
+            loan.setId(id);
+            return null;
+        }
+
+        @Override
+        public BatchResult<Loan> addLoans(Collection<Loan> items, int batchSize, BatchProgressListener listener) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be greater than 0");
+            }
+            BatchResult<Loan> result = new BatchResult<>();
+            try {
+                int index = 0;
+                int total = items.size();
+                for (Loan loan : items) {
+                    String error = insert(loan);
+                    if (error == null) {
+                        result.addSuccesses(1);
+                    } else {
+                        result.addFailure(index, loan, error);
+                    }
+                    index++;
+                    if (index % batchSize == 0 || index == total) {
+                        listener.onProgress(index, total);
+                    }
+                }
+            } finally {
+                LoanDAO.loansChanged();
+            }
+            return result;
+        }
+
+        @Override
+        public int forEachLoan(Consumer<Loan> visitor) {
+            int[] visited = {0};
+            walk(byLoanDate.descendingSet(), stored -> {
+                visitor.accept(view(stored));
+                visited[0]++;
+                return true;
+            });
+            return visited[0];
+        }
+
+        @Override
+        public List<Loan> getLoansPage(LocalDate afterLoanDate, int afterId, int pageSize) {
+            NavigableSet<Long> keys = afterLoanDate == null
+                ? byLoanDate.descendingSet()
+                : byLoanDate.headSet(dateKey(afterLoanDate, afterId), false).descendingSet();
+            List<Loan> page = new ArrayList<>();
+            walk(keys, stored -> {
+                if (page.size() >= pageSize) {
+                    return false;
+                }
+                page.add(view(stored));
+                return true;
+            });
+            return page;
+        }
+
+        @Override
+        public List<Loan> searchLoansPage(String query, LocalDate afterLoanDate, int afterId, int pageSize) {
+            String text = query == null ? "" : query.trim().toLowerCase();
+            if (text.isEmpty()) {
+                return getLoansPage(afterLoanDate, afterId, pageSize);
+            }
+            NavigableSet<Long> keys = afterLoanDate == null
+                ? byLoanDate.descendingSet()
+                : byLoanDate.headSet(dateKey(afterLoanDate, afterId), false).descendingSet();
+            List<Loan> page = new ArrayList<>();
+            walk(keys, stored -> {
+                if (page.size() >= pageSize) {
+                    return false;
+                }
+                Loan loan = view(stored);
+                String name = loan.getBorrowerName();
+                if ((name != null && name.toLowerCase().contains(text)) || String.valueOf(loan.getId()).contains(text)) {
+                    page.add(loan);
+                }
+                return true;
+            });
+            return page;
+        }
+
+        @Override
+        public Loan getLoanById(int id) {
+            Loan stored = loans.get(id);
+            return stored == null ? null : view(stored);
+        }
+
+        @Override
+        public boolean recordPayment(int loanId, double paymentAmount) {
+            try {
+                return apply(new Payment(loanId, paymentAmount, LocalDate.now(), null));
+            } finally {
+                LoanDAO.loansChanged();
+            }
+        }
+
+        /**
+         * Apply a payment as APPLY_PAYMENT_SQL does and append it to the ledger
+         */
+        private boolean apply(Payment payment) {
+            double amount = payment.getPaymentAmount();
+            Loan updated = loans.computeIfPresent(payment.getLoanId(), (id, loan) -> {
+                Loan next = new Loan(loan);
+                double balance = loan.getOutstandingBalance() - amount;
+                if (balance <= 0) {
+                    next.setStatus("Completed");
+                } else {
+                    next.setDueDate(loan.getDueDate().plusMonths(1));
+                }
+                next.setOutstandingBalance(balance);
+                return next;
+            });
+            if (updated == null) {
+                return false;
+            }
+            Payment entry = copy(payment);
+            entry.setId(nextPaymentId.getAndIncrement());
+            payments.add(entry);
+            return true;
+        }
+
+        @Override
+        public BatchResult<Payment> recordPayments(Collection<Payment> items, int batchSize, BatchProgressListener listener) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be greater than 0");
+            }
+            BatchResult<Payment> result = new BatchResult<>();
+            try {
+                int index = 0;
+                int total = items.size();
+                for (Payment payment : items) {
+                    if (apply(payment)) {
+                        result.addSuccesses(1);
+                    } else {
+                        result.addFailure(index, payment, "Loan not found with ID: " + payment.getLoanId());
+                    }
+                    index++;
+                    if (index % batchSize == 0 || index == total) {
+                        listener.onProgress(index, total);
+                    }
+                }
+            } finally {
+                LoanDAO.loansChanged();
+            }
+            return result;
+        }
+
+        @Override
+        public boolean updateLoan(Loan loan) {
+            try {
+                if (!borrowers.containsKey(loan.getBorrowerId())) {
+                    return false;
+                }
+                long[] oldKey = {0};
+                Loan updated = loans.computeIfPresent(loan.getId(), (id, current) -> {
+                    Loan next = new Loan(loan);
+                    next.setBorrowerName(null);
+                    oldKey[0] = dateKey(current);
+                    byLoanDate.add(dateKey(next));
+                    return next;
+                });
+                if (updated == null) {
+                    return false;
+                }
+                // Drop the old index entry only after the new loan is visible, and only if no
+                // later update has taken the same key again
+                loans.compute(loan.getId(), (id, current) -> {
+                    if (current == null || dateKey(current) != oldKey[0]) {
+                        byLoanDate.remove(oldKey[0]);
+                    }
+                    return current;
+                });
+                return true;
+            } finally {
+                LoanDAO.loansChanged();
+            }
+        }
+
+        @Override
+        public boolean deleteLoan(int id) {
+            try {
+                return removeLoan(id);
+            } finally {
+                LoanDAO.loansChanged();
+            }
+        }
+
+        @Override
+        public List<Loan> getActiveLoans() {
+            List<Loan> active = new ArrayList<>();
+            walk(byLoanDate.descendingSet(), stored -> {
+                if ("Active".equalsIgnoreCase(stored.getStatus())) {
+                    active.add(view(stored));
+                }
+                return true;
+            });
+            return active;
+        }
+
+        @Override
+        public List<Loan> getOverdueLoans(LocalDate afterDueDate, int afterId, int pageSize) {
+            LocalDate today = LocalDate.now();
+            Long after = afterDueDate == null ? null : dateKey(afterDueDate, afterId);
+            List<Loan> overdue = new ArrayList<>();
+            for (Loan stored : loans.values()) {
+                if (isOverdue(stored, today) && (after == null || dateKey(stored.getDueDate(), stored.getId()) > after)) {
+                    overdue.add(stored);
+                }
+            }
+            overdue.sort(Comparator.comparing(Loan::getDueDate).thenComparingInt(Loan::getId));
+            List<Loan> page = new ArrayList<>(Math.min(overdue.size(), pageSize));
+            for (int i = 0; i < overdue.size() && i < pageSize; i++) {
+                page.add(view(overdue.get(i)));
+            }
+            return page;
+        }
+
+        @Override
+        public long countOverdueLoans() {
+            LocalDate today = LocalDate.now();
+            long count = 0;
+            for (Loan stored : loans.values()) {
+                if (isOverdue(stored, today)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public PortfolioSummary getPortfolioSummary() {
+            LocalDate today = LocalDate.now();
+            Map<String, Long> countsByStatus = new HashMap<>();
+            double totalAmount = 0;
+            double totalOutstanding = 0;
+            long overdueCount = 0;
+            for (Loan stored : loans.values()) {
+                String status = stored.getStatus();
+                countsByStatus.merge(status == null ? "UNKNOWN" : status.toUpperCase(), 1L, Long::sum);
+                totalAmount += stored.getLoanAmount();
+                totalOutstanding += stored.getOutstandingBalance();
+                if (isOverdue(stored, today)) {
+                    overdueCount++;
+                }
+            }
+            return new PortfolioSummary(countsByStatus, totalAmount, totalOutstanding, overdueCount);
+        }
+    }
+
+    private final class Borrowers implements BorrowerRepository {
+        @Override
+        public boolean addBorrower(Borrower borrower) {
+            int id = nextBorrowerId.getAndIncrement();
+            borrower.setId(id);
+            borrowers.put(id, new Borrower(borrower));
+            BorrowerDAO.fireSaved(borrower);
+            return true;
+        }
+
+        @Override
+        public BatchResult<Borrower> addBorrowers(Collection<Borrower> items, int batchSize, BatchProgressListener listener) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be greater than 0");
+            }
+            BatchResult<Borrower> result = new BatchResult<>();
+            int index = 0;
+            int total = items.size();
+            for (Borrower borrower : items) {
+                addBorrower(borrower);
+                result.addSuccesses(1);
+                index++;
+                if (index % batchSize == 0 || index == total) {
+                    listener.onProgress(index, total);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public List<Borrower> getAllBorrowers() {
+            List<Borrower> result = new ArrayList<>(borrowers.size());
+            for (Borrower borrower : borrowers.descendingMap().values()) {
+                result.add(new Borrower(borrower));
+            }
+            return result;
+        }
+
+        @Override
+        public int forEachBorrower(Consumer<Borrower> visitor) {
+            int visited = 0;
+            for (Borrower borrower : borrowers.values()) {
+                visitor.accept(new Borrower(borrower));
+                visited++;
+            }
+            return visited;
+        }
+
+        @Override
+        public List<Borrower> getBorrowersPage(int afterId, int pageSize) {
+            List<Borrower> page = new ArrayList<>();
+            for (Borrower borrower : borrowers.headMap(afterId > 0 ? afterId : Integer.MAX_VALUE, false)
+                    .descendingMap().values()) {
+                if (page.size() >= pageSize) {
+                    break;
+                }
+                page.add(new Borrower(borrower));
+            }
+            return page;
+        }
+
+        @Override
+        public Borrower getBorrowerById(int id) {
+            Borrower borrower = borrowers.get(id);
+            return borrower == null ? null : new Borrower(borrower);
+        }
+
+        @Override
+        public boolean updateBorrower(Borrower borrower) {
+            try {
+                if (borrowers.replace(borrower.getId(), new Borrower(borrower)) == null) {
+                    return false;
+                }
+                BorrowerDAO.fireSaved(borrower);
+                return true;
+            } finally {
+                LoanDAO.loansChanged();
+            }
+        }
+
+        @Override
+        public boolean deleteBorrower(int id) {
+            try {
+                if (borrowers.remove(id) == null) {
+                    return false;
+                }
+                for (Loan loan : loans.values()) {
+                    if (loan.getBorrowerId() == id) {
+                        removeLoan(loan.getId());
+                    }
+                }
+                BorrowerDAO.fireDeleted(id);
+                return true;
+            } finally {
+                LoanDAO.loansChanged();
+            }
+        }
+
+        @Override
+        public int findBorrowerIdByName(String name) {
+            for (Borrower borrower : borrowers.values()) {
+                if (borrower.getName().equalsIgnoreCase(name)) {
+                    return borrower.getId();
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public List<Borrower> searchBorrowersByName(String name) {
+            String needle = name.toLowerCase(Locale.ROOT);
+            List<Borrower> matches = new ArrayList<>();
+            for (Borrower borrower : borrowers.values()) {
+                if (borrower.getName().toLowerCase(Locale.ROOT).contains(needle)) {
+                    matches.add(new Borrower(borrower));
+                }
+            }
+            matches.sort(Comparator.comparing(Borrower::getName, String.CASE_INSENSITIVE_ORDER));
+            return matches;
+        }
+    }
+}
@@ -1,149 +1,434 @@
 package com.microfinance.dao;
 
 import com.microfinance.model.Loan;
-import com.microfinance.util.DatabaseConnection;
+import com.microfinance.model.Payment;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.util.AppConfig;
+import com.microfinance.util.Log;
+import com.microfinance.util.LruCache;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 /**
  * Data Access Object for Loan operations
+ *
+ * Runs against the application's MySQL pool by default, or against any
+ * ConnectionProvider such as an embedded H2 database in MySQL mode.
  */
-public class LoanDAO {
+public class LoanDAO implements LoanRepository {
+    private static final Log LOG = Log.getLogger(LoanDAO.class);
+
+    /**
+     * Read-through cache for getLoanById, shared by all instances on the application
+     * pool so that a write through any LoanDAO (or a borrower change) invalidates it.
+     * Entries hold the joined borrower name, so BorrowerDAO clears this cache when a
+     * borrower changes.
+     */
+    static final LruCache<Integer, Loan> LOAN_CACHE = new LruCache<>("Loan",
+        AppConfig.get().getLong("cache.loans.maxEntries", 10_000),
+        AppConfig.get().getLong("cache.ttlMs", 300_000));
+
+    /**
+     * Incremented after every loan write made through any LoanRepository (or a
+     * borrower change, which renames or cascades to loans), so that data derived from
+     * a full scan can tell whether it is stale. Writes by other processes are not seen.
+     */
+    private static final AtomicLong DATA_VERSION = new AtomicLong();
+
+    /**
+     * Fetch size that makes MySQL Connector/J stream rows one at a time instead of
+     * buffering the whole result set. Positive fetch sizes would only take effect with
+     * useCursorFetch=true, which the profiles leave off (it forces server-side prepares),
+     * so on MySQL this is the only way to stream.
+     */
+    public static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    /**
+     * Fetch size used instead of STREAMING_FETCH_SIZE by drivers that reject a negative one
+     */
+    static final int CURSOR_FETCH_SIZE = 1000;
+
+    /**
+     * Overdue loans are loans past their due date with a balance remaining, whatever
+     * their status, as in LoanService.isLoanOverdue. The predicate is one range on
+     * idx_due_balance, which also covers the balance test.
+     */
+    private static final String OVERDUE_PREDICATE = "l.due_date < CURDATE() AND l.outstanding_balance > 0";
+
+    private static final String INSERT_LOAN_SQL =
+        "INSERT INTO loans (borrower_id, loan_amount, outstanding_balance, status, loan_date, due_date, interest_rate) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final BatchInserter<Loan> BATCH_INSERTER =
+        new BatchInserter<>(INSERT_LOAN_SQL, LoanDAO::bindLoan, Loan::setId);
+
+    /**
+     * Applies one payment to a loan. status and due_date are evaluated against the
+     * pre-payment balance, so they are assigned before outstanding_balance
+     * (MySQL applies SET assignments left to right). TIMESTAMPADD rather than
+     * DATE_ADD, which H2 does not accept, keeps the statement portable.
+     */
+    private static final String APPLY_PAYMENT_SQL = "UPDATE loans SET " +
+        "status = CASE WHEN outstanding_balance - ? <= 0 THEN 'Completed' ELSE status END, " +
+        "due_date = CASE WHEN outstanding_balance - ? > 0 THEN TIMESTAMPADD(MONTH, 1, due_date) ELSE due_date END, " +
+        "outstanding_balance = outstanding_balance - ? " +
+        "WHERE id = ?";
+
+    private static final String SELECT_LOANS_WITH_BORROWER =
+        "SELECT l.*, b.name AS borrower_name FROM loans l JOIN borrowers b ON l.borrower_id = b.id";
+
+    private final ConnectionProvider connections;
+    private final LruCache<Integer, Loan> loanCache;
+
+    /**
+     * A DAO on the application's MySQL pool, sharing the process-wide loan cache
+     */
+    public LoanDAO() {
+        this.connections = ConnectionProvider.DEFAULT;
+        this.loanCache = LOAN_CACHE;
+    }
+
+    /**
+     * A DAO on another database. The shared cache is keyed by loan ID alone, so
+     * this DAO reads through instead
+     */
+    public LoanDAO(ConnectionProvider connections) {
+        this.connections = connections;
+        this.loanCache = new LruCache<>("Loan", 0, 0);
+    }
 
     /**
      * Add a new loan to the database
      */
+    @Override
     public boolean addLoan(Loan loan) {
-        String sql = "INSERT INTO loans (borrower_id, loan_amount, outstanding_balance, status, loan_date, due_date, interest_rate) VALUES (?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            stmt.setInt(1, loan.getBorrowerId());
-            stmt.setDouble(2, loan.getLoanAmount());
-            stmt.setDouble(3, loan.getOutstandingBalance());
-            stmt.setString(4, loan.getStatus());
-            stmt.setDate(5, java.sql.Date.valueOf(loan.getLoanDate()));
-            stmt.setDate(6, java.sql.Date.valueOf(loan.getDueDate()));
-            stmt.setDouble(7, loan.getInterestRate());
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_LOAN_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindLoan(stmt, loan);
             int rowsInserted = stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    loan.setId(keys.getInt(1));
+                }
+            }
             return rowsInserted > 0;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Failed to add loan to database: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Failed to add loan to database: " + e.getMessage(), e);
             return false;
+        } finally {
+            loansChanged();
+        }
+    }
+
+    /**
+     * Bulk-insert loans using JDBC batching, committing once per chunk.
+     * Generated IDs are written back to the Loan objects. A failing row (for example
+     * an unknown borrower_id) is reported in the result and does not abort the load.
+     *
+     * @param loans The loans to insert
+     * @param batchSize Rows per batch and per commit
+     * @param listener Progress callback invoked after each chunk
+     * @return Inserted count and the rejected rows
+     */
+    @Override
+    public BatchResult<Loan> addLoans(Collection<Loan> loans, int batchSize, BatchProgressListener listener) {
+        try {
+            return BATCH_INSERTER.insert(connections, loans, batchSize, listener);
+        } finally {
+            loansChanged();
         }
     }
 
     /**
-     * Get all loans from the database
+     * Visit every loan, newest first, over a forward-only read-only cursor, streaming
+     * rows without materializing the full list (loadSnapshot streams them straight
+     * into the snapshot's primitive columns). Only the current row is held in memory;
+     * the connection stays checked out until the visitor has seen the last row, so
+     * visitors should not block.
+     *
+     * @param visitor Callback invoked once per loan
+     * @return Number of loans visited
      */
-    public List<Loan> getAllLoans() {
+    @Override
+    public int forEachLoan(Consumer<Loan> visitor) {
+        String sql = SELECT_LOANS_WITH_BORROWER + " ORDER BY l.loan_date DESC";
+        int visited = 0;
+        LOG.debug(() -> "Streaming loans: " + sql);
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            stmt.setFetchSize(fetchSize(conn, STREAMING_FETCH_SIZE));
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    visitor.accept(mapLoan(rs));
+                    visited++;
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving loans: " + e.getMessage(), e);
+        }
+        return visited;
+    }
+
+    /**
+     * Get one page of loans, newest first, using keyset pagination on (loan_date, id).
+     * Each page is an index range seek, so page N costs the same as page 1.
+     *
+     * @param afterLoanDate Loan date of the last row of the previous page, or null for the first page
+     * @param afterId ID of the last row of the previous page (ignored for the first page)
+     * @param pageSize Maximum number of loans to return
+     * @return The next page of loans, empty when there are no more rows
+     */
+    @Override
+    public List<Loan> getLoansPage(LocalDate afterLoanDate, int afterId, int pageSize) {
+        return loansPage(null, afterLoanDate, afterId, pageSize);
+    }
+
+    /**
+     * Search loans by borrower name or loan ID, newest first, keyset-paginated like getLoansPage.
+     * Both are substring matches, like the loans table's local filter, so a longer query
+     * only ever narrows a shorter one. A substring cannot use an index, so each page scans
+     * loans newest first until it has pageSize matches
+     */
+    @Override
+    public List<Loan> searchLoansPage(String query, LocalDate afterLoanDate, int afterId, int pageSize) {
+        String text = query == null ? "" : query.trim();
+        return loansPage(text.isEmpty() ? null : text, afterLoanDate, afterId, pageSize);
+    }
+
+    private List<Loan> loansPage(String search, LocalDate afterLoanDate, int afterId, int pageSize) {
         List<Loan> loans = new ArrayList<>();
-        String sql = "SELECT l.*, b.name AS borrower_name FROM loans l JOIN borrowers b ON l.borrower_id = b.id ORDER BY l.loan_date DESC";
-        System.out.println("[DEBUG] Executing SQL: " + sql);
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Loan loan = new Loan(
-                    rs.getInt("id"),
-                    rs.getInt("borrower_id"),
-                    rs.getString("borrower_name"),
-                    rs.getDouble("loan_amount"),
-                    rs.getDouble("outstanding_balance"),
-                    rs.getString("status"),
-                    rs.getDate("loan_date").toLocalDate(),
-                    rs.getDate("due_date").toLocalDate(),
-                    rs.getDouble("interest_rate")
-                );
-                loans.add(loan);
-                System.out.println("[DEBUG] Retrieved Loan: " + loan);
+        boolean searchId = search != null && search.chars().allMatch(Character::isDigit);
+        StringBuilder sql = new StringBuilder(SELECT_LOANS_WITH_BORROWER);
+        String keyword = " WHERE ";
+        if (search != null) {
+            // '!' rather than backslash, which MySQL and H2 read differently in string literals
+            sql.append(keyword).append("(LOWER(b.name) LIKE ? ESCAPE '!'")
+                // CONCAT rather than CAST, whose CHAR type H2 reads as one character
+                .append(searchId ? " OR CONCAT(l.id, '') LIKE ?)" : ")");
+            keyword = " AND ";
+        }
+        if (afterLoanDate != null) {
+            sql.append(keyword).append("(l.loan_date < ? OR (l.loan_date = ? AND l.id < ?))");
+        }
+        sql.append(" ORDER BY l.loan_date DESC, l.id DESC LIMIT ?");
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (search != null) {
+                String pattern = search.toLowerCase().replace("!", "!!").replace("%", "!%").replace("_", "!_");
+                stmt.setString(index++, "%" + pattern + "%");
+                if (searchId) {
+                    stmt.setString(index++, "%" + search + "%");
+                }
+            }
+            if (afterLoanDate != null) {
+                java.sql.Date date = java.sql.Date.valueOf(afterLoanDate);
+                stmt.setDate(index++, date);
+                stmt.setDate(index++, date);
+                stmt.setInt(index++, afterId);
+            }
+            stmt.setInt(index, pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapLoan(rs));
+                }
             }
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error retrieving loans: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error retrieving loan page: " + e.getMessage(), e);
         }
         return loans;
     }
 
     /**
-     * Get a loan by ID
+     * Get a loan by ID, served from the loan cache when possible
+     *
+     * @return A copy the caller may modify, or null if there is no such loan
      */
+    @Override
     public Loan getLoanById(int id) {
-        String sql = "SELECT l.*, b.name AS borrower_name FROM loans l JOIN borrowers b ON l.borrower_id = b.id WHERE l.id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        Loan loan = loanCache.get(id, this::loadLoanById);
+        return loan == null ? null : new Loan(loan);
+    }
+
+    private Loan loadLoanById(int id) {
+        String sql = SELECT_LOANS_WITH_BORROWER + " WHERE l.id = ?";
+        try (Connection conn = connections.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, id);
             ResultSet rs = stmt.executeQuery();
             if (rs.next()) {
-                return new Loan(
-                    rs.getInt("id"),
-                    rs.getInt("borrower_id"),
-                    rs.getString("borrower_name"),
-                    rs.getDouble("loan_amount"),
-                    rs.getDouble("outstanding_balance"),
-                    rs.getString("status"),
-                    rs.getDate("loan_date").toLocalDate(),
-                    rs.getDate("due_date").toLocalDate(),
-                    rs.getDouble("interest_rate")
-                );
+                return mapLoan(rs);
             }
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error retrieving loan: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error retrieving loan: " + e.getMessage(), e);
         }
         return null;
     }
 
     /**
      * Record a payment for a loan
+     * Decrements the balance, marks the loan "Completed" once fully paid, rolls the
+     * due date forward by one month while a balance remains, and appends a row to the
+     * payments table - all in a single transaction on one connection
      */
+    @Override
     public boolean recordPayment(int loanId, double paymentAmount) {
-        String sql = "UPDATE loans SET outstanding_balance = outstanding_balance - ? WHERE id = ?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setDouble(1, paymentAmount);
-            stmt.setInt(2, loanId);
-            
-            int rowsUpdated = stmt.executeUpdate();
-            
-            // Update status to "Completed" if balance is 0 or less
-            if (rowsUpdated > 0) {
-                updateLoanStatusIfPaid(loanId);
+        Payment payment = new Payment(loanId, paymentAmount, LocalDate.now(), null);
+        try (Connection conn = connections.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement update = conn.prepareStatement(APPLY_PAYMENT_SQL);
+                 PreparedStatement insert = conn.prepareStatement(PaymentDAO.INSERT_PAYMENT_SQL)) {
+                bindPaymentUpdate(update, payment);
+                if (update.executeUpdate() == 0) {
+                    conn.rollback();
+                    return false;
+                }
+
+                PaymentDAO.bindPayment(insert, payment);
+                insert.executeUpdate();
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                loanCache.invalidate(loanId);
+                loansChanged();
+                conn.setAutoCommit(autoCommit);
             }
-            return rowsUpdated > 0;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error recording payment: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error recording payment: " + e.getMessage(), e);
             return false;
         }
     }
 
     /**
-     * Update loan status to "Completed" if fully paid
+     * Record many payments using JDBC batching, committing once per chunk.
+     * Each payment is applied exactly as recordPayment does. Payments for unknown
+     * loans are rejected; if a chunk fails it is rolled back and replayed payment by
+     * payment so only the offending rows are rejected.
+     *
+     * @param payments The payments to post, in posting order
+     * @param batchSize Payments per batch and per commit
+     * @param listener Progress callback invoked after each chunk
+     * @return Posted count and the rejected payments
      */
-    private void updateLoanStatusIfPaid(int loanId) {
-        String sql = "UPDATE loans SET status = 'Completed' WHERE id = ? AND outstanding_balance <= 0";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
-            
-            stmt.setInt(1, loanId);
-            stmt.executeUpdate();
+    @Override
+    public BatchResult<Payment> recordPayments(Collection<Payment> payments, int batchSize, BatchProgressListener listener) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        List<Payment> rows = new ArrayList<>(payments);
+        BatchResult<Payment> result = new BatchResult<>();
+        int total = rows.size();
+
+        try (Connection conn = connections.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try (PreparedStatement update = conn.prepareStatement(APPLY_PAYMENT_SQL);
+                 PreparedStatement insert = conn.prepareStatement(PaymentDAO.INSERT_PAYMENT_SQL)) {
+                for (int start = 0; start < total; start += batchSize) {
+                    int end = Math.min(start + batchSize, total);
+                    try {
+                        BatchResult<Payment> chunk = new BatchResult<>();
+                        recordPaymentChunk(update, insert, rows, start, end, chunk);
+                        conn.commit();
+                        invalidateLoans(rows, start, end);
+                        result.addAll(chunk);
+                    } catch (SQLException | RuntimeException e) {
+                        conn.rollback();
+                        update.clearBatch();
+                        insert.clearBatch();
+                        recordPaymentsOneByOne(conn, update, insert, rows, start, end, result);
+                    }
+                    listener.onProgress(end, total);
+                }
+            } finally {
+                loansChanged();
+                conn.setAutoCommit(autoCommit);
+            }
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error updating loan status: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Batch payment posting aborted: " + e.getMessage(), e);
+            int processed = result.getSuccessCount() + result.getFailures().size();
+            for (int i = processed; i < total; i++) {
+                result.addFailure(i, rows.get(i), e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private void recordPaymentChunk(PreparedStatement update, PreparedStatement insert, List<Payment> rows,
+                                    int start, int end, BatchResult<Payment> result) throws SQLException {
+        for (int i = start; i < end; i++) {
+            bindPaymentUpdate(update, rows.get(i));
+            update.addBatch();
+        }
+        int[] updated = update.executeBatch();
+        int applied = 0;
+        for (int i = start; i < end; i++) {
+            if (updated[i - start] == 0) {
+                result.addFailure(i, rows.get(i), "Loan not found with ID: " + rows.get(i).getLoanId());
+            } else {
+                PaymentDAO.bindPayment(insert, rows.get(i));
+                insert.addBatch();
+                applied++;
+            }
+        }
+        if (applied > 0) {
+            insert.executeBatch();
+        }
+        result.addSuccesses(applied);
+    }
+
+    private void recordPaymentsOneByOne(Connection conn, PreparedStatement update, PreparedStatement insert,
+                                        List<Payment> rows, int start, int end, BatchResult<Payment> result) throws SQLException {
+        for (int i = start; i < end; i++) {
+            Payment payment = rows.get(i);
+            try {
+                bindPaymentUpdate(update, payment);
+                if (update.executeUpdate() == 0) {
+                    result.addFailure(i, payment, "Loan not found with ID: " + payment.getLoanId());
+                    continue;
+                }
+                PaymentDAO.bindPayment(insert, payment);
+                insert.executeUpdate();
+                conn.commit();
+                loanCache.invalidate(payment.getLoanId());
+                result.addSuccesses(1);
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                result.addFailure(i, payment, e.getMessage() != null ? e.getMessage() : e.toString());
+            }
+        }
+    }
+
+    private void invalidateLoans(List<Payment> rows, int start, int end) {
+        for (int i = start; i < end; i++) {
+            loanCache.invalidate(rows.get(i).getLoanId());
         }
     }
 
+    private static void bindPaymentUpdate(PreparedStatement stmt, Payment payment) throws SQLException {
+        stmt.setDouble(1, payment.getPaymentAmount());
+        stmt.setDouble(2, payment.getPaymentAmount());
+        stmt.setDouble(3, payment.getPaymentAmount());
+        stmt.setInt(4, payment.getLoanId());
+    }
+
     /**
      * Update a loan
      */
+    @Override
     public boolean updateLoan(Loan loan) {
         String sql = "UPDATE loans SET borrower_id = ?, loan_amount = ?, outstanding_balance = ?, status = ?, loan_date = ?, due_date = ?, interest_rate = ? WHERE id = ?";
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connections.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, loan.getBorrowerId());
             stmt.setDouble(2, loan.getLoanAmount());
@@ -156,58 +441,197 @@ public class LoanDAO {
             int rowsUpdated = stmt.executeUpdate();
             return rowsUpdated > 0;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error updating loan: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error updating loan: " + e.getMessage(), e);
             return false;
+        } finally {
+            loanCache.invalidate(loan.getId());
+            loansChanged();
         }
     }
 
     /**
      * Delete a loan
      */
+    @Override
     public boolean deleteLoan(int id) {
         String sql = "DELETE FROM loans WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
+        try (Connection conn = connections.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             
             stmt.setInt(1, id);
             int rowsDeleted = stmt.executeUpdate();
             return rowsDeleted > 0;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error deleting loan: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error deleting loan: " + e.getMessage(), e);
             return false;
+        } finally {
+            loanCache.invalidate(id);
+            loansChanged();
         }
     }
 
+    /**
+     * @return A counter that changes whenever loan data is written through this process
+     */
+    public static long getDataVersion() {
+        return DATA_VERSION.get();
+    }
+
+    static void loansChanged() {
+        DATA_VERSION.incrementAndGet();
+    }
+
+    /**
+     * @return The loan cache shared by DAOs on the application pool, for statistics
+     */
+    public static LruCache<Integer, Loan> getCache() {
+        return LOAN_CACHE;
+    }
+
     /**
      * Get active loans only
      */
+    @Override
     public List<Loan> getActiveLoans() {
         List<Loan> loans = new ArrayList<>();
-        String sql = "SELECT l.*, b.name AS borrower_name FROM loans l JOIN borrowers b ON l.borrower_id = b.id WHERE l.status = 'Active' ORDER BY l.loan_date DESC";
-        try (Connection conn = DatabaseConnection.getConnection();
+        String sql = SELECT_LOANS_WITH_BORROWER + " WHERE l.status = 'Active' ORDER BY l.loan_date DESC";
+        try (Connection conn = connections.getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
-                Loan loan = new Loan(
-                    rs.getInt("id"),
-                    rs.getInt("borrower_id"),
-                    rs.getString("borrower_name"),
-                    rs.getDouble("loan_amount"),
-                    rs.getDouble("outstanding_balance"),
-                    rs.getString("status"),
-                    rs.getDate("loan_date").toLocalDate(),
-                    rs.getDate("due_date").toLocalDate(),
-                    rs.getDouble("interest_rate")
-                );
-                loans.add(loan);
+                loans.add(mapLoan(rs));
             }
         } catch (SQLException e) {
-            System.err.println("[ERROR] Error retrieving active loans: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Error retrieving active loans: " + e.getMessage(), e);
         }
         return loans;
     }
+
+    /**
+     * Get one page of overdue loans, oldest due date first, using keyset pagination on (due_date, id)
+     *
+     * @param afterDueDate Due date of the last row of the previous page, or null for the first page
+     * @param afterId ID of the last row of the previous page (ignored for the first page)
+     * @param pageSize Maximum number of loans to return
+     * @return The next page of overdue loans, empty when there are no more rows
+     */
+    @Override
+    public List<Loan> getOverdueLoans(LocalDate afterDueDate, int afterId, int pageSize) {
+        List<Loan> loans = new ArrayList<>();
+        String sql = SELECT_LOANS_WITH_BORROWER + " WHERE " + OVERDUE_PREDICATE +
+            (afterDueDate == null ? "" : " AND (l.due_date > ? OR (l.due_date = ? AND l.id > ?))") +
+            " ORDER BY l.due_date, l.id LIMIT ?";
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (afterDueDate != null) {
+                java.sql.Date date = java.sql.Date.valueOf(afterDueDate);
+                stmt.setDate(index++, date);
+                stmt.setDate(index++, date);
+                stmt.setInt(index++, afterId);
+            }
+            stmt.setInt(index, pageSize);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    loans.add(mapLoan(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving overdue loans: " + e.getMessage(), e);
+        }
+        return loans;
+    }
+
+    /**
+     * Count overdue loans without reading them (answered from idx_due_balance alone)
+     */
+    @Override
+    public long countOverdueLoans() {
+        String sql = "SELECT COUNT(*) FROM loans l WHERE " + OVERDUE_PREDICATE;
+        try (Connection conn = connections.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            LOG.error("Error counting overdue loans: " + e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    /**
+     * Get portfolio totals in a single aggregate query
+     * Returns one row per status instead of loading the loans themselves
+     */
+    @Override
+    public PortfolioSummary getPortfolioSummary() {
+        String sql = "SELECT status, COUNT(*) AS loan_count, " +
+            "COALESCE(SUM(loan_amount), 0) AS total_amount, " +
+            "COALESCE(SUM(outstanding_balance), 0) AS total_outstanding, " +
+            "SUM(CASE WHEN " + OVERDUE_PREDICATE + " THEN 1 ELSE 0 END) AS overdue_count " +
+            "FROM loans l GROUP BY status";
+        Map<String, Long> countsByStatus = new HashMap<>();
+        double totalAmount = 0;
+        double totalOutstanding = 0;
+        long overdueCount = 0;
+        try (Connection conn = connections.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                String status = rs.getString("status");
+                String key = status == null ? "UNKNOWN" : status.toUpperCase();
+                countsByStatus.merge(key, rs.getLong("loan_count"), Long::sum);
+                totalAmount += rs.getDouble("total_amount");
+                totalOutstanding += rs.getDouble("total_outstanding");
+                overdueCount += rs.getLong("overdue_count");
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving portfolio summary: " + e.getMessage(), e);
+            return PortfolioSummary.empty();
+        }
+        return new PortfolioSummary(countsByStatus, totalAmount, totalOutstanding, overdueCount);
+    }
+
+    /**
+     * The fetch size to request on a connection: drivers other than MySQL Connector/J
+     * reject STREAMING_FETCH_SIZE, and stream with a positive fetch size instead
+     */
+    static int fetchSize(Connection conn, int fetchSize) throws SQLException {
+        if (fetchSize < 0 && !conn.getMetaData().getDriverName().startsWith("MySQL")) {
+            return CURSOR_FETCH_SIZE;
+        }
+        return fetchSize;
+    }
+
+    /**
+     * Bind a loan to the parameters of INSERT_LOAN_SQL
+     */
+    private static void bindLoan(PreparedStatement stmt, Loan loan) throws SQLException {
+        stmt.setInt(1, loan.getBorrowerId());
+        stmt.setDouble(2, loan.getLoanAmount());
+        stmt.setDouble(3, loan.getOutstandingBalance());
+        stmt.setString(4, loan.getStatus());
+        stmt.setDate(5, java.sql.Date.valueOf(loan.getLoanDate()));
+        stmt.setDate(6, java.sql.Date.valueOf(loan.getDueDate()));
+        stmt.setDouble(7, loan.getInterestRate());
+    }
+
+    /**
+     * Map the current row of a loans/borrowers join to a Loan
+     */
+    private Loan mapLoan(ResultSet rs) throws SQLException {
+        return new Loan(
+            rs.getInt("id"),
+            rs.getInt("borrower_id"),
+            rs.getString("borrower_name"),
+            rs.getDouble("loan_amount"),
+            rs.getDouble("outstanding_balance"),
+            rs.getString("status"),
+            rs.getDate("loan_date").toLocalDate(),
+            rs.getDate("due_date").toLocalDate(),
+            rs.getDouble("interest_rate")
+        );
+    }
 }
@@ -0,0 +1,134 @@
+package com.microfinance.dao;
+
+import com.microfinance.model.Loan;
+import com.microfinance.model.LoanSnapshot;
+import com.microfinance.model.Payment;
+import com.microfinance.model.PortfolioSummary;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Storage of loans and their payments.
+ *
+ * LoanDAO implements it over JDBC (MySQL, or H2 through EmbeddedDatabase) and
+ * InMemoryStore over concurrent maps, so services can run without a database.
+ * Loans returned carry the current name of their borrower. Writes are reported
+ * through LoanDAO.getDataVersion() whichever implementation makes them.
+ */
+public interface LoanRepository {
+    /**
+     * Add a new loan; its generated ID is written back when the implementation returns one
+     *
+     * @return false if the loan could not be stored, e.g. for an unknown borrower
+     */
+    boolean addLoan(Loan loan);
+
+    /**
+     * Bulk-insert loans with the default batch size
+     */
+    default BatchResult<Loan> addLoans(Collection<Loan> loans) {
+        return addLoans(loans, BatchInserter.DEFAULT_BATCH_SIZE, BatchProgressListener.NONE);
+    }
+
+    /**
+     * Bulk-insert loans, committing once per chunk. Generated IDs are written back;
+     * a failing row is reported in the result and does not abort the load.
+     *
+     * @param batchSize Rows per batch and per commit
+     * @param listener Progress callback invoked after each chunk
+     */
+    BatchResult<Loan> addLoans(Collection<Loan> loans, int batchSize, BatchProgressListener listener);
+
+    /**
+     * Get all loans, newest first
+     */
+    default List<Loan> getAllLoans() {
+        List<Loan> loans = new ArrayList<>();
+        forEachLoan(loans::add);
+        return loans;
+    }
+
+    /**
+     * Load every loan, newest first, into a columnar snapshot for analytics
+     */
+    default LoanSnapshot loadSnapshot() {
+        LoanSnapshot.Builder builder = new LoanSnapshot.Builder();
+        forEachLoan(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Visit every loan, newest first, without materializing the full list
+     *
+     * @return Number of loans visited
+     */
+    int forEachLoan(Consumer<Loan> visitor);
+
+    /**
+     * Get one page of loans, newest first, after the (loan date, ID) of the previous page's last row
+     *
+     * @param afterLoanDate Loan date of the last row of the previous page, or null for the first page
+     * @param afterId ID of the last row of the previous page (ignored for the first page)
+     */
+    List<Loan> getLoansPage(LocalDate afterLoanDate, int afterId, int pageSize);
+
+    /**
+     * Get one page of the loans whose borrower name (case-insensitive) or ID contains the
+     * query, newest first, paged like getLoansPage
+     *
+     * @param query Text to look for; blank returns the same page as getLoansPage
+     */
+    List<Loan> searchLoansPage(String query, LocalDate afterLoanDate, int afterId, int pageSize);
+
+    /**
+     * @return A copy the caller may modify, or null if there is no such loan
+     */
+    Loan getLoanById(int id);
+
+    /**
+     * Apply a payment: decrement the balance, mark the loan "Completed" once fully paid,
+     * roll the due date forward by one month while a balance remains, and append the
+     * payment to the ledger, atomically
+     *
+     * @return false if the loan does not exist or the update failed
+     */
+    boolean recordPayment(int loanId, double paymentAmount);
+
+    /**
+     * Apply many payments as recordPayment does, committing once per chunk.
+     * Payments for unknown loans are rejected in the result.
+     */
+    BatchResult<Payment> recordPayments(Collection<Payment> payments, int batchSize, BatchProgressListener listener);
+
+    boolean updateLoan(Loan loan);
+
+    boolean deleteLoan(int id);
+
+    /**
+     * Get loans with status Active (case-insensitive), newest first
+     */
+    List<Loan> getActiveLoans();
+
+    /**
+     * Get all overdue loans, oldest due date first
+     */
+    default List<Loan> getOverdueLoans() {
+        return getOverdueLoans(null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get one page of overdue loans (past due with a balance remaining, whatever their status),
+     * oldest due date first, after the (due date, ID) of the previous page's last row
+     */
+    List<Loan> getOverdueLoans(LocalDate afterDueDate, int afterId, int pageSize);
+
+    long countOverdueLoans();
+
+    /**
+     * Get counts by status (upper-cased), totals and the overdue count
+     */
+    PortfolioSummary getPortfolioSummary();
+}
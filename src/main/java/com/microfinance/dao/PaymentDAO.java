@@ -0,0 +1,203 @@
+package com.microfinance.dao;
+
+import com.microfinance.model.LedgerEntry;
+import com.microfinance.model.Payment;
+import com.microfinance.util.Log;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Data Access Object for the payments ledger
+ * The ledger is append-only: payments are never updated or deleted
+ */
+public class PaymentDAO {
+    private static final Log LOG = Log.getLogger(PaymentDAO.class);
+    static final String INSERT_PAYMENT_SQL =
+        "INSERT INTO payments (loan_id, payment_amount, payment_date, notes) VALUES (?, ?, ?, ?)";
+
+    private static final BatchInserter<Payment> BATCH_INSERTER =
+        new BatchInserter<>(INSERT_PAYMENT_SQL, PaymentDAO::bindPayment, Payment::setId);
+
+    private static final String SELECT_PAYMENTS =
+        "SELECT id, loan_id, payment_amount, payment_date, notes FROM payments";
+
+    private final ConnectionProvider connections;
+
+    /**
+     * A DAO on the application's MySQL pool
+     */
+    public PaymentDAO() {
+        this(ConnectionProvider.DEFAULT);
+    }
+
+    public PaymentDAO(ConnectionProvider connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * Append a payment to the ledger
+     * This does not change the loan balance; use LoanDAO.recordPayment to post a payment
+     */
+    public boolean addPayment(Payment payment) {
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(INSERT_PAYMENT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+            bindPayment(stmt, payment);
+            int rowsInserted = stmt.executeUpdate();
+            try (ResultSet keys = stmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    payment.setId(keys.getInt(1));
+                }
+            }
+            return rowsInserted > 0;
+        } catch (SQLException e) {
+            LOG.error("Failed to add payment: " + e.getMessage(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Bulk-append payments to the ledger using JDBC batching with the default batch size
+     */
+    public BatchResult<Payment> addPayments(Collection<Payment> payments) {
+        return addPayments(payments, BatchInserter.DEFAULT_BATCH_SIZE, BatchProgressListener.NONE);
+    }
+
+    /**
+     * Bulk-append payments to the ledger (e.g. migrated payment history), committing once per chunk.
+     * Generated IDs are written back to the Payment objects; failing rows are reported, not fatal.
+     *
+     * @param payments The payments to append
+     * @param batchSize Rows per batch and per commit
+     * @param listener Progress callback invoked after each chunk
+     * @return Inserted count and the rejected rows
+     */
+    public BatchResult<Payment> addPayments(Collection<Payment> payments, int batchSize, BatchProgressListener listener) {
+        return BATCH_INSERTER.insert(connections, payments, batchSize, listener);
+    }
+
+    /**
+     * Get all payments for a loan, oldest first (uses idx_loan_id)
+     */
+    public List<Payment> getPaymentsByLoan(int loanId) {
+        String sql = SELECT_PAYMENTS + " WHERE loan_id = ? ORDER BY payment_date, id";
+        return queryPayments(sql, stmt -> stmt.setInt(1, loanId));
+    }
+
+    /**
+     * Get payments for a loan made between two dates, inclusive, oldest first (uses idx_loan_id)
+     */
+    public List<Payment> getPaymentsByLoan(int loanId, LocalDate from, LocalDate to) {
+        String sql = SELECT_PAYMENTS + " WHERE loan_id = ? AND payment_date BETWEEN ? AND ? ORDER BY payment_date, id";
+        return queryPayments(sql, stmt -> {
+            stmt.setInt(1, loanId);
+            stmt.setDate(2, java.sql.Date.valueOf(from));
+            stmt.setDate(3, java.sql.Date.valueOf(to));
+        });
+    }
+
+    /**
+     * Get all payments made between two dates, inclusive, oldest first (uses idx_payment_date)
+     */
+    public List<Payment> getPaymentsByDate(LocalDate from, LocalDate to) {
+        String sql = SELECT_PAYMENTS + " WHERE payment_date BETWEEN ? AND ? ORDER BY payment_date, id";
+        return queryPayments(sql, stmt -> {
+            stmt.setDate(1, java.sql.Date.valueOf(from));
+            stmt.setDate(2, java.sql.Date.valueOf(to));
+        });
+    }
+
+    /**
+     * Get a loan statement: every payment with the running total paid and the
+     * balance after it, computed from the ledger rather than the loan's balance column
+     */
+    public List<LedgerEntry> getLedger(int loanId) {
+        List<LedgerEntry> entries = new ArrayList<>();
+        String sql = "SELECT p.id, p.loan_id, p.payment_amount, p.payment_date, p.notes, " +
+            "SUM(p.payment_amount) OVER (ORDER BY p.payment_date, p.id ROWS UNBOUNDED PRECEDING) AS total_paid, " +
+            "l.loan_amount " +
+            "FROM payments p JOIN loans l ON l.id = p.loan_id " +
+            "WHERE p.loan_id = ? ORDER BY p.payment_date, p.id";
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, loanId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    double totalPaid = rs.getDouble("total_paid");
+                    entries.add(new LedgerEntry(mapPayment(rs), totalPaid, rs.getDouble("loan_amount") - totalPaid));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving ledger: " + e.getMessage(), e);
+        }
+        return entries;
+    }
+
+    /**
+     * Get the total amount paid against a loan according to the ledger
+     */
+    public double getTotalPaid(int loanId) {
+        String sql = "SELECT COALESCE(SUM(payment_amount), 0) FROM payments WHERE loan_id = ?";
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setInt(1, loanId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getDouble(1);
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving total paid: " + e.getMessage(), e);
+        }
+        return 0;
+    }
+
+    /**
+     * Binds query parameters
+     */
+    @FunctionalInterface
+    private interface ParameterBinder {
+        void bind(PreparedStatement stmt) throws SQLException;
+    }
+
+    private List<Payment> queryPayments(String sql, ParameterBinder binder) {
+        List<Payment> payments = new ArrayList<>();
+        try (Connection conn = connections.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    payments.add(mapPayment(rs));
+                }
+            }
+        } catch (SQLException e) {
+            LOG.error("Error retrieving payments: " + e.getMessage(), e);
+        }
+        return payments;
+    }
+
+    /**
+     * Bind a payment to the parameters of INSERT_PAYMENT_SQL
+     */
+    static void bindPayment(PreparedStatement stmt, Payment payment) throws SQLException {
+        stmt.setInt(1, payment.getLoanId());
+        stmt.setDouble(2, payment.getPaymentAmount());
+        stmt.setDate(3, java.sql.Date.valueOf(payment.getPaymentDate()));
+        stmt.setString(4, payment.getNotes());
+    }
+
+    /**
+     * Map the current row of the payments table to a Payment
+     */
+    private Payment mapPayment(ResultSet rs) throws SQLException {
+        return new Payment(
+            rs.getInt("id"),
+            rs.getInt("loan_id"),
+            rs.getDouble("payment_amount"),
+            rs.getDate("payment_date").toLocalDate(),
+            rs.getString("notes")
+        );
+    }
+}
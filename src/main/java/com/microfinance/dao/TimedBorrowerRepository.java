@@ -0,0 +1,123 @@
+package com.microfinance.dao;
+
+import com.microfinance.model.Borrower;
+import com.microfinance.util.Metrics;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Times every method of another BorrowerRepository, recording a dao.borrowers.&lt;method&gt;
+ * timer with the rows each call returned, visited or wrote. Calls that throw are not recorded.
+ */
+public class TimedBorrowerRepository implements BorrowerRepository {
+    private final BorrowerRepository delegate;
+
+    private final Metrics.Timer addBorrower = timer("addBorrower");
+    private final Metrics.Timer addBorrowers = timer("addBorrowers");
+    private final Metrics.Timer getAllBorrowers = timer("getAllBorrowers");
+    private final Metrics.Timer forEachBorrower = timer("forEachBorrower");
+    private final Metrics.Timer getBorrowersPage = timer("getBorrowersPage");
+    private final Metrics.Timer getBorrowerById = timer("getBorrowerById");
+    private final Metrics.Timer updateBorrower = timer("updateBorrower");
+    private final Metrics.Timer deleteBorrower = timer("deleteBorrower");
+    private final Metrics.Timer findBorrowerIdByName = timer("findBorrowerIdByName");
+    private final Metrics.Timer searchBorrowersByName = timer("searchBorrowersByName");
+
+    public TimedBorrowerRepository(BorrowerRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    private static Metrics.Timer timer(String method) {
+        return Metrics.get().timer("dao.borrowers." + method);
+    }
+
+    @Override
+    public boolean addBorrower(Borrower borrower) {
+        long start = addBorrower.start();
+        boolean added = delegate.addBorrower(borrower);
+        addBorrower.stop(start, added ? 1 : 0);
+        return added;
+    }
+
+    @Override
+    public BatchResult<Borrower> addBorrowers(Collection<Borrower> borrowers) {
+        long start = addBorrowers.start();
+        BatchResult<Borrower> result = delegate.addBorrowers(borrowers);
+        addBorrowers.stop(start, result.getSuccessCount());
+        return result;
+    }
+
+    @Override
+    public BatchResult<Borrower> addBorrowers(Collection<Borrower> borrowers, int batchSize,
+                                              BatchProgressListener listener) {
+        long start = addBorrowers.start();
+        BatchResult<Borrower> result = delegate.addBorrowers(borrowers, batchSize, listener);
+        addBorrowers.stop(start, result.getSuccessCount());
+        return result;
+    }
+
+    @Override
+    public List<Borrower> getAllBorrowers() {
+        long start = getAllBorrowers.start();
+        List<Borrower> borrowers = delegate.getAllBorrowers();
+        getAllBorrowers.stop(start, borrowers.size());
+        return borrowers;
+    }
+
+    @Override
+    public int forEachBorrower(Consumer<Borrower> visitor) {
+        long start = forEachBorrower.start();
+        int visited = delegate.forEachBorrower(visitor);
+        forEachBorrower.stop(start, visited);
+        return visited;
+    }
+
+    @Override
+    public List<Borrower> getBorrowersPage(int afterId, int pageSize) {
+        long start = getBorrowersPage.start();
+        List<Borrower> page = delegate.getBorrowersPage(afterId, pageSize);
+        getBorrowersPage.stop(start, page.size());
+        return page;
+    }
+
+    @Override
+    public Borrower getBorrowerById(int id) {
+        long start = getBorrowerById.start();
+        Borrower borrower = delegate.getBorrowerById(id);
+        getBorrowerById.stop(start, borrower == null ? 0 : 1);
+        return borrower;
+    }
+
+    @Override
+    public boolean updateBorrower(Borrower borrower) {
+        long start = updateBorrower.start();
+        boolean updated = delegate.updateBorrower(borrower);
+        updateBorrower.stop(start, updated ? 1 : 0);
+        return updated;
+    }
+
+    @Override
+    public boolean deleteBorrower(int id) {
+        long start = deleteBorrower.start();
+        boolean deleted = delegate.deleteBorrower(id);
+        deleteBorrower.stop(start, deleted ? 1 : 0);
+        return deleted;
+    }
+
+    @Override
+    public int findBorrowerIdByName(String name) {
+        long start = findBorrowerIdByName.start();
+        int id = delegate.findBorrowerIdByName(name);
+        findBorrowerIdByName.stop(start, id > 0 ? 1 : 0);
+        return id;
+    }
+
+    @Override
+    public List<Borrower> searchBorrowersByName(String name) {
+        long start = searchBorrowersByName.start();
+        List<Borrower> borrowers = delegate.searchBorrowersByName(name);
+        searchBorrowersByName.stop(start, borrowers.size());
+        return borrowers;
+    }
+}
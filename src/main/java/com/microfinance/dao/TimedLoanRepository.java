@@ -0,0 +1,193 @@
+package com.microfinance.dao;
+
+import com.microfinance.model.Loan;
+import com.microfinance.model.LoanSnapshot;
+import com.microfinance.model.Payment;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.util.Metrics;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Times every method of another LoanRepository, recording a dao.loans.&lt;method&gt;
+ * timer with the rows each call returned, visited or wrote:
+ *
+ *   LoanRepository loanDAO = new TimedLoanRepository(new LoanDAO());
+ *
+ * Calls that throw are not recorded.
+ */
+public class TimedLoanRepository implements LoanRepository {
+    private final LoanRepository delegate;
+
+    private final Metrics.Timer addLoan = timer("addLoan");
+    private final Metrics.Timer addLoans = timer("addLoans");
+    private final Metrics.Timer getAllLoans = timer("getAllLoans");
+    private final Metrics.Timer loadSnapshot = timer("loadSnapshot");
+    private final Metrics.Timer forEachLoan = timer("forEachLoan");
+    private final Metrics.Timer getLoansPage = timer("getLoansPage");
+    private final Metrics.Timer searchLoansPage = timer("searchLoansPage");
+    private final Metrics.Timer getLoanById = timer("getLoanById");
+    private final Metrics.Timer recordPayment = timer("recordPayment");
+    private final Metrics.Timer recordPayments = timer("recordPayments");
+    private final Metrics.Timer updateLoan = timer("updateLoan");
+    private final Metrics.Timer deleteLoan = timer("deleteLoan");
+    private final Metrics.Timer getActiveLoans = timer("getActiveLoans");
+    private final Metrics.Timer getOverdueLoans = timer("getOverdueLoans");
+    private final Metrics.Timer countOverdueLoans = timer("countOverdueLoans");
+    private final Metrics.Timer getPortfolioSummary = timer("getPortfolioSummary");
+
+    public TimedLoanRepository(LoanRepository delegate) {
+        this.delegate = delegate;
+    }
+
+    private static Metrics.Timer timer(String method) {
+        return Metrics.get().timer("dao.loans." + method);
+    }
+
+    @Override
+    public boolean addLoan(Loan loan) {
+        long start = addLoan.start();
+        boolean added = delegate.addLoan(loan);
+        addLoan.stop(start, added ? 1 : 0);
+        return added;
+    }
+
+    @Override
+    public BatchResult<Loan> addLoans(Collection<Loan> loans) {
+        long start = addLoans.start();
+        BatchResult<Loan> result = delegate.addLoans(loans);
+        addLoans.stop(start, result.getSuccessCount());
+        return result;
+    }
+
+    @Override
+    public BatchResult<Loan> addLoans(Collection<Loan> loans, int batchSize, BatchProgressListener listener) {
+        long start = addLoans.start();
+        BatchResult<Loan> result = delegate.addLoans(loans, batchSize, listener);
+        addLoans.stop(start, result.getSuccessCount());
+        return result;
+    }
+
+    @Override
+    public List<Loan> getAllLoans() {
+        long start = getAllLoans.start();
+        List<Loan> loans = delegate.getAllLoans();
+        getAllLoans.stop(start, loans.size());
+        return loans;
+    }
+
+    @Override
+    public LoanSnapshot loadSnapshot() {
+        long start = loadSnapshot.start();
+        LoanSnapshot snapshot = delegate.loadSnapshot();
+        loadSnapshot.stop(start, snapshot.size());
+        return snapshot;
+    }
+
+    @Override
+    public int forEachLoan(Consumer<Loan> visitor) {
+        long start = forEachLoan.start();
+        int visited = delegate.forEachLoan(visitor);
+        forEachLoan.stop(start, visited);
+        return visited;
+    }
+
+    @Override
+    public List<Loan> getLoansPage(LocalDate afterLoanDate, int afterId, int pageSize) {
+        long start = getLoansPage.start();
+        List<Loan> page = delegate.getLoansPage(afterLoanDate, afterId, pageSize);
+        getLoansPage.stop(start, page.size());
+        return page;
+    }
+
+    @Override
+    public List<Loan> searchLoansPage(String query, LocalDate afterLoanDate, int afterId, int pageSize) {
+        long start = searchLoansPage.start();
+        List<Loan> page = delegate.searchLoansPage(query, afterLoanDate, afterId, pageSize);
+        searchLoansPage.stop(start, page.size());
+        return page;
+    }
+
+    @Override
+    public Loan getLoanById(int id) {
+        long start = getLoanById.start();
+        Loan loan = delegate.getLoanById(id);
+        getLoanById.stop(start, loan == null ? 0 : 1);
+        return loan;
+    }
+
+    @Override
+    public boolean recordPayment(int loanId, double paymentAmount) {
+        long start = recordPayment.start();
+        boolean recorded = delegate.recordPayment(loanId, paymentAmount);
+        recordPayment.stop(start, recorded ? 1 : 0);
+        return recorded;
+    }
+
+    @Override
+    public BatchResult<Payment> recordPayments(Collection<Payment> payments, int batchSize,
+                                               BatchProgressListener listener) {
+        long start = recordPayments.start();
+        BatchResult<Payment> result = delegate.recordPayments(payments, batchSize, listener);
+        recordPayments.stop(start, result.getSuccessCount());
+        return result;
+    }
+
+    @Override
+    public boolean updateLoan(Loan loan) {
+        long start = updateLoan.start();
+        boolean updated = delegate.updateLoan(loan);
+        updateLoan.stop(start, updated ? 1 : 0);
+        return updated;
+    }
+
+    @Override
+    public boolean deleteLoan(int id) {
+        long start = deleteLoan.start();
+        boolean deleted = delegate.deleteLoan(id);
+        deleteLoan.stop(start, deleted ? 1 : 0);
+        return deleted;
+    }
+
+    @Override
+    public List<Loan> getActiveLoans() {
+        long start = getActiveLoans.start();
+        List<Loan> loans = delegate.getActiveLoans();
+        getActiveLoans.stop(start, loans.size());
+        return loans;
+    }
+
+    @Override
+    public List<Loan> getOverdueLoans() {
+        long start = getOverdueLoans.start();
+        List<Loan> loans = delegate.getOverdueLoans();
+        getOverdueLoans.stop(start, loans.size());
+        return loans;
+    }
+
+    @Override
+    public List<Loan> getOverdueLoans(LocalDate afterDueDate, int afterId, int pageSize) {
+        long start = getOverdueLoans.start();
+        List<Loan> loans = delegate.getOverdueLoans(afterDueDate, afterId, pageSize);
+        getOverdueLoans.stop(start, loans.size());
+        return loans;
+    }
+
+    @Override
+    public long countOverdueLoans() {
+        long start = countOverdueLoans.start();
+        long count = delegate.countOverdueLoans();
+        countOverdueLoans.stop(start, 1);
+        return count;
+    }
+
+    @Override
+    public PortfolioSummary getPortfolioSummary() {
+        long start = getPortfolioSummary.start();
+        PortfolioSummary summary = delegate.getPortfolioSummary();
+        getPortfolioSummary.stop(start, 1);
+        return summary;
+    }
+}
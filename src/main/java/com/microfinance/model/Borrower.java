@@ -33,6 +33,11 @@ public class Borrower {
         this.income = income;
     }
 
+    // Copy constructor
+    public Borrower(Borrower other) {
+        this(other.id, other.name, other.email, other.phone, other.address, other.income);
+    }
+
     // Getters
     public int getId() {
         return id;
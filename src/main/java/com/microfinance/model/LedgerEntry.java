@@ -0,0 +1,42 @@
+package com.microfinance.model;
+
+/**
+ * One line of a loan statement: a payment together with the running totals after it
+ */
+public class LedgerEntry {
+    private final Payment payment;
+    private final double totalPaid;
+    private final double balanceAfter;
+
+    public LedgerEntry(Payment payment, double totalPaid, double balanceAfter) {
+        this.payment = payment;
+        this.totalPaid = totalPaid;
+        this.balanceAfter = balanceAfter;
+    }
+
+    // Getters
+    public Payment getPayment() {
+        return payment;
+    }
+    /**
+     * @return Sum of this and all earlier payments on the loan
+     */
+    public double getTotalPaid() {
+        return totalPaid;
+    }
+    /**
+     * @return Loan amount minus total paid, as of this payment
+     */
+    public double getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerEntry{" +
+                "payment=" + payment +
+                ", totalPaid=" + totalPaid +
+                ", balanceAfter=" + balanceAfter +
+                '}';
+    }
+}
@@ -50,6 +50,14 @@ public class Loan {
         this.interestRate = interestRate;
     }
 
+    /**
+     * Copy constructor
+     */
+    public Loan(Loan other) {
+        this(other.id, other.borrowerId, other.borrowerName, other.loanAmount, other.outstandingBalance,
+             other.status, other.loanDate, other.dueDate, other.interestRate);
+    }
+
     // Getters
     public int getId() {
         return id;
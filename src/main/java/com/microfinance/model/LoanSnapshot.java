@@ -0,0 +1,255 @@
+package com.microfinance.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable column-oriented copy of the loan portfolio for analytics.
+ *
+ * Each field is a primitive array indexed by row: dates are stored as epoch
+ * days, statuses as byte codes into a small dictionary and borrower names as
+ * references into a de-duplicated name table. A row costs about 45 bytes,
+ * against several hundred for a Loan with its boxed dates and strings, and
+ * aggregations run as tight loops over contiguous arrays.
+ *
+ * Statuses compare case-insensitively, like the status column in MySQL.
+ */
+public final class LoanSnapshot {
+    private final int size;
+    private final int[] ids;
+    private final int[] borrowerIds;
+    private final int[] nameRefs;
+    private final double[] amounts;
+    private final double[] balances;
+    private final double[] interestRates;
+    private final int[] loanDays;
+    private final int[] dueDays;
+    private final byte[] statusCodes;
+    private final String[] names;
+    private final String[] statuses;
+
+    private LoanSnapshot(Builder builder) {
+        size = builder.size;
+        ids = Arrays.copyOf(builder.ids, size);
+        borrowerIds = Arrays.copyOf(builder.borrowerIds, size);
+        nameRefs = Arrays.copyOf(builder.nameRefs, size);
+        amounts = Arrays.copyOf(builder.amounts, size);
+        balances = Arrays.copyOf(builder.balances, size);
+        interestRates = Arrays.copyOf(builder.interestRates, size);
+        loanDays = Arrays.copyOf(builder.loanDays, size);
+        dueDays = Arrays.copyOf(builder.dueDays, size);
+        statusCodes = Arrays.copyOf(builder.statusCodes, size);
+        names = builder.names.toArray(new String[0]);
+        statuses = builder.statuses.toArray(new String[0]);
+    }
+
+    public static LoanSnapshot of(List<Loan> loans) {
+        Builder builder = new Builder(loans.size());
+        for (Loan loan : loans) {
+            builder.add(loan);
+        }
+        return builder.build();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int getId(int row) {
+        return ids[row];
+    }
+
+    public int getBorrowerId(int row) {
+        return borrowerIds[row];
+    }
+
+    public String getBorrowerName(int row) {
+        int ref = nameRefs[row];
+        return ref < 0 ? null : names[ref];
+    }
+
+    public double getLoanAmount(int row) {
+        return amounts[row];
+    }
+
+    public double getOutstandingBalance(int row) {
+        return balances[row];
+    }
+
+    public double getInterestRate(int row) {
+        return interestRates[row];
+    }
+
+    public long getLoanEpochDay(int row) {
+        return loanDays[row];
+    }
+
+    public long getDueEpochDay(int row) {
+        return dueDays[row];
+    }
+
+    public LocalDate getLoanDate(int row) {
+        return LocalDate.ofEpochDay(loanDays[row]);
+    }
+
+    public LocalDate getDueDate(int row) {
+        return LocalDate.ofEpochDay(dueDays[row]);
+    }
+
+    /**
+     * @return The status of a row, upper-cased
+     */
+    public String getStatus(int row) {
+        return statuses[statusCodes[row]];
+    }
+
+    public byte getStatusCode(int row) {
+        return statusCodes[row];
+    }
+
+    /**
+     * @return The code of a status (case-insensitive), or -1 if no row has it
+     */
+    public int statusCode(String status) {
+        String key = normalize(status);
+        for (int code = 0; code < statuses.length; code++) {
+            if (statuses[code].equals(key)) {
+                return code;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return The distinct statuses, upper-cased and indexed by code
+     */
+    public List<String> getStatuses() {
+        return List.of(statuses);
+    }
+
+    /**
+     * Rebuild a Loan for one row, e.g. to hand it to LoanService
+     */
+    public Loan toLoan(int row) {
+        return new Loan(ids[row], borrowerIds[row], getBorrowerName(row), amounts[row], balances[row],
+            getStatus(row), getLoanDate(row), getDueDate(row), interestRates[row]);
+    }
+
+    /**
+     * Approximate heap used by the arrays (excluding the shared name strings)
+     */
+    public long estimateMemoryBytes() {
+        return (long) size * (4 * 5 + 8 * 3 + 1) + 16L * 10 + (long) names.length * 8;
+    }
+
+    private static String normalize(String status) {
+        return status == null ? "" : status.trim().toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Accumulates rows into growable columns; not thread-safe
+     */
+    public static final class Builder {
+        private int size;
+        private int[] ids;
+        private int[] borrowerIds;
+        private int[] nameRefs;
+        private double[] amounts;
+        private double[] balances;
+        private double[] interestRates;
+        private int[] loanDays;
+        private int[] dueDays;
+        private byte[] statusCodes;
+        private final List<String> names = new ArrayList<>();
+        private final Map<String, Integer> nameIndex = new HashMap<>();
+        private final List<String> statuses = new ArrayList<>();
+        private final Map<String, Byte> statusIndex = new HashMap<>();
+
+        public Builder() {
+            this(1024);
+        }
+
+        /**
+         * @param expectedRows Initial capacity, e.g. from a row count
+         */
+        public Builder(int expectedRows) {
+            int capacity = Math.max(16, expectedRows);
+            ids = new int[capacity];
+            borrowerIds = new int[capacity];
+            nameRefs = new int[capacity];
+            amounts = new double[capacity];
+            balances = new double[capacity];
+            interestRates = new double[capacity];
+            loanDays = new int[capacity];
+            dueDays = new int[capacity];
+            statusCodes = new byte[capacity];
+        }
+
+        public Builder add(Loan loan) {
+            return add(loan.getId(), loan.getBorrowerId(), loan.getBorrowerName(), loan.getLoanAmount(),
+                loan.getOutstandingBalance(), loan.getStatus(), loan.getLoanDate(), loan.getDueDate(),
+                loan.getInterestRate());
+        }
+
+        public Builder add(int id, int borrowerId, String borrowerName, double amount, double balance,
+                           String status, LocalDate loanDate, LocalDate dueDate, double interestRate) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            borrowerIds[size] = borrowerId;
+            nameRefs[size] = borrowerName == null ? -1 : nameIndex.computeIfAbsent(borrowerName, name -> {
+                names.add(name);
+                return names.size() - 1;
+            });
+            amounts[size] = amount;
+            balances[size] = balance;
+            interestRates[size] = interestRate;
+            loanDays[size] = (int) loanDate.toEpochDay();
+            dueDays[size] = (int) dueDate.toEpochDay();
+            statusCodes[size] = statusCode(status);
+            size++;
+            return this;
+        }
+
+        public LoanSnapshot build() {
+            return new LoanSnapshot(this);
+        }
+
+        private byte statusCode(String status) {
+            String key = normalize(status);
+            Byte code = statusIndex.get(key);
+            if (code == null) {
+                if (statuses.size() > Byte.MAX_VALUE) {
+                    throw new IllegalStateException("Too many distinct loan statuses");
+                }
+                code = (byte) statuses.size();
+                statuses.add(key);
+                statusIndex.put(key, code);
+            }
+            return code;
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            borrowerIds = Arrays.copyOf(borrowerIds, capacity);
+            nameRefs = Arrays.copyOf(nameRefs, capacity);
+            amounts = Arrays.copyOf(amounts, capacity);
+            balances = Arrays.copyOf(balances, capacity);
+            interestRates = Arrays.copyOf(interestRates, capacity);
+            loanDays = Arrays.copyOf(loanDays, capacity);
+            dueDays = Arrays.copyOf(dueDays, capacity);
+            statusCodes = Arrays.copyOf(statusCodes, capacity);
+        }
+    }
+}
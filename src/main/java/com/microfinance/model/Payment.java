@@ -0,0 +1,83 @@
+package com.microfinance.model;
+
+import java.time.LocalDate;
+
+/**
+ * Payment model class representing a single repayment against a loan
+ */
+public class Payment {
+    private int id;
+    private int loanId;
+    private double paymentAmount;
+    private LocalDate paymentDate;
+    private String notes;
+
+    // Default constructor
+    public Payment() {}
+
+    /**
+     * Constructor for new payments (without ID)
+     */
+    public Payment(int loanId, double paymentAmount, LocalDate paymentDate, String notes) {
+        this.loanId = loanId;
+        this.paymentAmount = paymentAmount;
+        this.paymentDate = paymentDate;
+        this.notes = notes;
+    }
+
+    /**
+     * Constructor for existing payments (with ID)
+     */
+    public Payment(int id, int loanId, double paymentAmount, LocalDate paymentDate, String notes) {
+        this.id = id;
+        this.loanId = loanId;
+        this.paymentAmount = paymentAmount;
+        this.paymentDate = paymentDate;
+        this.notes = notes;
+    }
+
+    // Getters
+    public int getId() {
+        return id;
+    }
+    public int getLoanId() {
+        return loanId;
+    }
+    public double getPaymentAmount() {
+        return paymentAmount;
+    }
+    public LocalDate getPaymentDate() {
+        return paymentDate;
+    }
+    public String getNotes() {
+        return notes;
+    }
+
+    // Setters
+    public void setId(int id) {
+        this.id = id;
+    }
+    public void setLoanId(int loanId) {
+        this.loanId = loanId;
+    }
+    public void setPaymentAmount(double paymentAmount) {
+        this.paymentAmount = paymentAmount;
+    }
+    public void setPaymentDate(LocalDate paymentDate) {
+        this.paymentDate = paymentDate;
+    }
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
+    @Override
+    public String toString() {
+        return "Payment{" +
+                "id=" + id +
+                ", loanId=" + loanId +
+                ", paymentAmount=" + paymentAmount +
+                ", paymentDate=" + paymentDate +
+                ", notes='" + notes + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,87 @@
+package com.microfinance.model;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Aggregate figures for the whole loan portfolio, computed by the database
+ * or by PortfolioAnalytics from a loan snapshot
+ */
+public class PortfolioSummary {
+    private final Map<String, Long> loanCountsByStatus;
+    private final double totalLoanAmount;
+    private final double totalOutstandingBalance;
+    private final long overdueCount;
+
+    /**
+     * @param loanCountsByStatus Loan counts keyed by upper-case status
+     * @param totalLoanAmount Sum of all loan amounts
+     * @param totalOutstandingBalance Sum of all outstanding balances
+     * @param overdueCount Loans past their due date with a balance remaining
+     */
+    public PortfolioSummary(Map<String, Long> loanCountsByStatus, double totalLoanAmount,
+                            double totalOutstandingBalance, long overdueCount) {
+        this.loanCountsByStatus = Collections.unmodifiableMap(loanCountsByStatus);
+        this.totalLoanAmount = totalLoanAmount;
+        this.totalOutstandingBalance = totalOutstandingBalance;
+        this.overdueCount = overdueCount;
+    }
+
+    /**
+     * @return An all-zero summary, used when the portfolio is empty or unavailable
+     */
+    public static PortfolioSummary empty() {
+        return new PortfolioSummary(Collections.emptyMap(), 0, 0, 0);
+    }
+
+    // Getters
+    public Map<String, Long> getLoanCountsByStatus() {
+        return loanCountsByStatus;
+    }
+    public long getLoanCount(String status) {
+        return loanCountsByStatus.getOrDefault(status.toUpperCase(), 0L);
+    }
+    public long getTotalLoanCount() {
+        return loanCountsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+    public double getTotalLoanAmount() {
+        return totalLoanAmount;
+    }
+    public double getTotalOutstandingBalance() {
+        return totalOutstandingBalance;
+    }
+    public double getTotalRepaid() {
+        return totalLoanAmount - totalOutstandingBalance;
+    }
+    public long getOverdueCount() {
+        return overdueCount;
+    }
+    public double getAverageLoanAmount() {
+        long count = getTotalLoanCount();
+        return count == 0 ? 0 : totalLoanAmount / count;
+    }
+
+    /**
+     * @return Repaid share of the amount loaned, in percent
+     */
+    public double getRepaymentRate() {
+        return totalLoanAmount == 0 ? 0 : getTotalRepaid() / totalLoanAmount * 100;
+    }
+
+    /**
+     * @return Outstanding share of the amount loaned, in percent
+     */
+    public double getOutstandingRate() {
+        return totalLoanAmount == 0 ? 0 : totalOutstandingBalance / totalLoanAmount * 100;
+    }
+
+    @Override
+    public String toString() {
+        return "PortfolioSummary{" +
+                "loanCountsByStatus=" + loanCountsByStatus +
+                ", totalLoanAmount=" + totalLoanAmount +
+                ", totalOutstandingBalance=" + totalOutstandingBalance +
+                ", overdueCount=" + overdueCount +
+                '}';
+    }
+}
@@ -0,0 +1,202 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.BorrowerRepository;
+import com.microfinance.dao.LoanRepository;
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.LoanSnapshot;
+import com.microfinance.model.PortfolioSummary;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over the DAOs and LoanService for UI code.
+ * Every call runs on a dedicated executor (virtual threads when the JVM provides
+ * them) and returns a CompletableFuture, so the JavaFX Application Thread never
+ * blocks on the connection pool or the database.
+ *
+ * Checked exceptions from the wrapped calls complete the future exceptionally,
+ * wrapped in a CompletionException.
+ */
+public class AsyncLoanService {
+    private final LoanRepository loanDAO;
+    private final BorrowerRepository borrowerDAO;
+    private final LoanService loanService;
+    private final PortfolioAnalytics analytics;
+    private final ExecutorService executor;
+
+    /**
+     * A call that may throw a checked exception
+     */
+    @FunctionalInterface
+    public interface Call<T> {
+        T call() throws Exception;
+    }
+
+    public AsyncLoanService(LoanRepository loanDAO, BorrowerRepository borrowerDAO, LoanService loanService) {
+        this.loanDAO = loanDAO;
+        this.borrowerDAO = borrowerDAO;
+        this.loanService = loanService;
+        this.analytics = new PortfolioAnalytics(loanDAO);
+        this.executor = createExecutor();
+    }
+
+    /**
+     * Run an arbitrary blocking call on the data executor
+     */
+    public <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Run a blocking call that may throw a checked exception on the data executor
+     */
+    public <T> CompletableFuture<T> call(Call<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    public CompletableFuture<PortfolioSummary> getPortfolioSummary() {
+        return supply(loanService::getPortfolioSummary);
+    }
+
+    public CompletableFuture<List<Loan>> getAllLoans() {
+        return supply(loanDAO::getAllLoans);
+    }
+
+    /**
+     * Get the columnar snapshot of every loan, shared by the report views until a loan write
+     */
+    public CompletableFuture<LoanSnapshot> getLoanSnapshot() {
+        return supply(analytics::getSnapshot);
+    }
+
+    /**
+     * Get the portfolio summary computed from the shared loan snapshot
+     */
+    public CompletableFuture<PortfolioSummary> getReportSummary() {
+        return supply(analytics::getSummary);
+    }
+
+    /**
+     * @return The analytics instance behind the report calls, to share with other report views
+     */
+    public PortfolioAnalytics getPortfolioAnalytics() {
+        return analytics;
+    }
+
+    /**
+     * Get the page of loans that follows the given loan (null for the first page)
+     */
+    public CompletableFuture<List<Loan>> getLoansPage(Loan after, int pageSize) {
+        return supply(() -> after == null
+            ? loanDAO.getLoansPage(null, 0, pageSize)
+            : loanDAO.getLoansPage(after.getLoanDate(), after.getId(), pageSize));
+    }
+
+    /**
+     * Get the page of loans matching a search (borrower name or loan ID) that follows the given loan
+     */
+    public CompletableFuture<List<Loan>> searchLoansPage(String query, Loan after, int pageSize) {
+        return supply(() -> after == null
+            ? loanDAO.searchLoansPage(query, null, 0, pageSize)
+            : loanDAO.searchLoansPage(query, after.getLoanDate(), after.getId(), pageSize));
+    }
+
+    /**
+     * Get the page of borrowers that follows the given borrower (null for the first page)
+     */
+    public CompletableFuture<List<Borrower>> getBorrowersPage(Borrower after, int pageSize) {
+        return supply(() -> borrowerDAO.getBorrowersPage(after == null ? 0 : after.getId(), pageSize));
+    }
+
+    /**
+     * Resolve a borrower name (case-insensitive) to an ID in the database,
+     * for use until the name index is ready
+     *
+     * @return The borrower ID, or -1 if no borrower has that name
+     */
+    public CompletableFuture<Integer> findBorrowerIdByName(String name) {
+        return supply(() -> borrowerDAO.findBorrowerIdByName(name));
+    }
+
+    /**
+     * Build the borrower search index from a streaming scan of the borrowers table
+     */
+    public CompletableFuture<BorrowerSearchIndex> buildSearchIndex() {
+        return supply(() -> BorrowerSearchIndex.build(borrowerDAO));
+    }
+
+    /**
+     * Build the borrower name index used for autocomplete and name resolution
+     */
+    public CompletableFuture<BorrowerNameIndex> buildNameIndex() {
+        return supply(() -> BorrowerNameIndex.build(borrowerDAO));
+    }
+
+    /**
+     * Search borrowers in the database, for use until the search index is ready
+     */
+    public CompletableFuture<List<Borrower>> searchBorrowersByName(String name) {
+        return supply(() -> borrowerDAO.searchBorrowersByName(name));
+    }
+
+    public CompletableFuture<Boolean> addBorrower(Borrower borrower) {
+        return supply(() -> borrowerDAO.addBorrower(borrower));
+    }
+
+    public CompletableFuture<Boolean> updateBorrower(Borrower borrower) {
+        return supply(() -> borrowerDAO.updateBorrower(borrower));
+    }
+
+    public CompletableFuture<Boolean> deleteBorrower(int id) {
+        return supply(() -> borrowerDAO.deleteBorrower(id));
+    }
+
+    public CompletableFuture<Loan> issueLoan(int borrowerId, String borrowerName, double loanAmount,
+                                             double interestRate, int tenureMonths) {
+        return call(() -> loanService.issueLoan(borrowerId, borrowerName, loanAmount, interestRate, tenureMonths));
+    }
+
+    public CompletableFuture<Boolean> recordPayment(int loanId, double paymentAmount) {
+        return supply(() -> loanService.recordPayment(loanId, paymentAmount));
+    }
+
+    /**
+     * Stop accepting work; calls already running are allowed to finish
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Use a virtual-thread-per-task executor when the runtime has one (Java 21+),
+     * otherwise a small pool of daemon threads sized to the connection pool
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            ThreadFactory factory = runnable -> {
+                Thread thread = new Thread(runnable, "data-worker-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(8, factory);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.BorrowerChangeListener;
+import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.BorrowerRepository;
+import com.microfinance.model.Borrower;
+import com.microfinance.util.Log;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory index of borrower names for autocomplete and name-to-ID resolution.
+ *
+ * Names are kept in a sorted map keyed by "lower-cased name \0 id", so the
+ * completions of a prefix are one ordered range scan that stops after the
+ * requested count, and duplicate names stay distinct. A hash map from the
+ * lower-cased name to an ID resolves a submitted name in O(1).
+ *
+ * Reads are lock-free; the index follows writes made through any BorrowerRepository.
+ */
+public class BorrowerNameIndex implements BorrowerChangeListener {
+    private static final Log LOG = Log.getLogger(BorrowerNameIndex.class);
+    private static final char SEPARATOR = '\0';
+
+    /**
+     * One completion: the borrower's name as entered and its ID
+     */
+    public static final class Suggestion {
+        private final int id;
+        private final String name;
+
+        Suggestion(int id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    private final ConcurrentSkipListMap<String, Suggestion> sorted = new ConcurrentSkipListMap<>();
+    private final Map<String, Integer> idByName = new ConcurrentHashMap<>();
+    private final Map<Integer, String> keyById = new ConcurrentHashMap<>();
+    // IDs changed through the DAO while the initial scan runs; the scan must not overwrite them
+    private Set<Integer> changedDuringBuild = new HashSet<>();
+    private long buildMillis;
+
+    /**
+     * Build the index from a streaming scan and keep it current with later DAO writes
+     */
+    public static BorrowerNameIndex build(BorrowerRepository borrowerDAO) {
+        BorrowerNameIndex index = new BorrowerNameIndex();
+        long start = System.nanoTime();
+        // Listen first so that writes made during the scan are not lost
+        BorrowerDAO.addChangeListener(index);
+        try {
+            borrowerDAO.forEachBorrower(index::addScanned);
+        } catch (RuntimeException | Error e) {
+            // Otherwise the static listener list would keep the half-built index alive
+            BorrowerDAO.removeChangeListener(index);
+            throw e;
+        }
+        synchronized (index) {
+            index.changedDuringBuild = null;
+            index.buildMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+        LOG.info(() -> String.format("Borrower name index: %d names, built in %d ms", index.size(), index.buildMillis));
+        return index;
+    }
+
+    /**
+     * Get the first names, in alphabetical order, that start with the prefix (case-insensitive)
+     *
+     * @param prefix Text typed so far
+     * @param limit Maximum number of suggestions
+     */
+    public List<Suggestion> complete(String prefix, int limit) {
+        List<Suggestion> suggestions = new ArrayList<>(limit);
+        String from = prefix.trim().toLowerCase();
+        if (from.isEmpty() || limit <= 0) {
+            return suggestions;
+        }
+        // Every key with this prefix sorts between the prefix and the prefix followed by the highest char
+        ConcurrentNavigableMap<String, Suggestion> range = sorted.subMap(from, true, from + Character.MAX_VALUE, true);
+        for (Suggestion suggestion : range.values()) {
+            suggestions.add(suggestion);
+            if (suggestions.size() == limit) {
+                break;
+            }
+        }
+        return suggestions;
+    }
+
+    /**
+     * Resolve a full borrower name (case-insensitive) to an ID
+     *
+     * @return The ID, or -1 if no borrower has that name; for duplicate names, the lowest ID
+     */
+    public int findId(String name) {
+        Integer id = idByName.get(name.trim().toLowerCase());
+        return id == null ? -1 : id;
+    }
+
+    public int size() {
+        return keyById.size();
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * Stop following DAO changes
+     */
+    public void close() {
+        BorrowerDAO.removeChangeListener(this);
+    }
+
+    @Override
+    public synchronized void borrowerSaved(Borrower borrower) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(borrower.getId());
+        }
+        remove(borrower.getId());
+        add(borrower);
+    }
+
+    @Override
+    public synchronized void borrowerDeleted(int id) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(id);
+        }
+        remove(id);
+    }
+
+    private synchronized void addScanned(Borrower borrower) {
+        if (!changedDuringBuild.contains(borrower.getId())) {
+            add(borrower);
+        }
+    }
+
+    private void add(Borrower borrower) {
+        if (borrower.getName() == null) {
+            return;
+        }
+        String lower = borrower.getName().trim().toLowerCase();
+        String key = key(lower, borrower.getId());
+        sorted.put(key, new Suggestion(borrower.getId(), borrower.getName().trim()));
+        keyById.put(borrower.getId(), key);
+        idByName.merge(lower, borrower.getId(), Math::min);
+    }
+
+    /**
+     * Sort key: the name, then the zero-padded ID so that duplicate names list in ID order
+     */
+    private static String key(String lower, int id) {
+        String digits = Integer.toString(id);
+        StringBuilder key = new StringBuilder(lower.length() + 11).append(lower).append(SEPARATOR);
+        for (int i = digits.length(); i < 10; i++) {
+            key.append('0');
+        }
+        return key.append(digits).toString();
+    }
+
+    private void remove(int id) {
+        String key = keyById.remove(id);
+        if (key == null) {
+            return;
+        }
+        sorted.remove(key);
+        String lower = key.substring(0, key.lastIndexOf(SEPARATOR));
+        if (idByName.get(lower) == id) {
+            // Fall back to another borrower with the same name, if any
+            Map.Entry<String, Suggestion> next = sorted.ceilingEntry(lower + SEPARATOR);
+            if (next != null && next.getKey().startsWith(lower + SEPARATOR)) {
+                idByName.put(lower, next.getValue().getId());
+            } else {
+                idByName.remove(lower);
+            }
+        }
+    }
+}
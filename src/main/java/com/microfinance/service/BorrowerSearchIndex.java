@@ -0,0 +1,585 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.BorrowerChangeListener;
+import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.BorrowerRepository;
+import com.microfinance.model.Borrower;
+import com.microfinance.util.Log;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram index over borrower names, emails and phone numbers,
+ * replacing LIKE '%x%' scans for interactive search.
+ *
+ * Every field is lower-cased (phones reduced to digits) and split into trigrams.
+ * Names are framed with start and end markers, and every word start is padded
+ * with spaces, so one trigram lookup can tell a name prefix or a word prefix
+ * from a match in the middle of a word. Postings are ascending arrays of
+ * document numbers; documents are numbered in insertion order, and an update
+ * is a delete (a tombstone) followed by an insert under a new number.
+ *
+ * A query is answered in ranked tiers: exact name, name prefix, word prefix
+ * (names, emails, phones), then any substring. Each tier intersects its
+ * postings newest-first and verifies candidates against the stored borrower,
+ * so false positives never reach the caller, and the search stops as soon as
+ * enough results are found. Within a tier, newer borrowers come first.
+ *
+ * The index is built from a streaming scan and kept current through
+ * borrower change notifications. Searches run concurrently under a read lock.
+ */
+public class BorrowerSearchIndex implements BorrowerChangeListener {
+    private static final Log LOG = Log.getLogger(BorrowerSearchIndex.class);
+
+    private static final char NAME_START = '\u0001';
+    private static final char NAME_END = '\u0002';
+    private static final char WORD_START = ' ';
+    private static final int COMPACT_MIN_TOMBSTONES = 10_000;
+
+    private enum Tier { EXACT, NAME_PREFIX, WORD_PREFIX, CONTAINS }
+
+    private Borrower[] documents = new Borrower[1024];
+    private int documentCount = 0;
+    private int liveCount = 0;
+    private final Map<Integer, Integer> documentById = new HashMap<>();
+    private final PostingsTable postings = new PostingsTable();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // IDs changed through the DAO while the initial scan runs; the scan must not overwrite them
+    private Set<Integer> changedDuringBuild = new HashSet<>();
+    private long buildMillis;
+
+    /**
+     * Build an index of every borrower and keep it current with later DAO writes
+     */
+    public static BorrowerSearchIndex build(BorrowerRepository borrowerDAO) {
+        BorrowerSearchIndex index = new BorrowerSearchIndex();
+        long start = System.nanoTime();
+        // Listen first so that writes made during the scan are not lost
+        BorrowerDAO.addChangeListener(index);
+        try {
+            borrowerDAO.forEachBorrower(index::addScanned);
+        } catch (RuntimeException | Error e) {
+            // Otherwise the static listener list would keep the half-built index alive
+            BorrowerDAO.removeChangeListener(index);
+            throw e;
+        }
+        index.lock.writeLock().lock();
+        try {
+            index.changedDuringBuild = null;
+            index.buildMillis = (System.nanoTime() - start) / 1_000_000;
+        } finally {
+            index.lock.writeLock().unlock();
+        }
+        LOG.info(index::toString);
+        return index;
+    }
+
+    /**
+     * Find borrowers whose name, email or phone contains the query, best matches first:
+     * exact names, name prefixes, word prefixes, then other substrings.
+     * One- and two-character queries only match prefixes.
+     *
+     * @param query Text to look for, case-insensitive
+     * @param limit Maximum number of results
+     * @return Copies of the matching borrowers
+     */
+    public List<Borrower> search(String query, int limit) {
+        String text = query == null ? "" : query.trim().toLowerCase();
+        if (text.isEmpty() || limit <= 0) {
+            return Collections.emptyList();
+        }
+        if (isPhoneLike(text)) {
+            text = digitsOf(text);
+        }
+
+        List<Borrower> results = new ArrayList<>(Math.min(limit, 64));
+        Set<Integer> seen = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Tier tier : Tier.values()) {
+                if (tier == Tier.CONTAINS && text.length() < 3) {
+                    break;
+                }
+                if (collect(tier, text, limit, results, seen)) {
+                    break;
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void borrowerSaved(Borrower borrower) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(borrower.getId());
+            }
+            remove(borrower.getId());
+            add(borrower);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void borrowerDeleted(int id) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringBuild != null) {
+                changedDuringBuild.add(id);
+            }
+            remove(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Stop following DAO changes
+     */
+    public void close() {
+        BorrowerDAO.removeChangeListener(this);
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getBuildMillis() {
+        return buildMillis;
+    }
+
+    /**
+     * Estimate the heap used by the index, assuming compressed oops and compact strings
+     */
+    public long estimateMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = 16 + 4L * documents.length
+                + 12L * postings.capacity() + 4L * tableCapacity(documentById.size())
+                // HashMap node + Integer key + Integer value per document
+                + 64L * documentById.size();
+            for (Postings list : postings.values) {
+                if (list != null) {
+                    // Postings object + int[] header and data
+                    bytes += 24 + 16 + 4L * list.ids.length;
+                }
+            }
+            for (int doc = 0; doc < documentCount; doc++) {
+                Borrower borrower = documents[doc];
+                if (borrower != null) {
+                    bytes += 40 + stringBytes(borrower.getName()) + stringBytes(borrower.getEmail())
+                        + stringBytes(borrower.getPhone()) + stringBytes(borrower.getAddress());
+                }
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Borrower search index: %d borrowers, %d trigrams, ~%.1f MB, built in %d ms",
+            size(), postings.size(), estimateMemoryBytes() / (1024.0 * 1024.0), buildMillis);
+    }
+
+    private void addScanned(Borrower borrower) {
+        lock.writeLock().lock();
+        try {
+            if (!changedDuringBuild.contains(borrower.getId())) {
+                add(borrower);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Borrower borrower) {
+        if (documentCount == documents.length) {
+            documents = Arrays.copyOf(documents, documentCount * 2);
+        }
+        int doc = documentCount++;
+        documents[doc] = borrower;
+        documentById.put(borrower.getId(), doc);
+        liveCount++;
+        for (long trigram : trigramsOf(borrower)) {
+            // Document numbers only grow, so appending keeps every list sorted
+            postings.getOrCreate(trigram).append(doc);
+        }
+    }
+
+    /**
+     * Remove a borrower by leaving a tombstone in its document slot; searches skip
+     * tombstones, and the postings are compacted once they make up half the index
+     */
+    private void remove(int id) {
+        Integer doc = documentById.remove(id);
+        if (doc == null) {
+            return;
+        }
+        documents[doc] = null;
+        liveCount--;
+        if (documentCount - liveCount > Math.max(COMPACT_MIN_TOMBSTONES, liveCount)) {
+            compact();
+        }
+    }
+
+    /**
+     * Renumber the live documents and rebuild the postings without tombstones
+     */
+    private void compact() {
+        Borrower[] live = new Borrower[liveCount];
+        int next = 0;
+        for (int doc = 0; doc < documentCount; doc++) {
+            if (documents[doc] != null) {
+                live[next++] = documents[doc];
+            }
+        }
+        documents = new Borrower[Math.max(1024, live.length * 2)];
+        documentCount = 0;
+        liveCount = 0;
+        documentById.clear();
+        postings.clear();
+        for (Borrower borrower : live) {
+            add(borrower);
+        }
+    }
+
+    /**
+     * Add the newest matches of one tier to the results
+     *
+     * @return true once the results are full
+     */
+    private boolean collect(Tier tier, String text, int limit, List<Borrower> results, Set<Integer> seen) {
+        long[] keys = queryTrigrams(tier, text);
+        Postings[] lists = new Postings[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            lists[i] = postings.get(keys[i]);
+            if (lists[i] == null) {
+                return false;
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+
+        // Walk the shortest list newest-first; the other lists are probed with
+        // binary searches over a shrinking upper bound
+        int[] upper = new int[lists.length];
+        for (int j = 1; j < lists.length; j++) {
+            upper[j] = lists[j].size;
+        }
+        Postings driver = lists[0];
+        candidates:
+        for (int i = driver.size - 1; i >= 0; i--) {
+            int doc = driver.ids[i];
+            for (int j = 1; j < lists.length; j++) {
+                int found = Arrays.binarySearch(lists[j].ids, 0, upper[j], doc);
+                if (found < 0) {
+                    upper[j] = -found - 1;
+                    continue candidates;
+                }
+                upper[j] = found;
+            }
+            Borrower borrower = documents[doc];
+            if (borrower != null && !seen.contains(doc) && matches(tier, borrower, text)) {
+                seen.add(doc);
+                results.add(new Borrower(borrower));
+                if (results.size() == limit) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matches(Tier tier, Borrower borrower, String text) {
+        String name = borrower.getName();
+        switch (tier) {
+            case EXACT:
+                return name != null && name.equalsIgnoreCase(text);
+            case NAME_PREFIX:
+                return name != null && name.regionMatches(true, 0, text, 0, text.length());
+            case WORD_PREFIX:
+                return hasWordStartingWith(name, text) || hasWordStartingWith(borrower.getEmail(), text)
+                    || (borrower.getPhone() != null && digitsOf(borrower.getPhone()).startsWith(text));
+            default:
+                return indexOfIgnoreCase(name, text) >= 0 || indexOfIgnoreCase(borrower.getEmail(), text) >= 0
+                    || (borrower.getPhone() != null && digitsOf(borrower.getPhone()).contains(text));
+        }
+    }
+
+    private static boolean hasWordStartingWith(String value, String text) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0, last = value.length() - text.length(); i <= last; i++) {
+            if (isWordStart(value, i) && value.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int indexOfIgnoreCase(String value, String text) {
+        if (value == null) {
+            return -1;
+        }
+        for (int i = 0, last = value.length() - text.length(); i <= last; i++) {
+            if (value.regionMatches(true, i, text, 0, text.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isWordStart(String value, int index) {
+        return index == 0 || !Character.isLetterOrDigit(value.charAt(index - 1));
+    }
+
+    /**
+     * The trigrams a document must contain to match the query in the given tier
+     */
+    private static long[] queryTrigrams(Tier tier, String text) {
+        TrigramBuffer buffer = new TrigramBuffer();
+        switch (tier) {
+            case EXACT:
+                addFramed(buffer, text, true);
+                break;
+            case NAME_PREFIX:
+                addFramed(buffer, text, false);
+                break;
+            case WORD_PREFIX:
+                addWordStart(buffer, text, 0);
+                addContiguous(buffer, text);
+                break;
+            default:
+                addContiguous(buffer, text);
+                break;
+        }
+        return buffer.distinct();
+    }
+
+    private static long[] trigramsOf(Borrower borrower) {
+        TrigramBuffer buffer = new TrigramBuffer();
+        if (borrower.getName() != null) {
+            String name = borrower.getName().toLowerCase();
+            addFramed(buffer, name, true);
+            addWordStarts(buffer, name);
+        }
+        if (borrower.getEmail() != null) {
+            String email = borrower.getEmail().toLowerCase();
+            addContiguous(buffer, email);
+            addWordStarts(buffer, email);
+        }
+        if (borrower.getPhone() != null) {
+            String phone = digitsOf(borrower.getPhone());
+            addContiguous(buffer, phone);
+            addWordStart(buffer, phone, 0);
+        }
+        return buffer.distinct();
+    }
+
+    /**
+     * Trigrams of NAME_START NAME_START text [NAME_END]; these include every
+     * contiguous trigram of the text itself
+     */
+    private static void addFramed(TrigramBuffer buffer, String text, boolean withEnd) {
+        char a = NAME_START;
+        char b = NAME_START;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            buffer.add(pack(a, b, c));
+            a = b;
+            b = c;
+        }
+        if (withEnd) {
+            buffer.add(pack(a, b, NAME_END));
+        }
+    }
+
+    private static void addContiguous(TrigramBuffer buffer, String text) {
+        for (int i = 0; i + 2 < text.length(); i++) {
+            buffer.add(pack(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)));
+        }
+    }
+
+    private static void addWordStarts(TrigramBuffer buffer, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (isWordStart(text, i) && Character.isLetterOrDigit(text.charAt(i))) {
+                addWordStart(buffer, text, i);
+            }
+        }
+    }
+
+    private static void addWordStart(TrigramBuffer buffer, String text, int at) {
+        if (at < text.length()) {
+            buffer.add(pack(WORD_START, WORD_START, text.charAt(at)));
+            if (at + 1 < text.length()) {
+                buffer.add(pack(WORD_START, text.charAt(at), text.charAt(at + 1)));
+            }
+        }
+    }
+
+    private static long pack(char a, char b, char c) {
+        return ((long) a << 32) | ((long) b << 16) | c;
+    }
+
+    private static boolean isPhoneLike(String text) {
+        boolean hasDigit = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isDigit(c)) {
+                hasDigit = true;
+            } else if (" +-().".indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return hasDigit;
+    }
+
+    private static String digitsOf(String value) {
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.isDigit(value.charAt(i))) {
+                digits.append(value.charAt(i));
+            }
+        }
+        return digits.toString();
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 40 + value.length();
+    }
+
+    private static long tableCapacity(int entries) {
+        long capacity = 16;
+        while (capacity * 0.75 < entries) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Open-addressing hash table from packed trigram to postings, avoiding a boxed
+     * Long key and map node per trigram
+     */
+    private static final class PostingsTable {
+        long[] keys = new long[1024];
+        Postings[] values = new Postings[1024];
+        int size;
+
+        Postings get(long key) {
+            for (int slot = slot(key); values[slot] != null; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        Postings getOrCreate(long key) {
+            int slot = slot(key);
+            for (; values[slot] != null; slot = (slot + 1) & (keys.length - 1)) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            Postings created = new Postings();
+            keys[slot] = key;
+            values[slot] = created;
+            if (++size * 4 > keys.length * 3) {
+                resize();
+            }
+            return created;
+        }
+
+        void clear() {
+            keys = new long[1024];
+            values = new Postings[1024];
+            size = 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        private int slot(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash >>> 32) & (keys.length - 1);
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Postings[oldValues.length * 2];
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldValues[i] != null) {
+                    int slot = slot(oldKeys[i]);
+                    while (values[slot] != null) {
+                        slot = (slot + 1) & (keys.length - 1);
+                    }
+                    keys[slot] = oldKeys[i];
+                    values[slot] = oldValues[i];
+                }
+            }
+        }
+    }
+
+    /**
+     * Ascending, growable list of document numbers for one trigram
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void append(int doc) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            ids[size++] = doc;
+        }
+    }
+
+    private static final class TrigramBuffer {
+        long[] values = new long[64];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        long[] distinct() {
+            Arrays.sort(values, 0, size);
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                if (unique == 0 || values[unique - 1] != values[i]) {
+                    values[unique++] = values[i];
+                }
+            }
+            return Arrays.copyOf(values, unique);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.BatchResult;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Three-stage streaming CSV import: a reader thread, a parse/validate thread and
+ * a batched DAO writer on the calling thread, connected by bounded queues so that
+ * file I/O, parsing and database writes overlap. Memory use is bounded by the queue
+ * capacity times the chunk size, independent of the file size.
+ *
+ * Rows that fail parsing, validation or the database write are appended to a
+ * rejects file as: line number, reason, original record.
+ *
+ * @param <T> The model type produced from each row
+ */
+class CsvImportPipeline<T> {
+    static final int DEFAULT_CHUNK_SIZE = 1000;
+    private static final int QUEUE_CAPACITY = 4;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Converts the fields of one CSV row into a model object
+     * Throws a RuntimeException (e.g. IllegalArgumentException) describing why the row is invalid
+     */
+    @FunctionalInterface
+    interface RowParser<T> {
+        T parse(String[] fields);
+    }
+
+    /**
+     * Writes one batch of parsed rows; failure indexes refer to positions in the batch
+     */
+    @FunctionalInterface
+    interface BatchWriter<T> {
+        BatchResult<T> write(List<T> batch);
+    }
+
+    private static final class Line {
+        final long number;
+        final String text;
+
+        Line(long number, String text) {
+            this.number = number;
+            this.text = text;
+        }
+    }
+
+    private static final class Parsed<T> {
+        final Line line;
+        final T value;
+
+        Parsed(Line line, T value) {
+            this.line = line;
+            this.value = value;
+        }
+    }
+
+    private final String name;
+    private final RowParser<T> parser;
+    private final BatchWriter<T> writer;
+    private final int chunkSize;
+    private final boolean hasHeader;
+
+    // End-of-stream markers, compared by identity
+    private final List<Line> endOfLines = new ArrayList<>(0);
+    private final List<Parsed<T>> endOfRecords = new ArrayList<>(0);
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsRejected = new AtomicLong();
+    private BufferedWriter rejectsOut;
+
+    CsvImportPipeline(String name, RowParser<T> parser, BatchWriter<T> writer, int chunkSize, boolean hasHeader) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be greater than 0");
+        }
+        this.name = name;
+        this.parser = parser;
+        this.writer = writer;
+        this.chunkSize = chunkSize;
+        this.hasHeader = hasHeader;
+    }
+
+    /**
+     * Run the import to completion
+     *
+     * @param input The CSV file to import
+     * @param rejects Where to write rejected rows, or null to only count them
+     * @return Counts and throughput of the import
+     * @throws IOException if the input cannot be read or the rejects file cannot be written
+     */
+    ImportReport run(Path input, Path rejects) throws IOException {
+        long start = System.nanoTime();
+        BlockingQueue<List<Line>> lines = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        BlockingQueue<List<Parsed<T>>> records = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        long imported = 0;
+
+        rejectsOut = rejects == null ? null : Files.newBufferedWriter(rejects, StandardCharsets.UTF_8);
+        Thread readerThread = new Thread(() -> readLines(input, lines), name + "-reader");
+        Thread parserThread = new Thread(() -> parseLines(lines, records), name + "-parser");
+        readerThread.setDaemon(true);
+        parserThread.setDaemon(true);
+        try {
+            if (rejectsOut != null) {
+                rejectsOut.write("line,reason,record");
+                rejectsOut.newLine();
+            }
+            readerThread.start();
+            parserThread.start();
+
+            List<Parsed<T>> batch;
+            while ((batch = records.take()) != endOfRecords) {
+                List<T> values = new ArrayList<>(batch.size());
+                for (Parsed<T> parsed : batch) {
+                    values.add(parsed.value);
+                }
+                BatchResult<T> result = writer.write(values);
+                imported += result.getSuccessCount();
+                for (BatchResult.Failure<T> rejected : result.getFailures()) {
+                    reject(batch.get(rejected.getIndex()).line, rejected.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } finally {
+            readerThread.interrupt();
+            parserThread.interrupt();
+            if (rejectsOut != null) {
+                rejectsOut.close();
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error != null) {
+            throw new IOException("Import of " + input + " failed: " + error.getMessage(), error);
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        return new ImportReport(name, rowsRead.get(), imported, rowsRejected.get(), elapsedMillis);
+    }
+
+    private void readLines(Path input, BlockingQueue<List<Line>> lines) {
+        try (FileChannel channel = FileChannel.open(input);
+             BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            List<Line> chunk = new ArrayList<>(chunkSize);
+            long number = 0;
+            String text;
+            while ((text = in.readLine()) != null) {
+                number++;
+                if ((number == 1 && hasHeader) || text.isBlank()) {
+                    continue;
+                }
+                rowsRead.incrementAndGet();
+                chunk.add(new Line(number, text));
+                if (chunk.size() == chunkSize) {
+                    lines.put(chunk);
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                lines.put(chunk);
+            }
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            return;
+        }
+        putQuietly(lines, endOfLines);
+    }
+
+    private void parseLines(BlockingQueue<List<Line>> lines, BlockingQueue<List<Parsed<T>>> records) {
+        try {
+            List<Line> chunk;
+            while ((chunk = lines.take()) != endOfLines) {
+                List<Parsed<T>> parsed = new ArrayList<>(chunk.size());
+                for (Line line : chunk) {
+                    try {
+                        parsed.add(new Parsed<>(line, parser.parse(splitCsvLine(line.text))));
+                    } catch (RuntimeException e) {
+                        reject(line, e.getMessage() != null ? e.getMessage() : e.toString());
+                    }
+                }
+                if (!parsed.isEmpty()) {
+                    records.put(parsed);
+                }
+            }
+        } catch (IOException e) {
+            failure.compareAndSet(null, e);
+        } catch (InterruptedException e) {
+            return;
+        }
+        putQuietly(records, endOfRecords);
+    }
+
+    private synchronized void reject(Line line, String reason) throws IOException {
+        rowsRejected.incrementAndGet();
+        if (rejectsOut != null) {
+            rejectsOut.write(line.number + "," + quote(reason) + "," + line.text);
+            rejectsOut.newLine();
+        }
+    }
+
+    private static <E> void putQuietly(BlockingQueue<E> queue, E item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String quote(String value) {
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Split one CSV record into fields. Supports double-quoted fields with "" escapes;
+     * quoted fields may not span lines.
+     */
+    static String[] splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString().trim());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString().trim());
+        return fields.toArray(new String[0]);
+    }
+}
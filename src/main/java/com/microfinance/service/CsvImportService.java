@@ -0,0 +1,197 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.BatchProgressListener;
+import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.BorrowerRepository;
+import com.microfinance.dao.LoanDAO;
+import com.microfinance.dao.LoanRepository;
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.Payment;
+import com.microfinance.util.AppConfig;
+import com.microfinance.util.DatabaseConnection;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Headless bulk import of borrowers, loans and payments from CSV files
+ * (e.g. daily payment files from mobile-money agents and branch offices).
+ *
+ * Expected columns, with a header row:
+ *   borrowers: name, email, phone, address, income
+ *   loans:     borrower_id, loan_amount, interest_rate, tenure_months [, loan_date]
+ *   payments:  loan_id, amount [, payment_date [, notes]]
+ * Dates use ISO format (yyyy-MM-dd) and default to today.
+ */
+public class CsvImportService {
+    private final BorrowerRepository borrowerDAO;
+    private final LoanRepository loanDAO;
+    private final int batchSize;
+
+    public CsvImportService(BorrowerRepository borrowerDAO, LoanRepository loanDAO) {
+        this(borrowerDAO, loanDAO, CsvImportPipeline.DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * @param batchSize Rows per parse chunk, DAO batch and commit
+     */
+    public CsvImportService(BorrowerRepository borrowerDAO, LoanRepository loanDAO, int batchSize) {
+        this.borrowerDAO = borrowerDAO;
+        this.loanDAO = loanDAO;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import borrowers
+     *
+     * @param csv The borrowers CSV file
+     * @param rejects Where to write rejected rows, or null to only count them
+     * @return Import counts and throughput
+     * @throws IOException if the files cannot be read or written
+     */
+    public ImportReport importBorrowers(Path csv, Path rejects) throws IOException {
+        return new CsvImportPipeline<>("borrowers", CsvImportService::parseBorrower,
+            batch -> borrowerDAO.addBorrowers(batch, batchSize, BatchProgressListener.NONE),
+            batchSize, true).run(csv, rejects);
+    }
+
+    /**
+     * Import new loans; each loan starts ACTIVE with its full amount outstanding
+     *
+     * @param csv The loans CSV file
+     * @param rejects Where to write rejected rows, or null to only count them
+     * @return Import counts and throughput
+     * @throws IOException if the files cannot be read or written
+     */
+    public ImportReport importLoans(Path csv, Path rejects) throws IOException {
+        return new CsvImportPipeline<>("loans", CsvImportService::parseLoan,
+            batch -> loanDAO.addLoans(batch, batchSize, BatchProgressListener.NONE),
+            batchSize, true).run(csv, rejects);
+    }
+
+    /**
+     * Import and post payments in file order, exactly as if each was recorded by a teller
+     *
+     * @param csv The payments CSV file
+     * @param rejects Where to write rejected rows, or null to only count them
+     * @return Import counts and throughput
+     * @throws IOException if the files cannot be read or written
+     */
+    public ImportReport importPayments(Path csv, Path rejects) throws IOException {
+        return new CsvImportPipeline<>("payments", CsvImportService::parsePayment,
+            batch -> loanDAO.recordPayments(batch, batchSize, BatchProgressListener.NONE),
+            batchSize, true).run(csv, rejects);
+    }
+
+    static Borrower parseBorrower(String[] fields) {
+        requireFields(fields, 5);
+        String name = fields[0];
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Name cannot be empty");
+        }
+        if (!LoanCalculationService.isValidPhoneNumber(fields[2])) {
+            throw new IllegalArgumentException("Invalid phone number: " + fields[2]);
+        }
+        double income = parseDouble(fields[4], "income");
+        if (!LoanCalculationService.isValidIncome(income)) {
+            throw new IllegalArgumentException("Income must be a positive number");
+        }
+        return new Borrower(name, fields[1], fields[2], fields[3], income);
+    }
+
+    static Loan parseLoan(String[] fields) {
+        requireFields(fields, 4);
+        int borrowerId = parseId(fields[0], "borrower_id");
+        double amount = parseDouble(fields[1], "loan_amount");
+        if (!LoanCalculationService.isValidLoanAmount(amount)) {
+            throw new IllegalArgumentException(LoanCalculationService.getInvalidLoanAmountMessage());
+        }
+        double rate = parseDouble(fields[2], "interest_rate");
+        if (!LoanCalculationService.isValidInterestRate(rate)) {
+            throw new IllegalArgumentException("Interest rate must be between 0 and 100 percent");
+        }
+        // Tenure is validated only; loans store the next due date rather than the tenure
+        parseId(fields[3], "tenure_months");
+        LocalDate loanDate = parseDate(fields, 4);
+        return new Loan(borrowerId, null, amount, amount, "ACTIVE", loanDate, loanDate.plusMonths(1), rate);
+    }
+
+    static Payment parsePayment(String[] fields) {
+        requireFields(fields, 2);
+        int loanId = parseId(fields[0], "loan_id");
+        double amount = parseDouble(fields[1], "amount");
+        if (amount <= 0) {
+            throw new IllegalArgumentException("Payment amount must be greater than 0");
+        }
+        String notes = fields.length > 3 && !fields[3].isEmpty() ? fields[3] : null;
+        return new Payment(loanId, amount, parseDate(fields, 2), notes);
+    }
+
+    private static void requireFields(String[] fields, int count) {
+        if (fields.length < count) {
+            throw new IllegalArgumentException("Expected at least " + count + " fields but found " + fields.length);
+        }
+    }
+
+    private static int parseId(String value, String column) {
+        try {
+            int id = Integer.parseInt(value);
+            if (id <= 0) {
+                throw new IllegalArgumentException(column + " must be greater than 0");
+            }
+            return id;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String column) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static LocalDate parseDate(String[] fields, int index) {
+        if (fields.length <= index || fields[index].isEmpty()) {
+            return LocalDate.now();
+        }
+        try {
+            return LocalDate.parse(fields[index]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + fields[index]);
+        }
+    }
+
+    /**
+     * Command-line entry point:
+     * CsvImportService borrowers|loans|payments input.csv [rejects.csv]
+     * Uses the batch configuration profile unless another one is set.
+     */
+    public static void main(String[] args) throws IOException {
+        AppConfig.useDefaultProfile("batch");
+        if (args.length < 2) {
+            System.err.println("Usage: CsvImportService borrowers|loans|payments <input.csv> [rejects.csv]");
+            System.exit(2);
+        }
+        Path input = Paths.get(args[1]);
+        Path rejects = Paths.get(args.length > 2 ? args[2] : args[1] + ".rejects.csv");
+        CsvImportService importer = new CsvImportService(new BorrowerDAO(), new LoanDAO());
+        try {
+            ImportReport report;
+            switch (args[0]) {
+                case "borrowers" -> report = importer.importBorrowers(input, rejects);
+                case "loans" -> report = importer.importLoans(input, rejects);
+                case "payments" -> report = importer.importPayments(input, rejects);
+                default -> throw new IllegalArgumentException("Unknown import type: " + args[0]);
+            }
+            System.out.println(report);
+        } finally {
+            DatabaseConnection.closePool();
+        }
+    }
+}
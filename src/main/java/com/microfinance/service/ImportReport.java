@@ -0,0 +1,50 @@
+package com.microfinance.service;
+
+/**
+ * Summary of a completed file import
+ */
+public class ImportReport {
+    private final String source;
+    private final long rowsRead;
+    private final long rowsImported;
+    private final long rowsRejected;
+    private final long elapsedMillis;
+
+    public ImportReport(String source, long rowsRead, long rowsImported, long rowsRejected, long elapsedMillis) {
+        this.source = source;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsRejected = rowsRejected;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters
+    public String getSource() {
+        return source;
+    }
+    public long getRowsRead() {
+        return rowsRead;
+    }
+    public long getRowsImported() {
+        return rowsImported;
+    }
+    public long getRowsRejected() {
+        return rowsRejected;
+    }
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * @return Data rows read per second of wall-clock time
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: read=%d, imported=%d, rejected=%d, elapsed=%dms, rate=%.0f rows/s",
+                source, rowsRead, rowsImported, rowsRejected, elapsedMillis, getRowsPerSecond());
+    }
+}
@@ -1,9 +1,12 @@
 package com.microfinance.service;
 
-import com.microfinance.dao.LoanDAO;
+import com.microfinance.dao.LoanRepository;
 import com.microfinance.exception.BorrowerNotFoundException;
 import com.microfinance.exception.InvalidLoanAmountException;
 import com.microfinance.model.Loan;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.util.FlightEvents;
+import com.microfinance.util.ThroughputStats;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -12,9 +15,13 @@ import java.util.List;
  * Handles loan creation, validation, status tracking, and overdue calculations
  */
 public class LoanService {
-    private final LoanDAO loanDAO;
+    private final LoanRepository loanDAO;
+    private final ThroughputStats paymentStats = new ThroughputStats("Payment posting");
 
-    public LoanService(LoanDAO loanDAO) {
+    /**
+     * @param loanDAO Any loan repository: the JDBC LoanDAO, an embedded database or InMemoryStore
+     */
+    public LoanService(LoanRepository loanDAO) {
         this.loanDAO = loanDAO;
     }
 
@@ -32,40 +39,50 @@ public class LoanService {
      */
     public Loan issueLoan(int borrowerId, String borrowerName, double loanAmount, double interestRate, int tenureMonths)
             throws InvalidLoanAmountException, BorrowerNotFoundException {
-        // Validate loan amount
-        if (!LoanCalculationService.isValidLoanAmount(loanAmount)) {
-            throw new InvalidLoanAmountException(LoanCalculationService.getInvalidLoanAmountMessage());
-        }
-        // Validate interest rate
-        if (!LoanCalculationService.isValidInterestRate(interestRate)) {
-            throw new InvalidLoanAmountException("Interest rate must be between 0 and 100 percent");
-        }
-        // Validate tenure
-        if (tenureMonths <= 0) {
-            throw new InvalidLoanAmountException("Loan tenure must be greater than 0 months");
-        }
-        // Validate borrower exists
-        if (borrowerId <= 0 || borrowerName == null || borrowerName.trim().isEmpty()) {
-            throw new BorrowerNotFoundException("Valid borrower must be selected");
-        }
-        // Create the loan with current date as loan date
-        LocalDate loanDate = LocalDate.now();
-        LocalDate nextDueDate = loanDate.plusMonths(1);
-        Loan loan = new Loan(
-            borrowerId,
-            borrowerName,
-            loanAmount,
-            loanAmount,
-            "ACTIVE",
-            loanDate,
-            nextDueDate,
-            interestRate
-        );
-        // Save to database
-        if (loanDAO.addLoan(loan)) {
-            return loan;
-        } else {
-            throw new BorrowerNotFoundException("Failed to create loan in database");
+        FlightEvents.LoanOperation event = new FlightEvents.LoanOperation("issueLoan");
+        event.begin();
+        event.borrowerId = borrowerId;
+        event.amount = loanAmount;
+        try {
+            // Validate loan amount
+            if (!LoanCalculationService.isValidLoanAmount(loanAmount)) {
+                throw new InvalidLoanAmountException(LoanCalculationService.getInvalidLoanAmountMessage());
+            }
+            // Validate interest rate
+            if (!LoanCalculationService.isValidInterestRate(interestRate)) {
+                throw new InvalidLoanAmountException("Interest rate must be between 0 and 100 percent");
+            }
+            // Validate tenure
+            if (tenureMonths <= 0) {
+                throw new InvalidLoanAmountException("Loan tenure must be greater than 0 months");
+            }
+            // Validate borrower exists
+            if (borrowerId <= 0 || borrowerName == null || borrowerName.trim().isEmpty()) {
+                throw new BorrowerNotFoundException("Valid borrower must be selected");
+            }
+            // Create the loan with current date as loan date
+            LocalDate loanDate = LocalDate.now();
+            LocalDate nextDueDate = loanDate.plusMonths(1);
+            Loan loan = new Loan(
+                borrowerId,
+                borrowerName,
+                loanAmount,
+                loanAmount,
+                "ACTIVE",
+                loanDate,
+                nextDueDate,
+                interestRate
+            );
+            // Save to database
+            if (loanDAO.addLoan(loan)) {
+                event.loanId = loan.getId();
+                event.succeeded = true;
+                return loan;
+            } else {
+                throw new BorrowerNotFoundException("Failed to create loan in database");
+            }
+        } finally {
+            event.commit();
         }
     }
 
@@ -77,10 +94,20 @@ public class LoanService {
      * @return true if loan is overdue, false otherwise
      */
     public boolean isLoanOverdue(Loan loan) {
+        return isLoanOverdue(loan, LocalDate.now());
+    }
+
+    /**
+     * Determine if a loan is overdue as of the given date
+     *
+     * @param loan The loan to check
+     * @param today The date to evaluate against
+     * @return true if loan is overdue, false otherwise
+     */
+    public boolean isLoanOverdue(Loan loan, LocalDate today) {
         if (loan == null) {
             return false;
         }
-        LocalDate today = LocalDate.now();
         return today.isAfter(loan.getDueDate()) && loan.getOutstandingBalance() > 0;
     }
 
@@ -94,6 +121,18 @@ public class LoanService {
      * @return The appropriate status string
      */
     public String determineLoanStatus(Loan loan) {
+        return determineLoanStatus(loan, LocalDate.now());
+    }
+
+    /**
+     * Determine the loan status as of the given date
+     * Callers classifying many loans should read the date once and pass it in
+     *
+     * @param loan The loan to check
+     * @param today The date to evaluate against
+     * @return The appropriate status string
+     */
+    public String determineLoanStatus(Loan loan, LocalDate today) {
         if (loan == null) {
             return "UNKNOWN";
         }
@@ -102,7 +141,7 @@ public class LoanService {
             return "PAID_OFF";
         }
 
-        if (isLoanOverdue(loan)) {
+        if (isLoanOverdue(loan, today)) {
             return "OVERDUE";
         }
 
@@ -111,46 +150,73 @@ public class LoanService {
 
     /**
      * Record a payment and update loan details
-     * Apportion payment into principal and interest
+     * The balance, status, next due date and payment history are updated in one transaction
      *
      * @param loanId The ID of the loan
      * @param paymentAmount The payment amount
-     * @return true if payment recorded successfully
+     * @return true if payment recorded successfully, false if the loan does not exist or the update failed
      * @throws IllegalArgumentException if payment amount is invalid
      */
     public boolean recordPayment(int loanId, double paymentAmount) throws IllegalArgumentException {
-        if (paymentAmount <= 0) {
-            throw new IllegalArgumentException("Payment amount must be greater than 0");
-        }
-
-        Loan loan = loanDAO.getLoanById(loanId);
-        if (loan == null) {
-            throw new IllegalArgumentException("Loan not found with ID: " + loanId);
-        }
-
-        // Record the payment in database
-        boolean success = loanDAO.recordPayment(loanId, paymentAmount);
-
-        if (success) {
-            // Update the next due date for next month's payment
-            Loan updatedLoan = loanDAO.getLoanById(loanId);
-            if (updatedLoan != null && updatedLoan.getOutstandingBalance() > 0) {
-                updatedLoan.setDueDate(updatedLoan.getDueDate().plusMonths(1));
-                loanDAO.updateLoan(updatedLoan);
+        FlightEvents.LoanOperation event = new FlightEvents.LoanOperation("recordPayment");
+        event.begin();
+        event.loanId = loanId;
+        event.amount = paymentAmount;
+        try {
+            if (paymentAmount <= 0) {
+                throw new IllegalArgumentException("Payment amount must be greater than 0");
             }
+            long start = System.nanoTime();
+            boolean success = loanDAO.recordPayment(loanId, paymentAmount);
+            paymentStats.record(System.nanoTime() - start);
+            event.succeeded = success;
+            return success;
+        } finally {
+            event.commit();
         }
+    }
 
-        return success;
+    /**
+     * Get throughput and latency statistics for payment posting
+     *
+     * @return Payment posting statistics (payments per second, p99 latency)
+     */
+    public ThroughputStats getPaymentStats() {
+        return paymentStats;
     }
 
     /**
      * Get all overdue loans
      *
-     * @return List of overdue loans
+     * @return List of overdue loans, oldest due date first
      */
     public List<Loan> getOverdueLoans() {
-        List<Loan> allLoans = loanDAO.getAllLoans();
-        return allLoans.stream().filter(this::isLoanOverdue).toList();
+        FlightEvents.LoanOperation event = new FlightEvents.LoanOperation("getOverdueLoans");
+        event.begin();
+        try {
+            return succeeded(event, loanDAO.getOverdueLoans());
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Get one page of overdue loans
+     *
+     * @param afterLoan Last loan of the previous page, or null for the first page
+     * @param pageSize Maximum number of loans to return
+     * @return The next page of overdue loans
+     */
+    public List<Loan> getOverdueLoans(Loan afterLoan, int pageSize) {
+        FlightEvents.LoanOperation event = new FlightEvents.LoanOperation("getOverdueLoans");
+        event.begin();
+        try {
+            return succeeded(event, afterLoan == null
+                ? loanDAO.getOverdueLoans(null, 0, pageSize)
+                : loanDAO.getOverdueLoans(afterLoan.getDueDate(), afterLoan.getId(), pageSize));
+        } finally {
+            event.commit();
+        }
     }
 
     /**
@@ -159,7 +225,30 @@ public class LoanService {
      * @return List of active loans
      */
     public List<Loan> getActiveLoans() {
-        return loanDAO.getActiveLoans();
+        FlightEvents.LoanOperation event = new FlightEvents.LoanOperation("getActiveLoans");
+        event.begin();
+        try {
+            return succeeded(event, loanDAO.getActiveLoans());
+        } finally {
+            event.commit();
+        }
+    }
+
+    /**
+     * Get portfolio totals (counts by status, amounts, overdue count) from one aggregate query
+     *
+     * @return Portfolio summary
+     */
+    public PortfolioSummary getPortfolioSummary() {
+        FlightEvents.LoanOperation event = new FlightEvents.LoanOperation("getPortfolioSummary");
+        event.begin();
+        try {
+            PortfolioSummary summary = loanDAO.getPortfolioSummary();
+            event.succeeded = true;
+            return summary;
+        } finally {
+            event.commit();
+        }
     }
 
     /**
@@ -168,8 +257,7 @@ public class LoanService {
      * @return Total outstanding balance
      */
     public double getTotalOutstandingBalance() {
-        List<Loan> allLoans = loanDAO.getAllLoans();
-        return allLoans.stream().mapToDouble(Loan::getOutstandingBalance).sum();
+        return getPortfolioSummary().getTotalOutstandingBalance();
     }
 
     /**
@@ -178,7 +266,16 @@ public class LoanService {
      * @return Number of overdue loans
      */
     public long getOverdueAccountCount() {
-        return getOverdueLoans().size();
+        FlightEvents.LoanOperation event = new FlightEvents.LoanOperation("countOverdueLoans");
+        event.begin();
+        try {
+            long count = loanDAO.countOverdueLoans();
+            event.rows = count;
+            event.succeeded = true;
+            return count;
+        } finally {
+            event.commit();
+        }
     }
 
     /**
@@ -189,4 +286,14 @@ public class LoanService {
     public double getTotalPrincipalOutstanding() {
         return getTotalOutstandingBalance();
     }
+
+    /**
+     * Mark a list operation as succeeded; the caller commits the event in a finally block,
+     * so an operation that throws is still recorded
+     */
+    private static List<Loan> succeeded(FlightEvents.LoanOperation event, List<Loan> loans) {
+        event.rows = loans.size();
+        event.succeeded = true;
+        return loans;
+    }
 }
@@ -0,0 +1,142 @@
+package com.microfinance.service;
+
+import com.microfinance.model.LoanSnapshot;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Distribution of loan amounts over logarithmic buckets on a 1-2-5 scale
+ * (100, 200, 500, 1K, 2K, 5K, ...), so that any portfolio, however large,
+ * charts as a few dozen bars.
+ */
+public final class LoanSizeHistogram {
+    /**
+     * Loans with lower <= amount < upper
+     */
+    public static final class Bucket {
+        private final double lower;
+        private final double upper;
+        private final long count;
+
+        Bucket(double lower, double upper, long count) {
+            this.lower = lower;
+            this.upper = upper;
+            this.count = count;
+        }
+
+        public double getLower() {
+            return lower;
+        }
+
+        public double getUpper() {
+            return upper;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return A short label such as "$1K-2K"
+         */
+        public String getLabel() {
+            return "$" + formatAmount(lower) + "-" + formatAmount(upper);
+        }
+    }
+
+    private static final double[] STEPS = {1, 2, 5};
+
+    private final List<Bucket> buckets;
+
+    private LoanSizeHistogram(List<Bucket> buckets) {
+        this.buckets = Collections.unmodifiableList(buckets);
+    }
+
+    /**
+     * Count the loan amounts of a snapshot in one pass (plus one pass for the range)
+     */
+    public static LoanSizeHistogram of(LoanSnapshot snapshot) {
+        double min = Double.MAX_VALUE;
+        double max = 0;
+        for (int row = 0; row < snapshot.size(); row++) {
+            double amount = snapshot.getLoanAmount(row);
+            if (amount > 0 && amount < min) {
+                min = amount;
+            }
+            max = Math.max(max, amount);
+        }
+        if (max <= 0) {
+            return new LoanSizeHistogram(new ArrayList<>());
+        }
+
+        double[] bounds = bounds(min, max);
+        long[] counts = new long[bounds.length - 1];
+        for (int row = 0; row < snapshot.size(); row++) {
+            counts[bucketOf(bounds, snapshot.getLoanAmount(row))]++;
+        }
+
+        List<Bucket> buckets = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new Bucket(bounds[i], bounds[i + 1], counts[i]));
+        }
+        return new LoanSizeHistogram(buckets);
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    /**
+     * 1-2-5 boundaries from the last one at or below min to the first one above max
+     */
+    private static double[] bounds(double min, double max) {
+        List<Double> bounds = new ArrayList<>();
+        double decade = Math.max(1, Math.pow(10, Math.floor(Math.log10(min))));
+        while (true) {
+            for (double step : STEPS) {
+                double bound = step * decade;
+                if (bound <= min && !bounds.isEmpty()) {
+                    // Only the boundary just below the smallest amount is needed
+                    bounds.clear();
+                }
+                bounds.add(bound);
+                if (bound > max) {
+                    double[] result = new double[bounds.size()];
+                    for (int i = 0; i < result.length; i++) {
+                        result[i] = bounds.get(i);
+                    }
+                    return result;
+                }
+            }
+            decade *= 10;
+        }
+    }
+
+    /**
+     * Index of the bucket holding the amount; amounts below the first bound go in the first bucket
+     */
+    private static int bucketOf(double[] bounds, double amount) {
+        int low = 0;
+        int high = bounds.length - 2;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (bounds[middle] <= amount) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private static String formatAmount(double amount) {
+        if (amount >= 1_000_000) {
+            return String.format("%.0fM", amount / 1_000_000);
+        }
+        if (amount >= 1_000) {
+            return String.format("%.0fK", amount / 1_000);
+        }
+        return String.format("%.0f", amount);
+    }
+}
@@ -0,0 +1,297 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.LoanDAO;
+import com.microfinance.dao.LoanRepository;
+import com.microfinance.model.LoanSnapshot;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.util.Log;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Portfolio figures for the report views, computed in one pass over a loan snapshot.
+ *
+ * Totals, counts by status and the overdue count are accumulated together;
+ * portfolios above PARALLEL_THRESHOLD loans are split into chunks and reduced
+ * on the common fork-join pool. The snapshot and its summary are kept until
+ * a loan repository reports a write, so every view opened in between shares one scan.
+ *
+ * Thread-safe; one instance is meant to be shared by all report views.
+ */
+public class PortfolioAnalytics {
+    private static final Log LOG = Log.getLogger(PortfolioAnalytics.class);
+
+    /**
+     * Below this many loans a sequential loop beats the fork-join overhead
+     */
+    static final int PARALLEL_THRESHOLD = 100_000;
+    private static final int CHUNK_SIZE = 32_768;
+
+    /**
+     * A snapshot with its summary as of a data version and date
+     */
+    private static final class Memo {
+        final long version;
+        final LoanSnapshot snapshot;
+        final PortfolioSummary summary;
+        final LocalDate asOf;
+
+        Memo(long version, LoanSnapshot snapshot, PortfolioSummary summary, LocalDate asOf) {
+            this.version = version;
+            this.snapshot = snapshot;
+            this.summary = summary;
+            this.asOf = asOf;
+        }
+    }
+
+    /**
+     * A loan snapshot with the summary computed from it. Row indexes returned by
+     * getTopRowsByAmount refer to this snapshot, so figures taken from one instance
+     * always agree even if the portfolio is reloaded meanwhile.
+     */
+    public static final class Portfolio {
+        private final LoanSnapshot snapshot;
+        private final PortfolioSummary summary;
+
+        Portfolio(LoanSnapshot snapshot, PortfolioSummary summary) {
+            this.snapshot = snapshot;
+            this.summary = summary;
+        }
+
+        public LoanSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        public PortfolioSummary getSummary() {
+            return summary;
+        }
+
+        /**
+         * @return Rows of getSnapshot() holding the k largest loans by amount, largest first
+         */
+        public int[] getTopRowsByAmount(int k) {
+            return topRowsByAmount(snapshot, k);
+        }
+
+        /**
+         * @return The distribution of loan amounts over logarithmic buckets
+         */
+        public LoanSizeHistogram getLoanSizeHistogram() {
+            return LoanSizeHistogram.of(snapshot);
+        }
+    }
+
+    private final LoanRepository loanDAO;
+    private volatile Memo memo;
+
+    public PortfolioAnalytics(LoanRepository loanDAO) {
+        this.loanDAO = loanDAO;
+    }
+
+    /**
+     * @return The current loan snapshot, reloaded only after a loan write
+     */
+    public LoanSnapshot getSnapshot() {
+        return current().snapshot;
+    }
+
+    /**
+     * @return The portfolio summary, recomputed only after a loan write or a change of date
+     */
+    public PortfolioSummary getSummary() {
+        return current().summary;
+    }
+
+    /**
+     * @return The current snapshot together with its summary, for views that need both
+     */
+    public Portfolio getPortfolio() {
+        Memo cached = current();
+        return new Portfolio(cached.snapshot, cached.summary);
+    }
+
+    /**
+     * Drop the memoized data, e.g. after an import by another process
+     */
+    public void invalidate() {
+        memo = null;
+    }
+
+    private Memo current() {
+        long version = LoanDAO.getDataVersion();
+        LocalDate today = LocalDate.now();
+        Memo cached = memo;
+        if (cached != null && cached.version == version && cached.asOf.equals(today)) {
+            return cached;
+        }
+        synchronized (this) {
+            cached = memo;
+            if (cached == null || cached.version != version) {
+                // The version is read before the scan, so a write during the scan forces a reload next time
+                long start = System.nanoTime();
+                LoanSnapshot snapshot = loanDAO.loadSnapshot();
+                cached = new Memo(version, snapshot, summarize(snapshot, today), today);
+                long millis = (System.nanoTime() - start) / 1_000_000;
+                LOG.info(() -> String.format("Portfolio snapshot: %d loans loaded and summarized in %d ms",
+                    snapshot.size(), millis));
+            } else if (!cached.asOf.equals(today)) {
+                // Only the overdue count depends on the date
+                cached = new Memo(version, cached.snapshot, summarize(cached.snapshot, today), today);
+            }
+            memo = cached;
+            return cached;
+        }
+    }
+
+    /**
+     * Compute the portfolio summary of a snapshot in one pass
+     *
+     * @param today Loans due before this date with a balance remaining count as overdue
+     */
+    public static PortfolioSummary summarize(LoanSnapshot snapshot, LocalDate today) {
+        long todayEpochDay = today.toEpochDay();
+        Totals totals = snapshot.size() < PARALLEL_THRESHOLD
+            ? Totals.accumulate(snapshot, 0, snapshot.size(), todayEpochDay)
+            : ForkJoinPool.commonPool().invoke(new SummaryTask(snapshot, 0, snapshot.size(), todayEpochDay));
+
+        List<String> statuses = snapshot.getStatuses();
+        Map<String, Long> countsByStatus = new HashMap<>();
+        for (int code = 0; code < statuses.size(); code++) {
+            if (totals.countsByStatus[code] > 0) {
+                countsByStatus.put(statuses.get(code), totals.countsByStatus[code]);
+            }
+        }
+        return new PortfolioSummary(countsByStatus, totals.loaned, totals.outstanding, totals.overdue);
+    }
+
+    /**
+     * Select the rows of the k largest loan amounts with a bounded min-heap:
+     * one pass, O(n log k) time and O(k) memory instead of sorting the portfolio
+     *
+     * @return Row indexes, largest amount first
+     */
+    public static int[] topRowsByAmount(LoanSnapshot snapshot, int k) {
+        int[] heap = new int[Math.max(0, Math.min(k, snapshot.size()))];
+        int size = 0;
+        for (int row = 0; row < snapshot.size() && heap.length > 0; row++) {
+            if (size < heap.length) {
+                heap[size] = row;
+                siftUp(snapshot, heap, size++);
+            } else if (snapshot.getLoanAmount(row) > snapshot.getLoanAmount(heap[0])) {
+                heap[0] = row;
+                siftDown(snapshot, heap, size);
+            }
+        }
+        // Repeatedly moving the smallest to the end leaves the array sorted largest first
+        for (int end = size - 1; end > 0; end--) {
+            int smallest = heap[0];
+            heap[0] = heap[end];
+            heap[end] = smallest;
+            siftDown(snapshot, heap, end);
+        }
+        return heap;
+    }
+
+    private static void siftUp(LoanSnapshot snapshot, int[] heap, int index) {
+        int row = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (snapshot.getLoanAmount(heap[parent]) <= snapshot.getLoanAmount(row)) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = row;
+    }
+
+    private static void siftDown(LoanSnapshot snapshot, int[] heap, int size) {
+        int row = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && snapshot.getLoanAmount(heap[child + 1]) < snapshot.getLoanAmount(heap[child])) {
+                child++;
+            }
+            if (snapshot.getLoanAmount(heap[child]) >= snapshot.getLoanAmount(row)) {
+                break;
+            }
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = row;
+    }
+
+    /**
+     * Partial sums over a range of snapshot rows
+     */
+    private static final class Totals {
+        double loaned;
+        double outstanding;
+        long overdue;
+        final long[] countsByStatus;
+
+        Totals(int statusCount) {
+            countsByStatus = new long[statusCount];
+        }
+
+        static Totals accumulate(LoanSnapshot snapshot, int from, int to, long todayEpochDay) {
+            Totals totals = new Totals(snapshot.getStatuses().size());
+            for (int row = from; row < to; row++) {
+                double balance = snapshot.getOutstandingBalance(row);
+                totals.loaned += snapshot.getLoanAmount(row);
+                totals.outstanding += balance;
+                totals.countsByStatus[snapshot.getStatusCode(row)]++;
+                if (balance > 0 && snapshot.getDueEpochDay(row) < todayEpochDay) {
+                    totals.overdue++;
+                }
+            }
+            return totals;
+        }
+
+        Totals merge(Totals other) {
+            loaned += other.loaned;
+            outstanding += other.outstanding;
+            overdue += other.overdue;
+            for (int code = 0; code < countsByStatus.length; code++) {
+                countsByStatus[code] += other.countsByStatus[code];
+            }
+            return this;
+        }
+    }
+
+    private static final class SummaryTask extends RecursiveTask<Totals> {
+        private static final long serialVersionUID = 1L;
+
+        private final LoanSnapshot snapshot;
+        private final int from;
+        private final int to;
+        private final long todayEpochDay;
+
+        SummaryTask(LoanSnapshot snapshot, int from, int to, long todayEpochDay) {
+            this.snapshot = snapshot;
+            this.from = from;
+            this.to = to;
+            this.todayEpochDay = todayEpochDay;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return Totals.accumulate(snapshot, from, to, todayEpochDay);
+            }
+            int middle = (from + to) >>> 1;
+            SummaryTask left = new SummaryTask(snapshot, from, middle, todayEpochDay);
+            left.fork();
+            Totals right = new SummaryTask(snapshot, middle, to, todayEpochDay).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.LoanDAO;
+import com.microfinance.dao.PaymentDAO;
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.Payment;
+import com.microfinance.util.AppConfig;
+import com.microfinance.util.DatabaseConnection;
+import com.microfinance.util.Log;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded, deterministic synthetic portfolio for scale testing: the same seed, sizes
+ * and date always produce the same borrowers, loans and payments.
+ *
+ * Borrower incomes are log-normal; loan sizes scale with the borrower's income;
+ * tenures cluster at 6-24 months and rates rise with tenure. Loan dates skew recent,
+ * as in a growing portfolio. Loans repay a monthly principal installment
+ * (amount / tenure) around each due date, exactly as recordPayment would have
+ * posted them; a configurable share falls behind and stops paying, and a few pay
+ * off early. Loans more than 30 days behind are marked Overdue.
+ *
+ * Rows are streamed to a PortfolioSink, so only one int per borrower is held in
+ * memory and millions of loans can be generated in a single pass.
+ */
+public class PortfolioGenerator {
+    private static final Log LOG = Log.getLogger(PortfolioGenerator.class);
+
+    private static final String[] FIRST_NAMES = {
+        "Amina", "Joseph", "Grace", "Peter", "Fatima", "David", "Mary", "John", "Aisha", "Samuel",
+        "Esther", "Daniel", "Ruth", "Moses", "Halima", "James", "Sarah", "Paul", "Zainab", "Isaac",
+        "Lucy", "Musa", "Faith", "Ibrahim", "Joyce", "Emmanuel", "Mercy", "Ali", "Agnes", "Kofi"};
+    private static final String[] LAST_NAMES = {
+        "Otieno", "Mwangi", "Okafor", "Banda", "Kamau", "Mensah", "Phiri", "Nkosi", "Achieng", "Mutua",
+        "Osei", "Bello", "Wanjiru", "Tembo", "Abubakar", "Njoroge", "Asante", "Moyo", "Chebet", "Kariuki",
+        "Adeyemi", "Owusu", "Lungu", "Kiprop", "Juma", "Ndlovu", "Okonkwo", "Boateng", "Mbeki", "Onyango"};
+    private static final String[] STREETS = {
+        "Market Road", "Station Road", "Church Street", "Mission Road", "Hospital Road", "Lake View",
+        "River Road", "School Lane", "Kenyatta Avenue", "Independence Avenue"};
+    private static final String[] TOWNS = {
+        "Kisumu", "Nakuru", "Eldoret", "Kumasi", "Tamale", "Lilongwe", "Blantyre", "Mwanza", "Arusha", "Kampala"};
+    /**
+     * Tenure in months, repeated by relative frequency
+     */
+    private static final int[] TENURES = {3, 6, 6, 6, 9, 12, 12, 12, 12, 18, 18, 24, 24, 36};
+    private static final String[] CHANNELS = {"Mobile money", "Mobile money", "Mobile money", "Agent", "Agent", "Branch"};
+
+    private static final long MIN_LOAN_CENTS = 100_00;
+    private static final long MAX_LOAN_CENTS = 100_000_00;
+    private static final int OVERDUE_GRACE_DAYS = 30;
+    private static final double EARLY_PAYOFF_SHARE = 0.03;
+    private static final int PROGRESS_INTERVAL = 100_000;
+
+    /**
+     * Row counts of a finished run
+     */
+    public static final class Summary {
+        private final int borrowers;
+        private final int loans;
+        private final long payments;
+        private final long overdueLoans;
+        private final long elapsedMillis;
+
+        Summary(int borrowers, int loans, long payments, long overdueLoans, long elapsedMillis) {
+            this.borrowers = borrowers;
+            this.loans = loans;
+            this.payments = payments;
+            this.overdueLoans = overdueLoans;
+            this.elapsedMillis = elapsedMillis;
+        }
+
+        public int getBorrowers() {
+            return borrowers;
+        }
+
+        public int getLoans() {
+            return loans;
+        }
+
+        public long getPayments() {
+            return payments;
+        }
+
+        /**
+         * @return Loans past due with a balance remaining, whatever their status
+         */
+        public long getOverdueLoans() {
+            return overdueLoans;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            long rows = borrowers + loans + payments;
+            return String.format("Generated %d borrowers, %d loans (%d overdue), %d payments in %d ms (%.0f rows/s)",
+                borrowers, loans, overdueLoans, payments, elapsedMillis,
+                elapsedMillis == 0 ? rows : rows * 1000.0 / elapsedMillis);
+        }
+    }
+
+    private final long seed;
+    private final LocalDate asOf;
+    private final int historyMonths;
+    private final double delinquentShare;
+
+    /**
+     * @param seed Random seed; equal seeds give equal portfolios
+     * @param asOf The date the portfolio is generated as of; payments and loan dates are never later
+     * @param historyMonths How far back loan dates go
+     * @param delinquentShare Share of loans, between 0 and 1, that stop paying before they are repaid
+     */
+    public PortfolioGenerator(long seed, LocalDate asOf, int historyMonths, double delinquentShare) {
+        if (historyMonths <= 0) {
+            throw new IllegalArgumentException("History must be at least one month");
+        }
+        if (delinquentShare < 0 || delinquentShare > 1) {
+            throw new IllegalArgumentException("Delinquent share must be between 0 and 1");
+        }
+        this.seed = seed;
+        this.asOf = asOf;
+        this.historyMonths = historyMonths;
+        this.delinquentShare = delinquentShare;
+    }
+
+    /**
+     * Create a generator from the generator.* configuration keys, as of today
+     * unless generator.asOf is set
+     */
+    public static PortfolioGenerator fromConfig() {
+        AppConfig config = AppConfig.get();
+        String asOf = config.getString("generator.asOf", "");
+        return new PortfolioGenerator(config.getLong("generator.seed", 42),
+            asOf.isEmpty() ? LocalDate.now() : LocalDate.parse(asOf),
+            config.getInt("generator.historyMonths", 36),
+            Double.parseDouble(config.getString("generator.delinquentShare", "0.12")));
+    }
+
+    /**
+     * Generate a portfolio into a sink; the sink is not closed
+     *
+     * @param borrowerCount Number of borrowers
+     * @param loanCount Number of loans, spread over the borrowers at random
+     * @throws IOException if the sink fails
+     */
+    public Summary generate(int borrowerCount, int loanCount, PortfolioSink sink) throws IOException {
+        if (borrowerCount <= 0 && loanCount > 0) {
+            throw new IllegalArgumentException("Loans need at least one borrower");
+        }
+        long start = System.nanoTime();
+        // Separate streams, so the borrowers do not change when only the loan count does
+        SplittableRandom borrowerRandom = new SplittableRandom(seed);
+        SplittableRandom loanRandom = new SplittableRandom(seed ^ 0x9E3779B97F4A7C15L);
+
+        int[] incomes = new int[borrowerCount];
+        for (int i = 0; i < borrowerCount; i++) {
+            Borrower borrower = nextBorrower(borrowerRandom, i + 1);
+            incomes[i] = (int) borrower.getIncome();
+            sink.borrower(borrower);
+        }
+
+        long payments = 0;
+        long overdue = 0;
+        List<Payment> history = new ArrayList<>();
+        for (int i = 0; i < loanCount; i++) {
+            history.clear();
+            int borrowerId = 1 + loanRandom.nextInt(borrowerCount);
+            Loan loan = nextLoan(loanRandom, i + 1, borrowerId, incomes[borrowerId - 1], history);
+            payments += history.size();
+            if (loan.getOutstandingBalance() > 0 && loan.getDueDate().isBefore(asOf)) {
+                overdue++;
+            }
+            sink.loan(loan, history);
+            if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                int done = i + 1;
+                LOG.info(() -> String.format("Generated %d of %d loans", done, loanCount));
+            }
+        }
+
+        Summary summary = new Summary(borrowerCount, loanCount, payments, overdue,
+            (System.nanoTime() - start) / 1_000_000);
+        LOG.info(summary::toString);
+        return summary;
+    }
+
+    private Borrower nextBorrower(SplittableRandom random, int id) {
+        String first = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)];
+        String last = LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        String email = first.toLowerCase() + "." + last.toLowerCase() + id + "@example.com";
+        // Ten-digit mobile numbers, 07xxxxxxxx
+        String phone = "0" + (700_000_000 + random.nextInt(100_000_000));
+        String address = (1 + random.nextInt(400)) + " " + STREETS[random.nextInt(STREETS.length)] + " "
+            + TOWNS[random.nextInt(TOWNS.length)];
+        // Log-normal, median 36,000, rounded to the hundred
+        double income = Math.exp(Math.log(36_000) + 0.6 * random.nextGaussian());
+        income = Math.round(Math.max(6_000, Math.min(income, 600_000)) / 100) * 100;
+        return new Borrower(id, first + " " + last, email, phone, address, income);
+    }
+
+    /**
+     * Generate one loan and fill in its payments, leaving the loan in the state those payments produce
+     */
+    private Loan nextLoan(SplittableRandom random, int id, int borrowerId, int income, List<Payment> history) {
+        int tenure = TENURES[random.nextInt(TENURES.length)];
+        // Around a fifth of annual income, in steps of 50
+        double size = income * 0.2 * Math.exp(0.6 * random.nextGaussian());
+        long amountCents = Math.max(MIN_LOAN_CENTS, Math.min(Math.round(size / 50) * 50_00, MAX_LOAN_CENTS));
+        double rate = Math.round(4 * clamp(14 + tenure / 3.0 + 4 * random.nextGaussian(), 6, 48)) / 4.0;
+
+        // Denser towards asOf: a growing portfolio has more recent loans
+        long historyDays = ChronoUnit.DAYS.between(asOf.minusMonths(historyMonths), asOf);
+        LocalDate loanDate = asOf.minusDays((long) (historyDays * (1 - Math.sqrt(random.nextDouble()))));
+
+        int due = 0;
+        while (due < tenure && !loanDate.plusMonths(due + 1).isAfter(asOf)) {
+            due++;
+        }
+        int paid = due;
+        boolean delinquent = due > 0 && random.nextDouble() < delinquentShare;
+        if (delinquent) {
+            paid = random.nextInt(due);
+        }
+        int payoffAt = !delinquent && due > 1 && random.nextDouble() < EARLY_PAYOFF_SHARE ? 1 + random.nextInt(due) : 0;
+
+        long installmentCents = amountCents / tenure;
+        long balanceCents = amountCents;
+        String channel = CHANNELS[random.nextInt(CHANNELS.length)];
+        for (int k = 1; k <= paid && balanceCents > 0; k++) {
+            boolean last = k == tenure || k == payoffAt;
+            long paymentCents = last ? balanceCents : Math.min(installmentCents, balanceCents);
+            // Most payments land within a few days either side of the due date
+            LocalDate paymentDate = loanDate.plusMonths(k).plusDays(random.nextInt(8) - 4);
+            if (paymentDate.isAfter(asOf)) {
+                paymentDate = asOf;
+            }
+            history.add(new Payment(id, paymentCents / 100.0, paymentDate, channel));
+            balanceCents -= paymentCents;
+        }
+
+        // Same bookkeeping as recordPayment: each payment moves the due date on a month,
+        // except the one that clears the balance
+        LocalDate dueDate = loanDate.plusMonths(balanceCents > 0 ? history.size() + 1 : history.size());
+        String status;
+        if (balanceCents == 0) {
+            status = "Completed";
+        } else if (dueDate.isBefore(asOf.minusDays(OVERDUE_GRACE_DAYS))) {
+            status = "Overdue";
+        } else {
+            status = "Active";
+        }
+        return new Loan(id, borrowerId, null, amountCents / 100.0, balanceCents / 100.0, status,
+            loanDate, dueDate, rate);
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(value, max));
+    }
+
+    /**
+     * Command-line entry point:
+     * PortfolioGenerator borrowers loans [csv-directory]
+     * Without a directory the portfolio is inserted into the configured database in
+     * batches; with one, CSV files and a LOAD DATA script are written there instead.
+     * Uses the batch configuration profile unless another one is set.
+     */
+    public static void main(String[] args) throws IOException {
+        AppConfig.useDefaultProfile("batch");
+        if (args.length < 2) {
+            System.err.println("Usage: PortfolioGenerator <borrowers> <loans> [csv-directory]");
+            System.exit(2);
+        }
+        int borrowers = Integer.parseInt(args[0]);
+        int loans = Integer.parseInt(args[1]);
+        PortfolioGenerator generator = fromConfig();
+        if (args.length > 2) {
+            try (CsvPortfolioSink sink = new CsvPortfolioSink(Paths.get(args[2]))) {
+                System.out.println(generator.generate(borrowers, loans, sink));
+            }
+            return;
+        }
+        RepositoryPortfolioSink sink = new RepositoryPortfolioSink(new BorrowerDAO(), new LoanDAO(),
+            new PaymentDAO(), AppConfig.get().getInt("generator.batchSize", 5000));
+        try {
+            Summary summary = generator.generate(borrowers, loans, sink);
+            sink.close();
+            System.out.println(summary);
+            System.out.println(sink);
+        } finally {
+            DatabaseConnection.closePool();
+        }
+    }
+}
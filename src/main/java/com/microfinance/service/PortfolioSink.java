@@ -0,0 +1,30 @@
+package com.microfinance.service;
+
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.Payment;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination for a generated portfolio. PortfolioGenerator passes every borrower
+ * before the first loan, and each loan together with its payment history.
+ *
+ * IDs are the generator's own, numbered from 1: borrowers by borrower ID, loans by
+ * loan ID, payments by loan ID. A sink may keep them or map them to database keys.
+ */
+public interface PortfolioSink extends AutoCloseable {
+    void borrower(Borrower borrower) throws IOException;
+
+    /**
+     * @param loan The loan in its state as of the generation date
+     * @param payments The payments already made on the loan, oldest first
+     */
+    void loan(Loan loan, List<Payment> payments) throws IOException;
+
+    /**
+     * Write anything still buffered and release the destination
+     */
+    @Override
+    void close() throws IOException;
+}
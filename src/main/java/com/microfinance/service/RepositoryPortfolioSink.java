@@ -0,0 +1,176 @@
+package com.microfinance.service;
+
+import com.microfinance.dao.BatchProgressListener;
+import com.microfinance.dao.BatchResult;
+import com.microfinance.dao.BorrowerRepository;
+import com.microfinance.dao.LoanRepository;
+import com.microfinance.dao.PaymentDAO;
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.Payment;
+import com.microfinance.util.Log;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Writes a generated portfolio through the repositories' batched bulk inserts,
+ * so it works against MySQL, the embedded H2 database or the in-memory store.
+ * Rows are buffered and written one batch (and one commit) at a time.
+ *
+ * The database assigns the IDs; generator IDs are mapped to them as rows are
+ * written, so the portfolio can be added to tables that already hold data.
+ * Payments are appended to the ledger without touching balances, since each
+ * loan already carries the balance its payments left.
+ */
+public class RepositoryPortfolioSink implements PortfolioSink {
+    private static final Log LOG = Log.getLogger(RepositoryPortfolioSink.class);
+
+    private final BorrowerRepository borrowerDAO;
+    private final LoanRepository loanDAO;
+    private final PaymentDAO paymentDAO;
+    private final int batchSize;
+
+    private final List<Borrower> borrowers = new ArrayList<>();
+    private final List<Loan> loans = new ArrayList<>();
+    private final List<List<Payment>> histories = new ArrayList<>();
+    private final List<Payment> payments = new ArrayList<>();
+    /**
+     * Database borrower ID by generator borrower ID; 0 where the insert failed
+     */
+    private int[] borrowerIds = new int[1024];
+
+    private long borrowersWritten;
+    private long loansWritten;
+    private long paymentsWritten;
+    private long rejected;
+
+    /**
+     * @param paymentDAO Where to append payment history, or null to skip it
+     * @param batchSize Rows per batch and per commit
+     */
+    public RepositoryPortfolioSink(BorrowerRepository borrowerDAO, LoanRepository loanDAO, PaymentDAO paymentDAO,
+                                   int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be greater than 0");
+        }
+        this.borrowerDAO = borrowerDAO;
+        this.loanDAO = loanDAO;
+        this.paymentDAO = paymentDAO;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void borrower(Borrower borrower) {
+        borrowers.add(borrower);
+        if (borrowers.size() >= batchSize) {
+            flushBorrowers();
+        }
+    }
+
+    @Override
+    public void loan(Loan loan, List<Payment> history) {
+        flushBorrowers();
+        int generatorBorrowerId = loan.getBorrowerId();
+        int borrowerId = generatorBorrowerId < borrowerIds.length ? borrowerIds[generatorBorrowerId] : 0;
+        if (borrowerId == 0) {
+            rejected += 1 + history.size();
+            return;
+        }
+        loan.setBorrowerId(borrowerId);
+        loans.add(loan);
+        histories.add(paymentDAO == null ? List.of() : new ArrayList<>(history));
+        if (loans.size() >= batchSize) {
+            flushLoans();
+        }
+    }
+
+    @Override
+    public void close() {
+        flushBorrowers();
+        flushLoans();
+    }
+
+    /**
+     * @return Rows written so far, including payments
+     */
+    public long getRowsWritten() {
+        return borrowersWritten + loansWritten + paymentsWritten;
+    }
+
+    /**
+     * @return Rows not written, counting the loans and payments of rejected borrowers and loans
+     */
+    public long getRejectedRows() {
+        return rejected;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Wrote %d borrowers, %d loans, %d payments; %d rows rejected",
+            borrowersWritten, loansWritten, paymentsWritten, rejected);
+    }
+
+    private void flushBorrowers() {
+        if (borrowers.isEmpty()) {
+            return;
+        }
+        int[] generatorIds = new int[borrowers.size()];
+        for (int i = 0; i < generatorIds.length; i++) {
+            generatorIds[i] = borrowers.get(i).getId();
+        }
+        BatchResult<Borrower> result = borrowerDAO.addBorrowers(borrowers, batchSize, BatchProgressListener.NONE);
+        boolean[] failed = failedRows(result, borrowers.size());
+        for (int i = 0; i < generatorIds.length; i++) {
+            if (generatorIds[i] >= borrowerIds.length) {
+                borrowerIds = Arrays.copyOf(borrowerIds, Math.max(generatorIds[i] + 1, borrowerIds.length * 2));
+            }
+            borrowerIds[generatorIds[i]] = failed[i] ? 0 : borrowers.get(i).getId();
+        }
+        borrowersWritten += result.getSuccessCount();
+        rejected += result.getFailures().size();
+        borrowers.clear();
+    }
+
+    private void flushLoans() {
+        if (loans.isEmpty()) {
+            return;
+        }
+        BatchResult<Loan> result = loanDAO.addLoans(loans, batchSize, BatchProgressListener.NONE);
+        boolean[] failed = failedRows(result, loans.size());
+        for (int i = 0; i < loans.size(); i++) {
+            if (failed[i]) {
+                rejected += histories.get(i).size();
+                continue;
+            }
+            // The generated key has replaced the generator's ID
+            for (Payment payment : histories.get(i)) {
+                payment.setLoanId(loans.get(i).getId());
+                payments.add(payment);
+            }
+        }
+        loansWritten += result.getSuccessCount();
+        rejected += result.getFailures().size();
+        loans.clear();
+        histories.clear();
+
+        if (!payments.isEmpty()) {
+            BatchResult<Payment> paid = paymentDAO.addPayments(payments, batchSize, BatchProgressListener.NONE);
+            paymentsWritten += paid.getSuccessCount();
+            rejected += paid.getFailures().size();
+            payments.clear();
+        }
+        if (result.hasFailures()) {
+            LOG.warn(result.getFailures().size() + " generated loans rejected, e.g. "
+                + result.getFailures().get(0).getMessage());
+        }
+    }
+
+    private static boolean[] failedRows(BatchResult<?> result, int size) {
+        boolean[] failed = new boolean[size];
+        for (BatchResult.Failure<?> failure : result.getFailures()) {
+            failed[failure.getIndex()] = true;
+        }
+        return failed;
+    }
+}
@@ -0,0 +1,96 @@
+package com.microfinance.ui;
+
+import javafx.animation.AnimationTimer;
+
+/**
+ * Measures UI responsiveness by watching the gaps between JavaFX pulses.
+ * A gap longer than one frame means the FX thread was busy and frames were dropped;
+ * the time beyond the frame budget is counted as stall time.
+ *
+ * Disabled unless started with -Dmicrofinance.frameMonitor=true, so it costs
+ * nothing in normal use.
+ */
+public class FrameStallMonitor {
+    public static final String ENABLED_PROPERTY = "microfinance.frameMonitor";
+    private static final long FRAME_NANOS = 1_000_000_000L / 60;
+    // A stall must be at least this long to count, to ignore pulse jitter
+    private static final long STALL_THRESHOLD_NANOS = FRAME_NANOS * 2;
+
+    private final boolean enabled;
+    private final AnimationTimer timer;
+    private long lastPulse = 0;
+    private long frames = 0;
+    private long droppedFrames = 0;
+    private long stalls = 0;
+    private long stallNanos = 0;
+    private long longestStallNanos = 0;
+
+    public FrameStallMonitor(boolean enabled) {
+        this.enabled = enabled;
+        this.timer = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                onPulse(now);
+            }
+        };
+    }
+
+    /**
+     * Create a monitor that is enabled by the microfinance.frameMonitor system property
+     */
+    public static FrameStallMonitor fromSystemProperty() {
+        return new FrameStallMonitor(Boolean.getBoolean(ENABLED_PROPERTY));
+    }
+
+    /**
+     * Start watching pulses; does nothing when disabled. Must be called on the FX thread
+     */
+    public void start() {
+        if (enabled) {
+            lastPulse = 0;
+            timer.start();
+        }
+    }
+
+    /**
+     * Stop watching pulses. Must be called on the FX thread
+     */
+    public void stop() {
+        timer.stop();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    private void onPulse(long now) {
+        if (lastPulse != 0) {
+            long gap = now - lastPulse;
+            frames++;
+            if (gap >= STALL_THRESHOLD_NANOS) {
+                stalls++;
+                droppedFrames += gap / FRAME_NANOS - 1;
+                stallNanos += gap - FRAME_NANOS;
+                longestStallNanos = Math.max(longestStallNanos, gap);
+            }
+        }
+        lastPulse = now;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * @return Total time the FX thread spent beyond the frame budget, in milliseconds
+     */
+    public double getStallMillis() {
+        return stallNanos / 1_000_000.0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ui: %d frames, %d dropped, %d stalls, %.1f ms stalled, longest %.1f ms",
+            frames, droppedFrames, stalls, getStallMillis(), longestStallNanos / 1_000_000.0);
+    }
+}
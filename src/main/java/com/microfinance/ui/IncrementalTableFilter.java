@@ -0,0 +1,266 @@
+package com.microfinance.ui;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.util.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Substring filter for a TableView over a growing row list.
+ *
+ * Each row's lower-case search key is computed once, when the row is added,
+ * instead of on every keystroke. Queries are debounced and matched off the FX
+ * thread; when a query extends the previous one (the user typed more), only the
+ * previous matches and the rows loaded since are checked. Results are applied
+ * to the view with a single setAll, and results of superseded queries are dropped.
+ *
+ * Only the rows in the source are searched. When the source is one page of a
+ * larger query, use setOnQuery (e.g. with a PagedSearch) to reload it with the
+ * rows that can match.
+ *
+ * @param <T> Row type shown in the table
+ */
+public class IncrementalTableFilter<T> {
+    private static final Duration DEBOUNCE = Duration.millis(150);
+
+    /**
+     * A row with its precomputed key. The entries array is only ever appended
+     * to in place; any other change replaces it, so a background match can read
+     * the prefix it was given without locking.
+     */
+    private static final class Entry<T> {
+        final T row;
+        final String key;
+
+        Entry(T row, String key) {
+            this.row = row;
+            this.key = key;
+        }
+    }
+
+    private final ObservableList<T> source;
+    private final Function<T, String> keyFunction;
+    private final ObservableList<T> view = FXCollections.observableArrayList();
+    private final PauseTransition debounce = new PauseTransition(DEBOUNCE);
+    private Entry<T>[] entries;
+    private int size;
+    private String query = "";
+    private String pendingQuery = "";
+    // Latest query passed to run(), which may not have been applied yet
+    private String requested = "";
+    private Consumer<String> onQuery;
+    // Indexes of the entries matching the applied query, in source order
+    private int[] matches = new int[0];
+    // Number of entries the applied matches were computed over
+    private int scanned;
+    private long generation;
+
+    /**
+     * @param source Rows to filter; may keep growing (e.g. from a PagedTableLoader)
+     * @param keyFunction Text a row is searched by; it is lower-cased once per row
+     */
+    @SuppressWarnings("unchecked")
+    public IncrementalTableFilter(ObservableList<T> source, Function<T, String> keyFunction) {
+        this.source = source;
+        this.keyFunction = keyFunction;
+        this.entries = (Entry<T>[]) new Entry<?>[Math.max(16, source.size())];
+        for (T row : source) {
+            append(row);
+        }
+        view.setAll(source);
+        scanned = size;
+        source.addListener(this::sourceChanged);
+        debounce.setOnFinished(e -> {
+            run(pendingQuery);
+            if (onQuery != null) {
+                onQuery.accept(pendingQuery);
+            }
+        });
+    }
+
+    /**
+     * @return The filtered rows, to be set as the table's items
+     */
+    public ObservableList<T> getView() {
+        return view;
+    }
+
+    /**
+     * Filter by the text of a field, as the user types
+     */
+    public void bind(ObservableValue<String> text) {
+        text.addListener((obs, oldText, newText) -> setQuery(newText));
+    }
+
+    /**
+     * @param onQuery Called on the FX thread with each debounced query (trimmed and lower-cased),
+     *                after it has started filtering the rows already in the source
+     */
+    public void setOnQuery(Consumer<String> onQuery) {
+        this.onQuery = onQuery;
+    }
+
+    /**
+     * Whether a row with the given search key is shown for a query
+     *
+     * @param key The row's lower-cased search key
+     * @param query A trimmed, lower-cased query, as passed to setOnQuery
+     */
+    public static boolean matches(String key, String query) {
+        return key.contains(query);
+    }
+
+    /**
+     * Whether every row matching the query also matches the previous one, so the
+     * query only needs to look at the previous query's matches. Empty matches everything.
+     */
+    public static boolean narrows(String previous, String query) {
+        return query.contains(previous);
+    }
+
+    /**
+     * Filter by a new query once the user pauses typing
+     * Must be called on the FX thread
+     */
+    public void setQuery(String text) {
+        pendingQuery = text == null ? "" : text.trim().toLowerCase();
+        debounce.playFromStart();
+    }
+
+    private void run(String newQuery) {
+        long current = ++generation;
+        requested = newQuery;
+        if (newQuery.isEmpty()) {
+            query = newQuery;
+            matches = new int[0];
+            scanned = size;
+            view.setAll(source);
+            return;
+        }
+
+        Entry<T>[] snapshot = entries;
+        int end = size;
+        int[] candidates = null;
+        int from = 0;
+        if (!query.isEmpty() && narrows(query, newQuery)) {
+            // Anything matching the longer query also matched the shorter one
+            candidates = matches;
+            from = scanned;
+        }
+        int[] previous = candidates;
+        int start = from;
+        // CPU-only work: use the common pool rather than queue behind database calls
+        CompletableFuture.supplyAsync(() -> match(snapshot, previous, start, end, newQuery))
+            .whenCompleteAsync((found, error) -> {
+                if (error != null || current != generation) {
+                    return;
+                }
+                query = newQuery;
+                // Rows loaded while the match ran are checked here, on the FX thread
+                int[] all = Arrays.copyOf(found, found.length + size - end);
+                int count = found.length;
+                for (int i = end; i < size; i++) {
+                    if (matches(entries[i].key, newQuery)) {
+                        all[count++] = i;
+                    }
+                }
+                matches = Arrays.copyOf(all, count);
+                scanned = size;
+                List<T> rows = new ArrayList<>(count);
+                for (int index : matches) {
+                    rows.add(entries[index].row);
+                }
+                view.setAll(rows);
+            }, Platform::runLater);
+    }
+
+    private static <T> int[] match(Entry<T>[] snapshot, int[] candidates, int from, int end, String query) {
+        int[] found = new int[Math.min(end, (candidates == null ? 0 : candidates.length) + end - from)];
+        int count = 0;
+        if (candidates != null) {
+            for (int index : candidates) {
+                if (matches(snapshot[index].key, query)) {
+                    found[count++] = index;
+                }
+            }
+        }
+        for (int i = from; i < end; i++) {
+            if (matches(snapshot[i].key, query)) {
+                found[count++] = i;
+            }
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    private void sourceChanged(ListChangeListener.Change<? extends T> change) {
+        while (change.next()) {
+            if (change.wasAdded() && !change.wasRemoved() && change.getFrom() == size) {
+                appendRows(change.getAddedSubList());
+            } else {
+                rebuild();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Index rows appended to the source and show the ones matching the applied query
+     */
+    private void appendRows(List<? extends T> added) {
+        List<T> visible = new ArrayList<>(added.size());
+        int[] grown = query.isEmpty() ? matches : Arrays.copyOf(matches, matches.length + added.size());
+        int count = matches.length;
+        for (T row : added) {
+            Entry<T> entry = append(row);
+            if (query.isEmpty() || matches(entry.key, query)) {
+                visible.add(row);
+                if (!query.isEmpty()) {
+                    grown[count++] = size - 1;
+                }
+            }
+        }
+        if (scanned == size - added.size()) {
+            scanned = size;
+            matches = query.isEmpty() ? matches : Arrays.copyOf(grown, count);
+            view.addAll(visible);
+        }
+        // Otherwise a match is running; it checks these rows when it is applied
+    }
+
+    /**
+     * Re-index every row after a change other than an append, and re-run the filter
+     */
+    @SuppressWarnings("unchecked")
+    private void rebuild() {
+        entries = (Entry<T>[]) new Entry<?>[Math.max(16, source.size())];
+        size = 0;
+        for (T row : source) {
+            append(row);
+        }
+        query = "";
+        matches = new int[0];
+        scanned = 0;
+        // The latest query, not the applied one: a match may still be running for it
+        run(requested);
+    }
+
+    private Entry<T> append(T row) {
+        if (size == entries.length) {
+            // A background match may still read the old array; it keeps its own reference
+            entries = Arrays.copyOf(entries, size * 2);
+        }
+        String key = keyFunction.apply(row);
+        Entry<T> entry = new Entry<>(row, key == null ? "" : key.toLowerCase());
+        entries[size++] = entry;
+        return entry;
+    }
+}
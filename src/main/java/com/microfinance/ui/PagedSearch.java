@@ -0,0 +1,54 @@
+package com.microfinance.ui;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Decides, for each query of an IncrementalTableFilter over a PagedTableLoader,
+ * whether the loaded rows can answer it or must be reloaded from a server search.
+ *
+ * The rows can answer a query when they are the complete result of a query it
+ * narrows (in the filter's sense): every row the filter shows for the new query
+ * is then one it showed for the loaded query. This holds as long as the server
+ * search returns at least the rows the filter's key matching would show for the
+ * same query; rows it returns beyond those are hidden by the filter.
+ */
+public class PagedSearch {
+    private final BooleanSupplier allLoaded;
+    private final Consumer<String> reload;
+    // Query the loaded rows were fetched for; empty for all rows
+    private String loadedQuery = "";
+
+    /**
+     * @param allLoaded Whether the loader has fetched the last page of the loaded query
+     * @param reload Restarts the loader on the server search for a query (all rows when empty)
+     */
+    public PagedSearch(BooleanSupplier allLoaded, Consumer<String> reload) {
+        this.allLoaded = allLoaded;
+        this.reload = reload;
+    }
+
+    /**
+     * @return The query the loaded rows were fetched for
+     */
+    public String getLoadedQuery() {
+        return loadedQuery;
+    }
+
+    /**
+     * To be passed to IncrementalTableFilter.setOnQuery
+     *
+     * @param query The trimmed, lower-cased query the filter is applying
+     */
+    public void queryChanged(String query) {
+        if (query.equals(loadedQuery)) {
+            return;
+        }
+        if (allLoaded.getAsBoolean() && IncrementalTableFilter.narrows(loadedQuery, query)) {
+            // The filter only shows rows of the loaded query, and all of those are loaded
+            return;
+        }
+        loadedQuery = query;
+        reload.accept(query);
+    }
+}
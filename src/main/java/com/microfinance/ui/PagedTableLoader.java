@@ -0,0 +1,119 @@
+package com.microfinance.ui;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableRow;
+import javafx.scene.control.TableView;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Incremental data source for a TableView backed by a keyset-paginated query.
+ * Loads the first page up front and fetches the next page whenever a row near
+ * the end of the table is rendered, so only the rows the user scrolls to are loaded.
+ * Pages are fetched off the FX thread and appended on it.
+ *
+ * @param <S> Source type returned by the page query (e.g. Loan)
+ * @param <T> Row type shown in the table (e.g. LoanRecord)
+ */
+public class PagedTableLoader<S, T> {
+    private static final int PREFETCH_ROWS = 20;
+
+    private final TableView<T> table;
+    private final ObservableList<T> rows;
+    private Function<S, CompletableFuture<List<S>>> nextPage;
+    private final Function<S, T> toRow;
+    private S lastLoaded;
+    private boolean exhausted = false;
+    private boolean loading = false;
+    // Incremented by restart(), so that pages of the previous query are dropped
+    private long generation;
+
+    /**
+     * @param table The table to page into
+     * @param rows The backing list the loaded rows are appended to
+     * @param nextPage Asynchronously fetches the page that follows the given item (null for the first page)
+     * @param toRow Converts a loaded item into a table row
+     */
+    public PagedTableLoader(TableView<T> table, ObservableList<T> rows,
+                            Function<S, CompletableFuture<List<S>>> nextPage, Function<S, T> toRow) {
+        this.table = table;
+        this.rows = rows;
+        this.nextPage = nextPage;
+        this.toRow = toRow;
+    }
+
+    /**
+     * Load the first page and start fetching further pages as the table scrolls
+     */
+    public void start() {
+        table.setPlaceholder(new Label("Loading..."));
+        table.setRowFactory(tv -> new TableRow<>() {
+            @Override
+            public void updateIndex(int index) {
+                super.updateIndex(index);
+                if (index >= 0 && index >= table.getItems().size() - PREFETCH_ROWS) {
+                    // Rows are updated during layout; defer the load until the pulse is done
+                    Platform.runLater(PagedTableLoader.this::loadNextPage);
+                }
+            }
+        });
+        loadNextPage();
+    }
+
+    /**
+     * Replace the rows with the first page of another query, e.g. a search
+     * Must be called on the FX thread
+     *
+     * @param nextPage Asynchronously fetches the page of the new query that follows the given item
+     */
+    public void restart(Function<S, CompletableFuture<List<S>>> nextPage) {
+        this.nextPage = nextPage;
+        generation++;
+        lastLoaded = null;
+        exhausted = false;
+        loading = false;
+        rows.clear();
+        table.setPlaceholder(new Label("Loading..."));
+        loadNextPage();
+    }
+
+    /**
+     * Fetch and append the next page, unless a load is running or all rows are loaded
+     * Must be called on the FX thread
+     */
+    public void loadNextPage() {
+        if (loading || exhausted) {
+            return;
+        }
+        loading = true;
+        long current = generation;
+        nextPage.apply(lastLoaded).whenCompleteAsync((page, error) -> {
+            if (current != generation) {
+                return;
+            }
+            loading = false;
+            if (error != null) {
+                exhausted = true;
+                table.setPlaceholder(new Label("Could not load data: " + error.getMessage()));
+                return;
+            }
+            if (page.isEmpty()) {
+                exhausted = true;
+                table.setPlaceholder(new Label("No content in table"));
+                return;
+            }
+            lastLoaded = page.get(page.size() - 1);
+            rows.addAll(page.stream().map(toRow).toList());
+        }, Platform::runLater);
+    }
+
+    /**
+     * @return true once the query has returned an empty page
+     */
+    public boolean isExhausted() {
+        return exhausted;
+    }
+}
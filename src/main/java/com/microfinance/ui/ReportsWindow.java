@@ -1,8 +1,19 @@
 package com.microfinance.ui;
 
-import com.microfinance.dao.LoanDAO;
-import com.microfinance.model.Loan;
+import com.microfinance.model.LoanSnapshot;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.service.AsyncLoanService;
+import com.microfinance.service.LoanSizeHistogram;
+import com.microfinance.service.PortfolioAnalytics;
+import com.microfinance.util.FlightEvents;
+import com.microfinance.util.Log;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.chart.PieChart;
 import javafx.scene.chart.BarChart;
@@ -14,20 +25,57 @@ import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.VBox;
 import javafx.stage.Stage;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
 
 /**
  * Beautiful Reports Window with Charts and Visualizations
+ *
+ * The window opens at once with placeholder tabs; each tab loads its data in
+ * the background and is built the first time it is selected.
  */
 public class ReportsWindow {
+    private static final Log LOG = Log.getLogger(ReportsWindow.class);
+    private static final int TOP_LOANS = 10;
+
     private Stage stage;
-    private List<Loan> allLoans;
+    private final AsyncLoanService asyncService;
+    private final PortfolioAnalytics analytics;
 
-    public ReportsWindow(LoanDAO loanDAO) {
-        this.allLoans = loanDAO.getAllLoans();
+    /**
+     * Everything the charts tab draws from, all computed from one snapshot
+     */
+    private static final class ChartData {
+        final PortfolioSummary portfolio;
+        final LoanSnapshot loans;
+        final int[] topRows;
+        final LoanSizeHistogram histogram;
+
+        ChartData(PortfolioAnalytics.Portfolio portfolio) {
+            this.portfolio = portfolio.getSummary();
+            this.loans = portfolio.getSnapshot();
+            this.topRows = portfolio.getTopRowsByAmount(TOP_LOANS);
+            this.histogram = portfolio.getLoanSizeHistogram();
+        }
+    }
+
+    /**
+     * @param asyncService Runs the data loads; its shared PortfolioAnalytics is reused until a loan write
+     */
+    public ReportsWindow(AsyncLoanService asyncService) {
+        this.asyncService = asyncService;
+        this.analytics = asyncService.getPortfolioAnalytics();
     }
 
     public void show() {
+        long start = System.nanoTime();
+        FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Reports window");
+        rebuild.begin();
         stage = new Stage();
         stage.setTitle("Microfinance Loan Tracker - Reports & Analytics");
         stage.setWidth(1400);
@@ -52,6 +100,8 @@ public class ReportsWindow {
         Scene scene = new Scene(root);
         stage.setScene(scene);
         stage.show();
+        rebuild.commit();
+        LOG.debug(() -> String.format("Reports window shown in %d ms", (System.nanoTime() - start) / 1_000_000));
     }
 
     private VBox createHeader() {
@@ -74,44 +124,95 @@ public class ReportsWindow {
         tabPane.setTabClosingPolicy(TabPane.TabClosingPolicy.UNAVAILABLE);
 
         // Overview Tab
-        Tab overviewTab = new Tab("📈 Overview", createOverviewTab());
+        Tab overviewTab = new Tab("📈 Overview");
         overviewTab.setStyle("-fx-font-size: 12;");
 
         // Charts Tab
-        Tab chartsTab = new Tab("📉 Charts & Analysis", createChartsTab());
+        Tab chartsTab = new Tab("📉 Charts & Analysis");
         chartsTab.setStyle("-fx-font-size: 12;");
 
         // Loan Details Tab
-        Tab detailsTab = new Tab("📋 Loan Details", createDetailsTab());
+        Tab detailsTab = new Tab("📋 Loan Details");
         detailsTab.setStyle("-fx-font-size: 12;");
 
         // Processing Info Tab
-        Tab processingTab = new Tab("⚙️ Loan Processing Info", createProcessingInfoTab());
+        Tab processingTab = new Tab("⚙️ Loan Processing Info");
         processingTab.setStyle("-fx-font-size: 12;");
 
         tabPane.getTabs().addAll(overviewTab, chartsTab, detailsTab, processingTab);
+
+        buildOnFirstSelection(overviewTab, asyncService::getReportSummary, this::createOverviewTab);
+        buildOnFirstSelection(chartsTab, () -> asyncService.supply(() -> new ChartData(analytics.getPortfolio())),
+            this::createChartsTab);
+        buildOnFirstSelection(detailsTab, asyncService::getLoanSnapshot, this::createDetailsTab);
+        buildOnFirstSelection(processingTab, () -> CompletableFuture.completedFuture(null),
+            data -> createProcessingInfoTab());
         return tabPane;
     }
 
-    private VBox createOverviewTab() {
+    /**
+     * Show a placeholder in the tab until it is first selected, then load its data
+     * in the background and build its content on the FX thread
+     */
+    private <T> void buildOnFirstSelection(Tab tab, Supplier<CompletableFuture<T>> load, Function<T, Node> build) {
+        Label placeholder = new Label("Loading...");
+        placeholder.setStyle("-fx-font-size: 14; -fx-text-fill: #7f8c8d; -fx-padding: 20;");
+        tab.setContent(placeholder);
+        Runnable startLoad = () -> load.get().whenCompleteAsync((data, error) -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                LOG.error("Could not load report tab " + tab.getText() + ": " + cause.getMessage(), cause);
+                placeholder.setText("Could not load report: " + cause.getMessage());
+                return;
+            }
+            long start = System.nanoTime();
+            FlightEvents.ViewRebuild rebuild = new FlightEvents.ViewRebuild("Reports tab: " + tab.getText());
+            rebuild.begin();
+            tab.setContent(build.apply(data));
+            if (data instanceof LoanSnapshot) {
+                rebuild.rows = ((LoanSnapshot) data).size();
+            } else if (data instanceof ChartData) {
+                rebuild.rows = ((ChartData) data).loans.size();
+            }
+            rebuild.commit();
+            LOG.debug(() -> String.format("Report tab %s built in %d ms", tab.getText(),
+                (System.nanoTime() - start) / 1_000_000));
+        }, Platform::runLater);
+
+        if (tab.isSelected()) {
+            startLoad.run();
+            return;
+        }
+        tab.selectedProperty().addListener(new ChangeListener<>() {
+            @Override
+            public void changed(ObservableValue<? extends Boolean> obs, Boolean wasSelected, Boolean selected) {
+                if (selected) {
+                    tab.selectedProperty().removeListener(this);
+                    startLoad.run();
+                }
+            }
+        });
+    }
+
+    private VBox createOverviewTab(PortfolioSummary portfolio) {
         VBox vbox = new VBox(15);
         vbox.setPadding(new Insets(20));
         vbox.setStyle("-fx-background-color: #ffffff;");
 
-        // Calculate metrics
-        double totalLoaned = allLoans.stream().mapToDouble(Loan::getLoanAmount).sum();
-        double totalOutstanding = allLoans.stream().mapToDouble(Loan::getOutstandingBalance).sum();
-        double totalRepaid = totalLoaned - totalOutstanding;
-        long activeLoans = allLoans.stream().filter(l -> "Active".equals(l.getStatus())).count();
-        long completedLoans = allLoans.stream().filter(l -> "Completed".equals(l.getStatus())).count();
-        double averageLoanAmount = allLoans.isEmpty() ? 0 : totalLoaned / allLoans.size();
+        // Metrics from the shared portfolio summary
+        double totalLoaned = portfolio.getTotalLoanAmount();
+        double totalOutstanding = portfolio.getTotalOutstandingBalance();
+        double totalRepaid = portfolio.getTotalRepaid();
+        long activeLoans = portfolio.getLoanCount("Active");
+        long completedLoans = portfolio.getLoanCount("Completed");
+        double averageLoanAmount = portfolio.getAverageLoanAmount();
 
         // Metrics Grid
         HBox metricsBox = createMetricsGrid(totalLoaned, totalOutstanding, totalRepaid, activeLoans, completedLoans, averageLoanAmount);
         vbox.getChildren().add(metricsBox);
 
         // Summary Section
-        VBox summaryBox = createSummarySection(totalLoaned, totalOutstanding, totalRepaid);
+        VBox summaryBox = createSummarySection(portfolio, totalLoaned, totalOutstanding, totalRepaid);
         vbox.getChildren().add(summaryBox);
 
         return vbox;
@@ -151,7 +252,7 @@ public class ReportsWindow {
         return card;
     }
 
-    private VBox createSummarySection(double totalLoaned, double totalOutstanding, double totalRepaid) {
+    private VBox createSummarySection(PortfolioSummary portfolio, double totalLoaned, double totalOutstanding, double totalRepaid) {
         VBox summary = new VBox(10);
         summary.setPadding(new Insets(15));
         summary.setStyle("-fx-border-color: #bdc3c7; -fx-border-width: 1; -fx-background-color: #ecf0f1; " +
@@ -160,8 +261,8 @@ public class ReportsWindow {
         Label titleLabel = new Label("📊 Portfolio Summary");
         titleLabel.setStyle("-fx-font-size: 16; -fx-font-weight: bold;");
 
-        double repaymentRate = totalLoaned == 0 ? 0 : (totalRepaid / totalLoaned) * 100;
-        double outstandingRate = totalLoaned == 0 ? 0 : (totalOutstanding / totalLoaned) * 100;
+        double repaymentRate = portfolio.getRepaymentRate();
+        double outstandingRate = portfolio.getOutstandingRate();
 
         TextArea summaryText = new TextArea();
         summaryText.setWrapText(true);
@@ -186,12 +287,12 @@ public class ReportsWindow {
             totalLoaned,
             totalOutstanding, outstandingRate,
             totalRepaid, repaymentRate,
-            allLoans.stream().filter(l -> "Active".equals(l.getStatus())).count(),
-            allLoans.stream().filter(l -> "Completed".equals(l.getStatus())).count(),
-            allLoans.size(),
+            portfolio.getLoanCount("Active"),
+            portfolio.getLoanCount("Completed"),
+            portfolio.getTotalLoanCount(),
             repaymentRate,
             outstandingRate,
-            allLoans.isEmpty() ? 0 : totalLoaned / allLoans.size()
+            portfolio.getAverageLoanAmount()
         );
 
         summaryText.setText(summaryContent);
@@ -199,7 +300,7 @@ public class ReportsWindow {
         return summary;
     }
 
-    private VBox createChartsTab() {
+    private VBox createChartsTab(ChartData data) {
         VBox vbox = new VBox(15);
         vbox.setPadding(new Insets(15));
         vbox.setStyle("-fx-background-color: #ffffff;");
@@ -208,7 +309,7 @@ public class ReportsWindow {
         chartBox.setPadding(new Insets(10));
 
         // Pie Chart - Loan Status Distribution
-        PieChart statusPie = createLoanStatusPieChart();
+        PieChart statusPie = createLoanStatusPieChart(data.portfolio);
         VBox pieContainer = new VBox(10);
         pieContainer.setPadding(new Insets(10));
         pieContainer.setStyle("-fx-border-color: #bdc3c7; -fx-border-width: 1; -fx-border-radius: 8;");
@@ -217,7 +318,7 @@ public class ReportsWindow {
         pieContainer.getChildren().addAll(pieTitle, statusPie);
 
         // Pie Chart - Outstanding vs Repaid
-        PieChart balancePie = createBalancePieChart();
+        PieChart balancePie = createBalancePieChart(data.portfolio);
         VBox balanceContainer = new VBox(10);
         balanceContainer.setPadding(new Insets(10));
         balanceContainer.setStyle("-fx-border-color: #bdc3c7; -fx-border-width: 1; -fx-border-radius: 8;");
@@ -229,26 +330,39 @@ public class ReportsWindow {
         vbox.getChildren().add(chartBox);
 
         // Bar Chart - Loan Amounts
-        BarChart<String, Number> barChart = createLoanBarChart();
+        BarChart<String, Number> barChart = createLoanBarChart(data.loans, data.topRows);
         VBox barContainer = new VBox(10);
         barContainer.setPadding(new Insets(10));
         barContainer.setStyle("-fx-border-color: #bdc3c7; -fx-border-width: 1; -fx-border-radius: 8;");
         Label barTitle = new Label("Top Loans by Amount");
         barTitle.setStyle("-fx-font-size: 14; -fx-font-weight: bold;");
         barContainer.getChildren().addAll(barTitle, barChart);
-        VBox.setVgrow(barContainer, javafx.scene.layout.Priority.ALWAYS);
 
-        vbox.getChildren().add(barContainer);
+        // Bar Chart - Loan Size Distribution
+        BarChart<String, Number> histogramChart = createLoanSizeHistogramChart(data.histogram);
+        VBox histogramContainer = new VBox(10);
+        histogramContainer.setPadding(new Insets(10));
+        histogramContainer.setStyle("-fx-border-color: #bdc3c7; -fx-border-width: 1; -fx-border-radius: 8;");
+        Label histogramTitle = new Label("Loan Size Distribution");
+        histogramTitle.setStyle("-fx-font-size: 14; -fx-font-weight: bold;");
+        histogramContainer.getChildren().addAll(histogramTitle, histogramChart);
+
+        HBox barBox = new HBox(15, barContainer, histogramContainer);
+        HBox.setHgrow(barContainer, javafx.scene.layout.Priority.ALWAYS);
+        HBox.setHgrow(histogramContainer, javafx.scene.layout.Priority.ALWAYS);
+        VBox.setVgrow(barBox, javafx.scene.layout.Priority.ALWAYS);
+
+        vbox.getChildren().add(barBox);
         return vbox;
     }
 
-    private PieChart createLoanStatusPieChart() {
+    private PieChart createLoanStatusPieChart(PortfolioSummary portfolio) {
         PieChart pieChart = new PieChart();
         pieChart.setTitle("Loan Status Distribution");
         pieChart.setLegendSide(javafx.geometry.Side.BOTTOM);
 
-        long active = allLoans.stream().filter(l -> "Active".equals(l.getStatus())).count();
-        long completed = allLoans.stream().filter(l -> "Completed".equals(l.getStatus())).count();
+        long active = portfolio.getLoanCount("Active");
+        long completed = portfolio.getLoanCount("Completed");
 
         PieChart.Data activeData = new PieChart.Data("Active", active);
         PieChart.Data completedData = new PieChart.Data("Completed", completed);
@@ -271,14 +385,13 @@ public class ReportsWindow {
         return pieChart;
     }
 
-    private PieChart createBalancePieChart() {
+    private PieChart createBalancePieChart(PortfolioSummary portfolio) {
         PieChart pieChart = new PieChart();
         pieChart.setTitle("Outstanding vs Repaid");
         pieChart.setLegendSide(javafx.geometry.Side.BOTTOM);
 
-        double totalLoaned = allLoans.stream().mapToDouble(Loan::getLoanAmount).sum();
-        double totalOutstanding = allLoans.stream().mapToDouble(Loan::getOutstandingBalance).sum();
-        double totalRepaid = totalLoaned - totalOutstanding;
+        double totalOutstanding = portfolio.getTotalOutstandingBalance();
+        double totalRepaid = portfolio.getTotalRepaid();
 
         PieChart.Data outstandingData = new PieChart.Data("Outstanding", totalOutstanding);
         PieChart.Data repaidData = new PieChart.Data("Repaid", totalRepaid);
@@ -301,7 +414,7 @@ public class ReportsWindow {
         return pieChart;
     }
 
-    private BarChart<String, Number> createLoanBarChart() {
+    private BarChart<String, Number> createLoanBarChart(LoanSnapshot loans, int[] topRows) {
         CategoryAxis xAxis = new CategoryAxis();
         NumberAxis yAxis = new NumberAxis();
         xAxis.setLabel("Loan ID");
@@ -314,16 +427,37 @@ public class ReportsWindow {
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Loan Amount");
 
-        // Add top 10 loans
-        allLoans.stream().limit(10).forEach(loan ->
-            series.getData().add(new XYChart.Data<>("L" + loan.getId(), loan.getLoanAmount()))
-        );
+        // Largest loans by amount, selected without sorting the portfolio
+        for (int row : topRows) {
+            series.getData().add(new XYChart.Data<>("L" + loans.getId(row), loans.getLoanAmount(row)));
+        }
+
+        barChart.getData().add(series);
+        return barChart;
+    }
+
+    private BarChart<String, Number> createLoanSizeHistogramChart(LoanSizeHistogram histogram) {
+        CategoryAxis xAxis = new CategoryAxis();
+        NumberAxis yAxis = new NumberAxis();
+        xAxis.setLabel("Loan Amount");
+        yAxis.setLabel("Loans");
+
+        BarChart<String, Number> barChart = new BarChart<>(xAxis, yAxis);
+        barChart.setTitle("Loans by Size");
+        barChart.setLegendVisible(false);
+        barChart.setCategoryGap(2);
+
+        XYChart.Series<String, Number> series = new XYChart.Series<>();
+        series.setName("Loans");
+        for (LoanSizeHistogram.Bucket bucket : histogram.getBuckets()) {
+            series.getData().add(new XYChart.Data<>(bucket.getLabel(), bucket.getCount()));
+        }
 
         barChart.getData().add(series);
         return barChart;
     }
 
-    private VBox createDetailsTab() {
+    private VBox createDetailsTab(LoanSnapshot loans) {
         VBox vbox = new VBox(10);
         vbox.setPadding(new Insets(15));
         vbox.setStyle("-fx-background-color: #ffffff;");
@@ -331,42 +465,26 @@ public class ReportsWindow {
         Label titleLabel = new Label("📋 Detailed Loan Information");
         titleLabel.setStyle("-fx-font-size: 16; -fx-font-weight: bold;");
 
-        TableView<LoanDetailRecord> table = new TableView<>();
-
-        TableColumn<LoanDetailRecord, String> loanIdCol = new TableColumn<>("Loan ID");
-        loanIdCol.setCellValueFactory(p -> p.getValue().loanIdProperty());
-        loanIdCol.setPrefWidth(60);
-
-        TableColumn<LoanDetailRecord, String> borrowerCol = new TableColumn<>("Borrower");
-        borrowerCol.setCellValueFactory(p -> p.getValue().borrowerProperty());
-        borrowerCol.setPrefWidth(100);
-
-        TableColumn<LoanDetailRecord, String> amountCol = new TableColumn<>("Amount");
-        amountCol.setCellValueFactory(p -> p.getValue().amountProperty());
-        amountCol.setPrefWidth(100);
-
-        TableColumn<LoanDetailRecord, String> outstandingCol = new TableColumn<>("Outstanding");
-        outstandingCol.setCellValueFactory(p -> p.getValue().outstandingProperty());
-        outstandingCol.setPrefWidth(100);
-
-        TableColumn<LoanDetailRecord, String> interestCol = new TableColumn<>("Interest Rate");
-        interestCol.setCellValueFactory(p -> p.getValue().interestRateProperty());
-        interestCol.setPrefWidth(80);
+        // Rows are snapshot row numbers; cells read and format the raw values only when shown
+        TableView<Integer> table = new TableView<>();
 
-        TableColumn<LoanDetailRecord, String> statusCol = new TableColumn<>("Status");
-        statusCol.setCellValueFactory(p -> p.getValue().statusProperty());
-        statusCol.setPrefWidth(80);
+        TableColumn<Integer, Number> loanIdCol = column("Loan ID", 60, loans::getId);
+        TableColumn<Integer, String> borrowerCol = column("Borrower", 100, loans::getBorrowerName);
+        TableColumn<Integer, Number> amountCol = column("Amount", 100, loans::getLoanAmount);
+        amountCol.setCellFactory(c -> formattedCell("$%.2f"));
+        TableColumn<Integer, Number> outstandingCol = column("Outstanding", 100, loans::getOutstandingBalance);
+        outstandingCol.setCellFactory(c -> formattedCell("$%.2f"));
+        TableColumn<Integer, Number> interestCol = column("Interest Rate", 80, loans::getInterestRate);
+        interestCol.setCellFactory(c -> formattedCell("%.2f%%"));
+        TableColumn<Integer, String> statusCol = column("Status", 80, loans::getStatus);
 
-        @SuppressWarnings("unchecked")
-        TableColumn<LoanDetailRecord, ?>[] columns = new TableColumn[] {
-            loanIdCol, borrowerCol, amountCol, outstandingCol, interestCol, statusCol
-        };
-        table.getColumns().addAll(columns);
+        table.getColumns().addAll(List.of(loanIdCol, borrowerCol, amountCol, outstandingCol, interestCol, statusCol));
 
-        // Add data
-        for (Loan loan : allLoans) {
-            table.getItems().add(new LoanDetailRecord(loan));
+        List<Integer> rows = new ArrayList<>(loans.size());
+        for (int row = 0; row < loans.size(); row++) {
+            rows.add(row);
         }
+        table.setItems(FXCollections.observableList(rows));
 
         VBox.setVgrow(table, javafx.scene.layout.Priority.ALWAYS);
         vbox.getChildren().addAll(titleLabel, table);
@@ -374,6 +492,23 @@ public class ReportsWindow {
         return vbox;
     }
 
+    private static <V> TableColumn<Integer, V> column(String title, double width, IntFunction<V> value) {
+        TableColumn<Integer, V> column = new TableColumn<>(title);
+        column.setCellValueFactory(p -> new ReadOnlyObjectWrapper<>(value.apply(p.getValue())));
+        column.setPrefWidth(width);
+        return column;
+    }
+
+    private static TableCell<Integer, Number> formattedCell(String format) {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : String.format(format, item.doubleValue()));
+            }
+        };
+    }
+
     private VBox createProcessingInfoTab() {
         VBox vbox = new VBox(15);
         vbox.setPadding(new Insets(20));
@@ -592,32 +727,4 @@ public class ReportsWindow {
         hbox.getChildren().addAll(iconLabel, textLabel);
         return hbox;
     }
-
-    /**
-     * Inner class for loan detail table records
-     */
-    public static class LoanDetailRecord {
-        private final javafx.beans.property.SimpleStringProperty loanId;
-        private final javafx.beans.property.SimpleStringProperty borrower;
-        private final javafx.beans.property.SimpleStringProperty amount;
-        private final javafx.beans.property.SimpleStringProperty outstanding;
-        private final javafx.beans.property.SimpleStringProperty interestRate;
-        private final javafx.beans.property.SimpleStringProperty status;
-
-        public LoanDetailRecord(Loan loan) {
-            this.loanId = new javafx.beans.property.SimpleStringProperty(String.valueOf(loan.getId()));
-            this.borrower = new javafx.beans.property.SimpleStringProperty(loan.getBorrowerName());
-            this.amount = new javafx.beans.property.SimpleStringProperty(String.format("$%.2f", loan.getLoanAmount()));
-            this.outstanding = new javafx.beans.property.SimpleStringProperty(String.format("$%.2f", loan.getOutstandingBalance()));
-            this.interestRate = new javafx.beans.property.SimpleStringProperty(String.format("%.2f%%", loan.getInterestRate()));
-            this.status = new javafx.beans.property.SimpleStringProperty(loan.getStatus());
-        }
-
-        public javafx.beans.property.SimpleStringProperty loanIdProperty() { return loanId; }
-        public javafx.beans.property.SimpleStringProperty borrowerProperty() { return borrower; }
-        public javafx.beans.property.SimpleStringProperty amountProperty() { return amount; }
-        public javafx.beans.property.SimpleStringProperty outstandingProperty() { return outstanding; }
-        public javafx.beans.property.SimpleStringProperty interestRateProperty() { return interestRate; }
-        public javafx.beans.property.SimpleStringProperty statusProperty() { return status; }
-    }
 }
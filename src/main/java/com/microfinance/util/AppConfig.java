@@ -0,0 +1,160 @@
+package com.microfinance.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Application configuration with named profiles (desktop, batch, server).
+ *
+ * A key is resolved from, in order: the system property "microfinance.<key>",
+ * the environment variable "MICROFINANCE_<KEY>" (dots become underscores),
+ * an external properties file, then the bundled microfinance.properties.
+ * Within a file, "<profile>.<key>" takes precedence over "<key>".
+ */
+public final class AppConfig {
+    private static final String RESOURCE = "/microfinance.properties";
+    private static final String PREFIX = "microfinance.";
+    private static final String DEFAULT_PROFILE = "desktop";
+
+    private static volatile AppConfig instance;
+
+    private final Properties file;
+    private final String profile;
+
+    private AppConfig(Properties file, String profile) {
+        this.file = file;
+        this.profile = profile;
+    }
+
+    /**
+     * @return The configuration, loaded on first use
+     */
+    public static AppConfig get() {
+        AppConfig config = instance;
+        if (config == null) {
+            synchronized (AppConfig.class) {
+                config = instance;
+                if (config == null) {
+                    config = load(null);
+                    instance = config;
+                }
+            }
+        }
+        return config;
+    }
+
+    /**
+     * Use the given profile unless one is set by a system property or environment
+     * variable. Must be called before the configuration is first used, e.g. at the
+     * top of a command-line main method.
+     */
+    public static synchronized void useDefaultProfile(String profile) {
+        if (instance == null) {
+            instance = load(profile);
+        }
+    }
+
+    private static AppConfig load(String defaultProfile) {
+        Properties properties = new Properties();
+        try (InputStream in = AppConfig.class.getResourceAsStream(RESOURCE)) {
+            if (in != null) {
+                properties.load(in);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read " + RESOURCE, e);
+        }
+
+        String external = System.getProperty(PREFIX + "config", System.getenv("MICROFINANCE_CONFIG"));
+        Path path = Paths.get(external != null ? external : "microfinance.properties");
+        if (Files.isRegularFile(path)) {
+            try (Reader in = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                Properties overrides = new Properties();
+                overrides.load(in);
+                properties.putAll(overrides);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read " + path, e);
+            }
+        } else if (external != null) {
+            throw new IllegalStateException("Configuration file not found: " + path);
+        }
+
+        String profile = override("profile");
+        if (profile == null) {
+            profile = defaultProfile != null ? defaultProfile : properties.getProperty("profile", DEFAULT_PROFILE);
+        }
+        return new AppConfig(properties, profile.trim().toLowerCase());
+    }
+
+    private static String override(String key) {
+        String value = System.getProperty(PREFIX + key);
+        if (value == null) {
+            value = System.getenv("MICROFINANCE_" + key.toUpperCase().replace('.', '_'));
+        }
+        return value;
+    }
+
+    public String getProfile() {
+        return profile;
+    }
+
+    /**
+     * @return The effective value of a key, or null if it is not set anywhere
+     */
+    public String getString(String key) {
+        String value = override(key);
+        if (value == null) {
+            value = file.getProperty(profile + "." + key, file.getProperty(key));
+        }
+        return value == null ? null : value.trim();
+    }
+
+    public String getString(String key, String defaultValue) {
+        String value = getString(key);
+        return value != null ? value : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return (int) getLong(key, defaultValue);
+    }
+
+    public long getLong(String key, long defaultValue) {
+        String value = getString(key);
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number for " + key + ": " + value);
+        }
+    }
+
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key);
+        return value == null || value.isEmpty() ? defaultValue : Boolean.parseBoolean(value);
+    }
+
+    /**
+     * Get the effective values of every key under a prefix, with the prefix removed
+     * (e.g. "driver." for the JDBC driver properties)
+     */
+    public Map<String, String> getSection(String prefix) {
+        Map<String, String> section = new TreeMap<>();
+        String profilePrefix = profile + "." + prefix;
+        for (String name : file.stringPropertyNames()) {
+            String key = name.startsWith(profilePrefix) ? name.substring(profile.length() + 1) : name;
+            if (key.startsWith(prefix)) {
+                section.put(key.substring(prefix.length()), getString(key));
+            }
+        }
+        return section;
+    }
+}
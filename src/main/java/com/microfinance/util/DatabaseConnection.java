@@ -4,101 +4,162 @@ import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Map;
 
 /**
  * Database connection utility using HikariCP connection pooling
+ *
+ * The pool is created on first use rather than when the class loads, because
+ * creating it opens a connection and blocks until MySQL answers or the connection
+ * timeout expires. Call warmUp() from a background thread to pay that cost early.
  */
 public class DatabaseConnection {
-    private static HikariDataSource dataSource;
-    private static boolean connectionFailed = false;
+    private static final Log LOG = Log.getLogger(DatabaseConnection.class);
+    private static volatile HikariDataSource dataSource;
+    private static volatile boolean connectionFailed = false;
 
-    static {
+    /**
+     * Create the connection pool if it does not exist yet. A previous failed
+     * attempt is retried. Blocks while the first connection is opened
+     *
+     * @return true if the pool is available
+     */
+    public static synchronized boolean initialize() {
+        if (dataSource != null) {
+            return true;
+        }
         try {
             initializeDataSource();
+            connectionFailed = false;
+            return true;
         } catch (Exception e) {
-            System.err.println("[ERROR] Warning: Could not initialize database connection pool: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Could not initialize database connection pool: " + e.getMessage(), e);
             connectionFailed = true;
+            return false;
         }
     }
 
     /**
-     * Initialize the HikariCP data source with MySQL configuration
+     * Create the pool if needed and validate one connection, so the first query
+     * does not pay for the handshake. Blocks; call it off the FX thread
+     *
+     * @return true if the database is reachable
+     */
+    public static boolean warmUp() {
+        long start = System.nanoTime();
+        boolean available = testConnection();
+        LOG.info(() -> String.format("Connection pool warm-up %s in %d ms", available ? "succeeded" : "failed",
+            (System.nanoTime() - start) / 1_000_000));
+        return available;
+    }
+
+    /**
+     * Initialize the HikariCP data source from the active configuration profile
      */
     private static void initializeDataSource() {
+        AppConfig settings = AppConfig.get();
         HikariConfig config = new HikariConfig();
-        
-        // MySQL connection details - UPDATE THESE WITH YOUR SETTINGS
-        config.setJdbcUrl("jdbc:mysql://localhost:3306/microfinance_db?useSSL=false&serverTimezone=UTC&allowPublicKeyRetrieval=true");
-        config.setUsername("root");  // Change to your MySQL username
-        config.setPassword("John@3007");  // Change to your MySQL password
-        
-        System.out.println("[DEBUG] Initializing database connection pool...");
-        System.out.println("[DEBUG] JDBC URL: " + config.getJdbcUrl());
-        System.out.println("[DEBUG] Username: " + config.getUsername());
-        
+
+        // Connection details - set db.url, db.username and db.password in microfinance.properties
+        // or through MICROFINANCE_DB_* environment variables
+        config.setJdbcUrl(settings.getString("db.url"));
+        config.setUsername(settings.getString("db.username"));
+        config.setPassword(settings.getString("db.password"));
+        config.setDriverClassName(settings.getString("db.driverClassName", "com.mysql.cj.jdbc.Driver"));
+
         // Connection pool settings
-        config.setMaximumPoolSize(10);
-        config.setMinimumIdle(2);
-        config.setConnectionTimeout(20000);
-        config.setIdleTimeout(300000);
-        config.setMaxLifetime(1200000);
-        config.setLeakDetectionThreshold(15000);
-        
-        // Driver class
-        config.setDriverClassName("com.mysql.cj.jdbc.Driver");
-        
-        dataSource = new HikariDataSource(config);
-        System.out.println("[SUCCESS] Database connection pool initialized successfully");
+        config.setPoolName("microfinance-" + settings.getProfile());
+        config.setMaximumPoolSize(settings.getInt("pool.maximumPoolSize", 10));
+        config.setMinimumIdle(settings.getInt("pool.minimumIdle", 2));
+        config.setConnectionTimeout(settings.getLong("pool.connectionTimeoutMs", 20000));
+        config.setIdleTimeout(settings.getLong("pool.idleTimeoutMs", 300000));
+        config.setMaxLifetime(settings.getLong("pool.maxLifetimeMs", 1200000));
+        config.setLeakDetectionThreshold(settings.getLong("pool.leakDetectionThresholdMs", 15000));
+
+        // Driver tuning: statement caching, server-side prepares, batch rewriting, metadata caching
+        Map<String, String> driverProperties = settings.getSection("driver.");
+        driverProperties.forEach(config::addDataSourceProperty);
+
+        LOG.info(() -> "Database profile '" + settings.getProfile() + "': url=" + config.getJdbcUrl()
+            + ", user=" + config.getUsername() + ", password=" + mask(config.getPassword())
+            + ", pool=" + config.getMinimumIdle() + ".." + config.getMaximumPoolSize()
+            + ", connectionTimeout=" + config.getConnectionTimeout() + "ms"
+            + ", idleTimeout=" + config.getIdleTimeout() + "ms"
+            + ", maxLifetime=" + config.getMaxLifetime() + "ms"
+            + ", leakDetection=" + config.getLeakDetectionThreshold() + "ms"
+            + ", driver=" + driverProperties);
+
+        PoolMetrics.track(config);
+        HikariDataSource pool = new HikariDataSource(config);
+        PoolMetrics.registerGauges(pool);
+        dataSource = pool;
+        LOG.info("Database connection pool initialized");
+    }
+
+    private static String mask(String secret) {
+        return secret == null || secret.isEmpty() ? "(none)" : "****";
     }
 
     /**
      * Get a connection from the pool
+     * The wait is recorded as a ConnectionCheckout flight event, and while a recording
+     * has SQL events enabled the connection is wrapped to record each statement
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
-        if (dataSource == null) {
-            System.err.println("[ERROR] DataSource is null - connection pool not initialized");
+        // After a failed attempt only initialize() retries, so offline calls fail fast
+        if (dataSource == null && !connectionFailed) {
+            initialize();
+        }
+        HikariDataSource source = dataSource;
+        if (source == null) {
+            LOG.error("DataSource is null - connection pool not initialized");
             throw new SQLException("DataSource not initialized. Make sure MySQL is running and database.sql has been executed.");
         }
-        System.out.println("[DEBUG] Getting connection from pool");
-        Connection conn = dataSource.getConnection();
-        System.out.println("[DEBUG] Connection obtained successfully");
-        return conn;
+        LOG.debug("Getting connection from pool");
+        FlightEvents.ConnectionCheckout checkout = new FlightEvents.ConnectionCheckout();
+        checkout.begin();
+        checkout.pool = source.getPoolName();
+        try {
+            Connection conn = source.getConnection();
+            checkout.succeeded = true;
+            return SqlTracing.wrap(conn);
+        } finally {
+            checkout.commit();
+        }
     }
 
     /**
      * Close the connection pool
      */
-    public static void closePool() {
+    public static synchronized void closePool() {
         if (dataSource != null && !dataSource.isClosed()) {
-            System.out.println("[DEBUG] Closing connection pool");
+            PoolMetrics.removeGauges(dataSource.getPoolName());
             dataSource.close();
-            System.out.println("[DEBUG] Connection pool closed");
+            LOG.info("Connection pool closed");
         }
     }
 
     /**
-     * Test the database connection
+     * Test the database connection, creating the pool first if needed
      * @return true if connection is successful
      */
     public static boolean testConnection() {
-        if (connectionFailed) {
-            System.out.println("[ERROR] Connection failed during initialization");
+        if (!initialize()) {
+            LOG.warn("Connection failed during initialization");
             return false;
         }
         try (Connection conn = getConnection()) {
             boolean valid = conn.isValid(2);
             if (valid) {
-                System.out.println("[SUCCESS] Database connection test passed");
+                LOG.info("Database connection test passed");
             } else {
-                System.out.println("[ERROR] Database connection test failed - connection not valid");
+                LOG.warn("Database connection test failed - connection not valid");
             }
             return valid;
         } catch (SQLException e) {
-            System.err.println("[ERROR] Database connection test failed: " + e.getMessage());
-            e.printStackTrace();
+            LOG.error("Database connection test failed: " + e.getMessage(), e);
             return false;
         }
     }
@@ -108,6 +169,6 @@ public class DatabaseConnection {
      * @return true if connection pool was successfully initialized
      */
     public static boolean isConnected() {
-        return !connectionFailed && dataSource != null;
+        return dataSource != null;
     }
 }
@@ -0,0 +1,134 @@
+package com.microfinance.util;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JDK Flight Recorder event types, so a recording shows whether a pause came from
+ * the database, the connection pool, the service layer or a view rebuild.
+ *
+ * All events are disabled unless a recording turns them on, e.g. with the profile
+ * in microfinance.jfc layered over the JDK defaults:
+ *
+ *   java -XX:StartFlightRecording=settings=default,microfinance.jfc,filename=app.jfr ...
+ *
+ * or on a running application: jcmd &lt;pid&gt; JFR.start settings=default,microfinance.jfc
+ * While disabled, creating and committing an event is optimized away by the JIT.
+ *
+ * Usage follows the JFR pattern: begin(), do the work, set the fields, commit().
+ */
+public final class FlightEvents {
+    private static final String CATEGORY = "Microfinance";
+
+    private FlightEvents() {
+    }
+
+    /**
+     * One JDBC statement execution; for queries, the duration runs until the
+     * result set is exhausted or closed, so fetching is included
+     */
+    @Name("com.microfinance.SqlExecution")
+    @Label("SQL Execution")
+    @Category({CATEGORY, "Database"})
+    @Description("Execution of a JDBC statement, including fetching its results")
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class SqlExecution extends Event {
+        @Label("Statement")
+        public String sql;
+
+        @Label("Rows")
+        @Description("Rows read for a query, rows changed for an update or batch")
+        public long rows;
+
+        @Label("Batch Size")
+        @Description("Statements in the batch, or 0 for a single execution")
+        public int batchSize;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    /**
+     * Waiting for a pooled connection in DatabaseConnection.getConnection()
+     */
+    @Name("com.microfinance.ConnectionCheckout")
+    @Label("Connection Checkout")
+    @Category({CATEGORY, "Database"})
+    @Description("Waiting for a connection from the pool")
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class ConnectionCheckout extends Event {
+        @Label("Pool")
+        public String pool;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+    }
+
+    /**
+     * A LoanService call, from validation to the repository's answer
+     */
+    @Name("com.microfinance.LoanOperation")
+    @Label("Loan Operation")
+    @Category({CATEGORY, "Service"})
+    @Description("A LoanService operation such as issuing a loan or posting a payment")
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class LoanOperation extends Event {
+        @Label("Operation")
+        public String operation;
+
+        @Label("Loan ID")
+        public int loanId;
+
+        @Label("Borrower ID")
+        public int borrowerId;
+
+        @Label("Amount")
+        public double amount;
+
+        @Label("Rows")
+        @Description("Loans returned, for operations that list loans")
+        public long rows;
+
+        @Label("Succeeded")
+        public boolean succeeded;
+
+        public LoanOperation(String operation) {
+            this.operation = operation;
+        }
+    }
+
+    /**
+     * Building a whole view or report tab on the JavaFX Application Thread
+     */
+    @Name("com.microfinance.ViewRebuild")
+    @Label("View Rebuild")
+    @Category({CATEGORY, "UI"})
+    @Description("Replacing a whole view or report tab on the JavaFX Application Thread")
+    @Enabled(false)
+    @StackTrace(false)
+    @Threshold("0 ms")
+    public static final class ViewRebuild extends Event {
+        @Label("View")
+        public String view;
+
+        @Label("Rows")
+        @Description("Data rows the view was built from, when known")
+        public long rows;
+
+        public ViewRebuild(String view) {
+            this.view = view;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.microfinance.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Minimal leveled logger.
+ *
+ * Callers format nothing unless the level is enabled: pass a Supplier for any
+ * message that needs string building, so disabled DEBUG statements cost one
+ * comparison. Enabled events go into a bounded ring buffer and are written to
+ * a rolling file by a single background thread; when the buffer is full, events
+ * are dropped and counted instead of blocking the caller. ERROR events are also
+ * echoed to stderr as they happen.
+ *
+ * Configuration keys (see AppConfig):
+ *   log.level     DEBUG, INFO (default), WARN or ERROR
+ *   log.file      Log file (default logs/microfinance.log)
+ *   log.maxBytes  Roll the file over at this size (default 10 MB)
+ *   log.backups   Rolled files to keep (default 5)
+ */
+public final class Log {
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    private static final int BUFFER_CAPACITY = 8192;
+    private static final DateTimeFormatter TIMESTAMP =
+        DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    private static volatile Level threshold = parseLevel(AppConfig.get().getString("log.level"));
+    private static final Appender APPENDER = new Appender(
+        Paths.get(AppConfig.get().getString("log.file", "logs/microfinance.log")),
+        AppConfig.get().getLong("log.maxBytes", 10L * 1024 * 1024),
+        AppConfig.get().getInt("log.backups", 5));
+
+    private final String name;
+
+    private Log(String name) {
+        this.name = name;
+    }
+
+    public static Log getLogger(Class<?> owner) {
+        return new Log(owner.getSimpleName());
+    }
+
+    /**
+     * Change the level at runtime (e.g. from a configuration profile)
+     */
+    public static void setLevel(Level level) {
+        threshold = level;
+    }
+
+    public static Level getLevel() {
+        return threshold;
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.compareTo(threshold) >= 0;
+    }
+
+    public boolean isDebugEnabled() {
+        return isEnabled(Level.DEBUG);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message.get(), null);
+        }
+    }
+
+    public void debug(String message) {
+        if (isEnabled(Level.DEBUG)) {
+            log(Level.DEBUG, message, null);
+        }
+    }
+
+    public void info(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, message.get(), null);
+        }
+    }
+
+    public void info(String message) {
+        if (isEnabled(Level.INFO)) {
+            log(Level.INFO, message, null);
+        }
+    }
+
+    public void warn(String message) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, message, null);
+        }
+    }
+
+    public void warn(String message, Throwable error) {
+        if (isEnabled(Level.WARN)) {
+            log(Level.WARN, message, error);
+        }
+    }
+
+    public void error(String message) {
+        log(Level.ERROR, message, null);
+    }
+
+    public void error(String message, Throwable error) {
+        log(Level.ERROR, message, error);
+    }
+
+    private void log(Level level, String message, Throwable error) {
+        StringBuilder line = new StringBuilder(96 + message.length());
+        line.append(TIMESTAMP.format(Instant.now()))
+            .append(" [").append(level).append("] [")
+            .append(Thread.currentThread().getName()).append("] ")
+            .append(name).append(" - ").append(message);
+        if (error != null) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            line.append(System.lineSeparator()).append(trace.toString().stripTrailing());
+        }
+        String text = line.toString();
+        if (level == Level.ERROR) {
+            System.err.println(text);
+        }
+        APPENDER.append(text);
+    }
+
+    /**
+     * @return Number of events dropped because the buffer was full
+     */
+    public static long getDroppedCount() {
+        return APPENDER.dropped.get();
+    }
+
+    /**
+     * Write out everything buffered so far, waiting at most the given time
+     */
+    public static void flush(long timeoutMillis) {
+        APPENDER.flush(timeoutMillis);
+    }
+
+    private static Level parseLevel(String value) {
+        if (value == null) {
+            return Level.INFO;
+        }
+        try {
+            return Level.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Level.INFO;
+        }
+    }
+
+    /**
+     * Background writer draining a bounded ring buffer into a size-rolled file
+     */
+    private static final class Appender implements Runnable {
+        private final BlockingQueue<String> buffer = new ArrayBlockingQueue<>(BUFFER_CAPACITY);
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong written = new AtomicLong();
+        private final AtomicLong appended = new AtomicLong();
+        private final Path file;
+        private final long maxBytes;
+        private final int backups;
+        private BufferedWriter out;
+        private long size;
+        private boolean failed = false;
+
+        Appender(Path file, long maxBytes, int backups) {
+            this.file = file;
+            this.maxBytes = maxBytes;
+            this.backups = backups;
+            Thread writer = new Thread(this, "log-writer");
+            writer.setDaemon(true);
+            writer.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(2000), "log-flush"));
+        }
+
+        void append(String text) {
+            if (buffer.offer(text)) {
+                appended.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+            }
+        }
+
+        void flush(long timeoutMillis) {
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            long target = appended.get();
+            while (written.get() < target && System.currentTimeMillis() < deadline) {
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                String text;
+                try {
+                    text = buffer.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (text == null) {
+                    continue;
+                }
+                long count = 0;
+                try {
+                    // Drain whatever else is queued before paying for a flush
+                    do {
+                        count++;
+                        write(text);
+                    } while ((text = buffer.poll()) != null);
+                    if (out != null) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    fail(e);
+                } finally {
+                    written.addAndGet(count);
+                }
+            }
+        }
+
+        private void write(String text) throws IOException {
+            if (failed) {
+                return;
+            }
+            if (out == null || size >= maxBytes) {
+                open();
+            }
+            out.write(text);
+            out.newLine();
+            size += text.length() + 1;
+        }
+
+        private void open() throws IOException {
+            if (out != null) {
+                out.close();
+                roll();
+            }
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            size = Files.size(file);
+        }
+
+        private void roll() throws IOException {
+            for (int i = backups - 1; i >= 1; i--) {
+                Path from = Paths.get(file + "." + i);
+                if (Files.exists(from)) {
+                    Files.move(from, Paths.get(file + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+                }
+            }
+            if (backups > 0) {
+                Files.move(file, Paths.get(file + ".1"), StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.delete(file);
+            }
+        }
+
+        private void fail(IOException e) {
+            // Keep the application running; only the file output is lost
+            failed = true;
+            System.err.println("[ERROR] Logging to " + file + " disabled: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.microfinance.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Thread-safe bounded LRU cache with a time-to-live and hit/miss counters.
+ *
+ * Entries are weighed (1 per entry by default) and the least recently used
+ * entries are evicted once the total weight exceeds the limit. A load that
+ * races with an invalidation is not cached, so a reader can never put back a
+ * value that a concurrent writer has just invalidated.
+ *
+ * @param <K> Key type
+ * @param <V> Value type
+ */
+public class LruCache<K, V> {
+    private static final class Entry<V> {
+        final V value;
+        final int weight;
+        final long expiresAt;
+
+        Entry(V value, int weight, long expiresAt) {
+            this.value = value;
+            this.weight = weight;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final String name;
+    private final long maxWeight;
+    private final long ttlNanos;
+    private final ToIntFunction<V> weigher;
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight = 0;
+    private long invalidations = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param name Name used in statistics output
+     * @param maxEntries Maximum number of entries
+     * @param ttlMillis How long an entry stays valid after it is loaded; 0 for no expiry
+     */
+    public LruCache(String name, long maxEntries, long ttlMillis) {
+        this(name, maxEntries, ttlMillis, value -> 1);
+    }
+
+    /**
+     * @param name Name used in statistics output
+     * @param maxWeight Maximum total weight of the entries
+     * @param ttlMillis How long an entry stays valid after it is loaded; 0 for no expiry
+     * @param weigher Weight of a value, e.g. its approximate size
+     */
+    public LruCache(String name, long maxWeight, long ttlMillis, ToIntFunction<V> weigher) {
+        if (maxWeight < 0 || ttlMillis < 0) {
+            throw new IllegalArgumentException("Cache size and TTL cannot be negative");
+        }
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.ttlNanos = ttlMillis * 1_000_000;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Get a cached value, loading and caching it on a miss.
+     * The loader runs outside the lock; a null result is returned but not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long stamp;
+        synchronized (this) {
+            V cached = lookup(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            stamp = invalidations;
+        }
+        V loaded = loader.apply(key);
+        if (loaded != null) {
+            synchronized (this) {
+                if (stamp == invalidations) {
+                    store(key, loaded);
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * @return The cached value, or null if it is absent or expired
+     */
+    public synchronized V getIfPresent(K key) {
+        V cached = lookup(key);
+        if (cached != null) {
+            hits++;
+        } else {
+            misses++;
+        }
+        return cached;
+    }
+
+    public synchronized void put(K key, V value) {
+        store(key, value);
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hits;
+    }
+
+    public synchronized long getMissCount() {
+        return misses;
+    }
+
+    public synchronized double getHitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0 : (double) hits / requests;
+    }
+
+    private V lookup(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (ttlNanos > 0 && System.nanoTime() - entry.expiresAt > 0) {
+            remove(key);
+            return null;
+        }
+        return entry.value;
+    }
+
+    private void store(K key, V value) {
+        if (maxWeight == 0) {
+            return;
+        }
+        int entryWeight = weigher.applyAsInt(value);
+        remove(key);
+        entries.put(key, new Entry<>(value, entryWeight, System.nanoTime() + ttlNanos));
+        weight += entryWeight;
+        // Access order puts the least recently used entries first
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (weight > maxWeight && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight;
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private void remove(K key) {
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s cache: %d entries, %d hits, %d misses (%.1f%% hit rate), %d evictions",
+            name, entries.size(), hits, misses, getHitRate() * 100, evictions);
+    }
+}
@@ -0,0 +1,378 @@
+package com.microfinance.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.MBeanParameterInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Application-wide registry of counters, gauges and timers.
+ *
+ * Metrics are created once (typically into final fields) and updated on hot paths:
+ * a counter is a LongAdder, a timer a lock-free Histogram of nanoseconds plus a
+ * row count, and a gauge a callback read only when metrics are reported. With
+ * metrics.enabled=false, Timer.start() returns 0 and every update is skipped
+ * after one volatile read, so instrumentation can stay in production code.
+ *
+ * Everything registered is published as attributes of the JMX bean
+ * com.microfinance:type=Metrics, whose Enabled attribute switches recording at
+ * runtime, and can be written to the log as a text table at a fixed interval.
+ *
+ * Configuration keys (see AppConfig):
+ *   metrics.enabled              Record counters and timers (default true)
+ *   metrics.jmx                  Register the JMX bean (default true)
+ *   metrics.dumpIntervalSeconds  Log all metrics this often; 0 (default) disables the dump
+ */
+public final class Metrics {
+    private static final Log LOG = Log.getLogger(Metrics.class);
+    public static final String OBJECT_NAME = "com.microfinance:type=Metrics";
+    private static final Metrics INSTANCE = new Metrics();
+
+    private static volatile boolean enabled = AppConfig.get().getBoolean("metrics.enabled", true);
+
+    /**
+     * A monotonically increasing count
+     */
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        public void increment() {
+            if (enabled) {
+                value.increment();
+            }
+        }
+
+        public void add(long amount) {
+            if (enabled) {
+                value.add(amount);
+            }
+        }
+
+        public long get() {
+            return value.sum();
+        }
+
+        void reset() {
+            value.reset();
+        }
+    }
+
+    /**
+     * Latency distribution of an operation, with the number of rows it touched:
+     *
+     *   long start = timer.start();
+     *   List<Loan> loans = ...;
+     *   timer.stop(start, loans.size());
+     */
+    public static final class Timer {
+        private final Histogram nanos = new Histogram();
+        private final LongAdder rows = new LongAdder();
+
+        /**
+         * @return A start time to pass to stop(), or 0 when metrics are disabled
+         */
+        public long start() {
+            return enabled ? System.nanoTime() : 0;
+        }
+
+        /**
+         * Record one call that began at start and touched the given number of rows
+         */
+        public void stop(long start, long rowCount) {
+            if (start != 0) {
+                record(System.nanoTime() - start, rowCount);
+            }
+        }
+
+        /**
+         * Record a duration measured elsewhere (e.g. by the connection pool)
+         */
+        public void record(long durationNanos, long rowCount) {
+            if (enabled) {
+                nanos.record(durationNanos);
+                rows.add(rowCount);
+            }
+        }
+
+        public long getCount() {
+            return nanos.getCount();
+        }
+
+        public long getRows() {
+            return rows.sum();
+        }
+
+        public double getMeanMillis() {
+            return nanos.getMean() / 1_000_000.0;
+        }
+
+        /**
+         * @param percentile Percentile between 0 and 100
+         */
+        public double getPercentileMillis(double percentile) {
+            return nanos.getPercentile(percentile) / 1_000_000.0;
+        }
+
+        public double getMaxMillis() {
+            return nanos.getMax() / 1_000_000.0;
+        }
+
+        void reset() {
+            nanos.reset();
+            rows.reset();
+        }
+    }
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final Map<String, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private ScheduledExecutorService dumper;
+
+    private Metrics() {
+    }
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start or stop recording; values recorded so far are kept
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * @return The counter with this name, created on first use
+     */
+    public Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    /**
+     * @return The timer with this name, created on first use
+     */
+    public Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Timer());
+    }
+
+    /**
+     * Register or replace a gauge; the callback runs on the reporting thread and must not block
+     */
+    public void gauge(String name, DoubleSupplier value) {
+        gauges.put(name, value);
+    }
+
+    public void removeGauge(String name) {
+        gauges.remove(name);
+    }
+
+    /**
+     * Clear all counters and timers; gauges are live values and are unaffected
+     */
+    public void reset() {
+        counters.values().forEach(Counter::reset);
+        timers.values().forEach(Timer::reset);
+    }
+
+    /**
+     * Flatten every metric into name/value pairs, sorted by name: counters and gauges
+     * by their own name, timers as name.count, .rows, .meanMs, .p50Ms, .p99Ms and .maxMs
+     */
+    public Map<String, Number> snapshot() {
+        Map<String, Number> values = new TreeMap<>();
+        counters.forEach((name, counter) -> values.put(name, counter.get()));
+        gauges.forEach((name, gauge) -> values.put(name, readGauge(name, gauge)));
+        timers.forEach((name, timer) -> {
+            values.put(name + ".count", timer.getCount());
+            values.put(name + ".rows", timer.getRows());
+            values.put(name + ".meanMs", timer.getMeanMillis());
+            values.put(name + ".p50Ms", timer.getPercentileMillis(50));
+            values.put(name + ".p99Ms", timer.getPercentileMillis(99));
+            values.put(name + ".maxMs", timer.getMaxMillis());
+        });
+        return values;
+    }
+
+    /**
+     * @return All metrics as a text table; timers that have never run are left out
+     */
+    public String dump() {
+        StringBuilder sb = new StringBuilder("Metrics").append(enabled ? "" : " (recording disabled)").append('\n');
+        new TreeMap<>(timers).forEach((name, timer) -> {
+            if (timer.getCount() > 0) {
+                sb.append(String.format("  %-40s calls=%-8d rows=%-10d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms%n",
+                    name, timer.getCount(), timer.getRows(), timer.getMeanMillis(),
+                    timer.getPercentileMillis(50), timer.getPercentileMillis(99), timer.getMaxMillis()));
+            }
+        });
+        new TreeMap<>(counters).forEach((name, counter) ->
+            sb.append(String.format("  %-40s %d%n", name, counter.get())));
+        new TreeMap<>(gauges).forEach((name, gauge) ->
+            sb.append(String.format("  %-40s %s%n", name, formatGauge(readGauge(name, gauge)))));
+        return sb.toString();
+    }
+
+    /**
+     * Register the JMX bean and start the periodic dump as configured; safe to call more than once
+     */
+    public synchronized void start() {
+        AppConfig config = AppConfig.get();
+        if (config.getBoolean("metrics.jmx", true)) {
+            registerMBean();
+        }
+        long interval = config.getLong("metrics.dumpIntervalSeconds", 0);
+        if (interval > 0 && dumper == null) {
+            dumper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "metrics-dump");
+                thread.setDaemon(true);
+                return thread;
+            });
+            dumper.scheduleAtFixedRate(() -> LOG.info(dump()), interval, interval, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Stop the periodic dump, if running
+     */
+    public synchronized void stop() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    private void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new MetricsMBean(), name);
+            }
+        } catch (JMException e) {
+            LOG.warn("Could not register metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    private static double readGauge(String name, DoubleSupplier gauge) {
+        try {
+            return gauge.getAsDouble();
+        } catch (RuntimeException e) {
+            LOG.debug(() -> "Gauge " + name + " failed: " + e);
+            return Double.NaN;
+        }
+    }
+
+    private static String formatGauge(double value) {
+        return value == Math.rint(value) && !Double.isInfinite(value) ? String.valueOf((long) value) : String.format("%.3f", value);
+    }
+
+    /**
+     * Publishes the snapshot as read-only attributes, plus the Enabled switch and
+     * reset and dump operations. The attribute list follows the metrics registered so far.
+     */
+    private final class MetricsMBean implements DynamicMBean {
+        private static final String ENABLED = "Enabled";
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            if (ENABLED.equals(attribute)) {
+                return enabled;
+            }
+            Number value = snapshot().get(attribute);
+            if (value == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return value;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            if (!ENABLED.equals(attribute.getName())) {
+                throw new AttributeNotFoundException(attribute.getName() + " is read-only");
+            }
+            setEnabled((Boolean) attribute.getValue());
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            Map<String, Number> values = snapshot();
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                if (ENABLED.equals(attribute)) {
+                    list.add(new Attribute(ENABLED, enabled));
+                } else if (values.containsKey(attribute)) {
+                    list.add(new Attribute(attribute, values.get(attribute)));
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            AttributeList set = new AttributeList();
+            for (Attribute attribute : attributes.asList()) {
+                if (ENABLED.equals(attribute.getName())) {
+                    setEnabled((Boolean) attribute.getValue());
+                    set.add(attribute);
+                }
+            }
+            return set;
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            switch (actionName) {
+                case "reset" -> {
+                    reset();
+                    return null;
+                }
+                case "dump" -> {
+                    return dump();
+                }
+                default -> throw new UnsupportedOperationException("Unknown operation: " + actionName);
+            }
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            attributes.add(new MBeanAttributeInfo(ENABLED, "boolean", "Whether counters and timers record",
+                true, true, true));
+            Map<String, Number> values = new LinkedHashMap<>(snapshot());
+            values.forEach((name, value) -> attributes.add(new MBeanAttributeInfo(name,
+                value instanceof Long ? "java.lang.Long" : "java.lang.Double", name, true, false, false)));
+            MBeanOperationInfo[] operations = {
+                new MBeanOperationInfo("reset", "Clear all counters and timers", new MBeanParameterInfo[0],
+                    "void", MBeanOperationInfo.ACTION),
+                new MBeanOperationInfo("dump", "All metrics as text", new MBeanParameterInfo[0],
+                    "java.lang.String", MBeanOperationInfo.INFO)
+            };
+            return new MBeanInfo(Metrics.class.getName(), "Microfinance Loan Tracker metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, operations, null);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.microfinance.util;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Connection pool metrics, named pool.&lt;poolName&gt;.*:
+ *   acquire      Timer of the wait in getConnection(), including time blocked on an empty pool
+ *   usage        Timer of how long connections are held before being returned
+ *   connect      Timer of opening new physical connections
+ *   timeouts     Counter of getConnection() calls that gave up
+ *   active, idle, total, pending   Gauges read from HikariPoolMXBean
+ */
+public final class PoolMetrics implements MetricsTrackerFactory {
+    private PoolMetrics() {
+    }
+
+    /**
+     * Have the pool report its timings to the metrics registry; call before the pool is created
+     */
+    public static void track(HikariConfig config) {
+        config.setMetricsTrackerFactory(new PoolMetrics());
+    }
+
+    /**
+     * Register gauges over the pool's MXBean; call once the pool has started
+     */
+    public static void registerGauges(HikariDataSource dataSource) {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (pool == null) {
+            return;
+        }
+        String prefix = prefix(dataSource.getPoolName());
+        Metrics metrics = Metrics.get();
+        metrics.gauge(prefix + "active", pool::getActiveConnections);
+        metrics.gauge(prefix + "idle", pool::getIdleConnections);
+        metrics.gauge(prefix + "total", pool::getTotalConnections);
+        metrics.gauge(prefix + "pending", pool::getThreadsAwaitingConnection);
+    }
+
+    /**
+     * Remove the gauges of a pool that is being closed
+     */
+    public static void removeGauges(String poolName) {
+        String prefix = prefix(poolName);
+        Metrics metrics = Metrics.get();
+        for (String gauge : new String[] {"active", "idle", "total", "pending"}) {
+            metrics.removeGauge(prefix + gauge);
+        }
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        String prefix = prefix(poolName);
+        Metrics metrics = Metrics.get();
+        Metrics.Timer acquire = metrics.timer(prefix + "acquire");
+        Metrics.Timer usage = metrics.timer(prefix + "usage");
+        Metrics.Timer connect = metrics.timer(prefix + "connect");
+        Metrics.Counter timeouts = metrics.counter(prefix + "timeouts");
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                acquire.record(elapsedAcquiredNanos, 0);
+            }
+
+            @Override
+            public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+                usage.record(elapsedBorrowedMillis * 1_000_000, 0);
+            }
+
+            @Override
+            public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+                connect.record(connectionCreatedMillis * 1_000_000, 0);
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    private static String prefix(String poolName) {
+        return "pool." + poolName + ".";
+    }
+}
@@ -0,0 +1,195 @@
+package com.microfinance.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Emits a FlightEvents.SqlExecution for every statement run on a connection,
+ * by wrapping the connection, its statements and their result sets in dynamic
+ * proxies. Connections are only wrapped while a recording has the event enabled,
+ * so the DAOs pay nothing otherwise.
+ *
+ * A query's event ends when its result set reports no more rows or is closed,
+ * or when its statement is closed, moves to its next result or is executed again,
+ * whichever comes first. Result sets from execute() are traced through getResultSet().
+ */
+public final class SqlTracing {
+    private SqlTracing() {
+    }
+
+    /**
+     * @return The connection itself, or a tracing proxy over it while SQL events are being recorded
+     */
+    public static Connection wrap(Connection conn) {
+        if (!new FlightEvents.SqlExecution().isEnabled()) {
+            return conn;
+        }
+        return proxy(Connection.class, new ConnectionHandler(conn));
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlTracing.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class ConnectionHandler implements InvocationHandler {
+        private final Connection conn;
+
+        ConnectionHandler(Connection conn) {
+            this.conn = conn;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = SqlTracing.invoke(conn, method, args);
+            String name = method.getName();
+            if (result instanceof Statement && (name.startsWith("prepare") || name.equals("createStatement"))) {
+                // Prepared statements carry their SQL from the start; plain statements get it at execution
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                Class<?> type = method.getReturnType();
+                return proxy(type.asSubclass(Statement.class), new StatementHandler((Statement) result, sql));
+            }
+            return result;
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final Statement stmt;
+        private final String preparedSql;
+        private int batchSize;
+        private FlightEvents.SqlExecution pendingQuery;
+
+        StatementHandler(Statement stmt, String preparedSql) {
+            this.stmt = stmt;
+            this.preparedSql = preparedSql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "addBatch" -> batchSize++;
+                case "clearBatch" -> batchSize = 0;
+                case "close", "getMoreResults" -> commitPendingQuery();
+                case "getResultSet" -> {
+                    Object rs = SqlTracing.invoke(stmt, method, args);
+                    FlightEvents.SqlExecution event = pendingQuery;
+                    return rs == null || event == null
+                        ? rs : proxy(ResultSet.class, new ResultSetHandler((ResultSet) rs, this, event));
+                }
+                default -> {
+                    if (name.startsWith("execute")) {
+                        return execute(method, args);
+                    }
+                }
+            }
+            return SqlTracing.invoke(stmt, method, args);
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            commitPendingQuery();
+            FlightEvents.SqlExecution event = new FlightEvents.SqlExecution();
+            event.begin();
+            event.sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : preparedSql;
+            boolean batch = method.getName().contains("Batch");
+            event.batchSize = batch ? batchSize : 0;
+            if (batch) {
+                batchSize = 0;
+            }
+            Object result;
+            try {
+                result = SqlTracing.invoke(stmt, method, args);
+            } catch (Throwable e) {
+                event.commit();
+                throw e;
+            }
+            event.succeeded = true;
+            if (result instanceof ResultSet) {
+                // Finished by the result set, so the fetch is included
+                pendingQuery = event;
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, this, event));
+            }
+            if (Boolean.TRUE.equals(result)) {
+                // execute() produced a result set; it is traced when fetched with getResultSet()
+                pendingQuery = event;
+                return result;
+            }
+            event.rows = Boolean.FALSE.equals(result) ? Math.max(0, stmt.getUpdateCount()) : rowCount(result);
+            event.commit();
+            return result;
+        }
+
+        void finished(FlightEvents.SqlExecution event) {
+            if (pendingQuery == event) {
+                pendingQuery = null;
+                event.commit();
+            }
+        }
+
+        private void commitPendingQuery() {
+            if (pendingQuery != null) {
+                finished(pendingQuery);
+            }
+        }
+
+        private static long rowCount(Object result) {
+            if (result instanceof Number) {
+                return Math.max(0, ((Number) result).longValue());
+            }
+            long rows = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    // SUCCESS_NO_INFO (-2) means at least one row
+                    rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+                }
+            } else if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+                }
+            }
+            return rows;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet rs;
+        private final StatementHandler statement;
+        private final FlightEvents.SqlExecution event;
+
+        ResultSetHandler(ResultSet rs, StatementHandler statement, FlightEvents.SqlExecution event) {
+            this.rs = rs;
+            this.statement = statement;
+            this.event = event;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                Object hasRow = SqlTracing.invoke(rs, method, args);
+                if ((Boolean) hasRow) {
+                    event.rows++;
+                } else {
+                    statement.finished(event);
+                }
+                return hasRow;
+            }
+            if (name.equals("close")) {
+                statement.finished(event);
+            }
+            return SqlTracing.invoke(rs, method, args);
+        }
+    }
+}
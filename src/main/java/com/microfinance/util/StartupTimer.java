@@ -0,0 +1,68 @@
+package com.microfinance.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Records when each startup phase was reached, in milliseconds since the JVM started,
+ * so that time-to-first-paint and time-to-data can be compared across releases.
+ * Each phase is recorded once; later marks of the same phase are ignored.
+ *
+ * Thread-safe; phases may be marked from the FX thread and from background threads.
+ */
+public class StartupTimer {
+    private static final Log LOG = Log.getLogger(StartupTimer.class);
+
+    private final long originMillis;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+
+    public StartupTimer(long originMillis) {
+        this.originMillis = originMillis;
+    }
+
+    /**
+     * Create a timer measuring from the start of the JVM, so class loading and
+     * toolkit startup before main are included
+     */
+    public static StartupTimer sinceJvmStart() {
+        return new StartupTimer(ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    /**
+     * Record that a phase has been reached now
+     *
+     * @return Milliseconds since the origin, or the earlier time if the phase was already marked
+     */
+    public synchronized long mark(String phase) {
+        long millis = System.currentTimeMillis() - originMillis;
+        Long previous = phases.putIfAbsent(phase, millis);
+        if (previous != null) {
+            return previous;
+        }
+        LOG.debug(() -> "Startup phase '" + phase + "' reached at " + millis + " ms");
+        return millis;
+    }
+
+    /**
+     * @return Milliseconds from the origin to the phase, or -1 if it has not been reached
+     */
+    public synchronized long getMillis(String phase) {
+        Long millis = phases.get(phase);
+        return millis == null ? -1 : millis;
+    }
+
+    /**
+     * @return The phases reached so far, in the order they were marked
+     */
+    public synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("Startup:");
+        phases.forEach((phase, millis) -> sb.append(' ').append(phase).append('=').append(millis).append("ms"));
+        return sb.toString();
+    }
+}
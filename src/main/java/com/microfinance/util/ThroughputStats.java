@@ -0,0 +1,109 @@
+package com.microfinance.util;
+
+import java.util.Arrays;
+
+/**
+ * Thread-safe throughput and latency recorder
+ * Keeps a fixed window of the most recent latency samples for percentile reporting
+ */
+public class ThroughputStats {
+    private static final int DEFAULT_WINDOW = 10_000;
+
+    private final String name;
+    private final long[] samples;
+    private int next = 0;
+    private int size = 0;
+    private long count = 0;
+    private long firstNanos = 0;
+    private long lastNanos = 0;
+
+    public ThroughputStats(String name) {
+        this(name, DEFAULT_WINDOW);
+    }
+
+    public ThroughputStats(String name, int window) {
+        if (window <= 0) {
+            throw new IllegalArgumentException("Sample window must be greater than 0");
+        }
+        this.name = name;
+        this.samples = new long[window];
+    }
+
+    /**
+     * Record one completed operation
+     *
+     * @param latencyNanos How long the operation took, in nanoseconds
+     */
+    public synchronized void record(long latencyNanos) {
+        long now = System.nanoTime();
+        if (count == 0) {
+            firstNanos = now - latencyNanos;
+        }
+        lastNanos = now;
+        count++;
+        samples[next] = latencyNanos;
+        next = (next + 1) % samples.length;
+        if (size < samples.length) {
+            size++;
+        }
+    }
+
+    /**
+     * @return Number of operations recorded since creation or the last reset
+     */
+    public synchronized long getCount() {
+        return count;
+    }
+
+    /**
+     * @return Operations per second between the first and the last recorded operation
+     */
+    public synchronized double getOperationsPerSecond() {
+        long elapsed = lastNanos - firstNanos;
+        if (count == 0 || elapsed <= 0) {
+            return 0;
+        }
+        return count / (elapsed / 1_000_000_000.0);
+    }
+
+    /**
+     * Latency percentile over the recent sample window
+     *
+     * @param percentile Percentile between 0 and 100
+     * @return Latency in milliseconds
+     */
+    public synchronized double getPercentileMillis(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        rank = Math.max(0, Math.min(size - 1, rank));
+        return sorted[rank] / 1_000_000.0;
+    }
+
+    /**
+     * @return p99 latency in milliseconds over the recent sample window
+     */
+    public double getP99Millis() {
+        return getPercentileMillis(99);
+    }
+
+    /**
+     * Clear all recorded samples
+     */
+    public synchronized void reset() {
+        next = 0;
+        size = 0;
+        count = 0;
+        firstNanos = 0;
+        lastNanos = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: count=%d, rate=%.1f/s, p50=%.2fms, p99=%.2fms",
+                name, count, getOperationsPerSecond(), getPercentileMillis(50), getP99Millis());
+    }
+}
@@ -0,0 +1,46 @@
+-- Schema of database.sql for the embedded H2 database (MODE=MySQL) used by tests and benchmarks.
+-- Loaded by EmbeddedDatabase; keep it in step with database.sql.
+-- VARCHAR_IGNORECASE stands in for the case-insensitive utf8mb4_unicode_ci collation,
+-- which name lookups and the status predicates rely on.
+
+CREATE TABLE IF NOT EXISTS borrowers (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR_IGNORECASE(255) NOT NULL,
+    email VARCHAR(255),
+    phone VARCHAR(50),
+    address VARCHAR(500),
+    income DECIMAL(15,2) DEFAULT 0.0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_name ON borrowers (name);
+
+CREATE TABLE IF NOT EXISTS loans (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    borrower_id INT NOT NULL,
+    loan_amount DECIMAL(15, 2) NOT NULL,
+    outstanding_balance DECIMAL(15, 2) NOT NULL,
+    status VARCHAR_IGNORECASE(50) DEFAULT 'Active',
+    loan_date DATE NOT NULL,
+    due_date DATE NOT NULL,
+    interest_rate DECIMAL(5, 2) DEFAULT 0.0,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    FOREIGN KEY (borrower_id) REFERENCES borrowers(id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_borrower_id ON loans (borrower_id);
+CREATE INDEX IF NOT EXISTS idx_status ON loans (status);
+CREATE INDEX IF NOT EXISTS idx_loan_date ON loans (loan_date);
+CREATE INDEX IF NOT EXISTS idx_due_balance ON loans (due_date, outstanding_balance);
+
+CREATE TABLE IF NOT EXISTS payments (
+    id INT AUTO_INCREMENT PRIMARY KEY,
+    loan_id INT NOT NULL,
+    payment_amount DECIMAL(15, 2) NOT NULL,
+    payment_date DATE NOT NULL,
+    notes VARCHAR(500),
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (loan_id) REFERENCES loans(id) ON DELETE CASCADE
+);
+CREATE INDEX IF NOT EXISTS idx_loan_id ON payments (loan_id);
+CREATE INDEX IF NOT EXISTS idx_payment_date ON payments (payment_date);
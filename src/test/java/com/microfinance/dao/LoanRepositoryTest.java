@@ -0,0 +1,236 @@
+package com.microfinance.dao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import com.microfinance.model.LoanSnapshot;
+import com.microfinance.model.PortfolioSummary;
+import com.microfinance.service.LoanService;
+import com.microfinance.service.PortfolioAnalytics;
+import com.microfinance.util.EmbeddedDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+/**
+ * Runs the same repository behaviour against the in-memory store and the JDBC DAOs
+ * on an embedded H2 database, so the two backends stay interchangeable
+ */
+class LoanRepositoryTest {
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private HikariDataSource dataSource;
+
+    /**
+     * A pair of repositories on one backend
+     */
+    interface Backend {
+        LoanRepository loans();
+
+        BorrowerRepository borrowers();
+    }
+
+    static Stream<String> backends() {
+        return Stream.of("memory", "h2");
+    }
+
+    private Backend open(String kind) {
+        if (kind.equals("memory")) {
+            InMemoryStore store = new InMemoryStore();
+            return backend(store.loans(), store.borrowers());
+        }
+        dataSource = EmbeddedDatabase.create("loan-repository-test-" + DATABASES.incrementAndGet());
+        return backend(new LoanDAO(dataSource::getConnection), new BorrowerDAO(dataSource::getConnection));
+    }
+
+    private static Backend backend(LoanRepository loans, BorrowerRepository borrowers) {
+        return new Backend() {
+            @Override
+            public LoanRepository loans() {
+                return loans;
+            }
+
+            @Override
+            public BorrowerRepository borrowers() {
+                return borrowers;
+            }
+        };
+    }
+
+    @AfterEach
+    void dropDatabase() {
+        if (dataSource != null) {
+            EmbeddedDatabase.drop(dataSource);
+            dataSource = null;
+        }
+    }
+
+    private static Borrower addBorrower(Backend backend, String name) {
+        Borrower borrower = new Borrower(name, name.toLowerCase().replace(' ', '.') + "@example.com", "555", "1 Main St", 30000);
+        assertTrue(backend.borrowers().addBorrower(borrower));
+        assertTrue(borrower.getId() > 0);
+        return borrower;
+    }
+
+    private static Loan addLoan(Backend backend, Borrower borrower, double amount, LocalDate loanDate, LocalDate dueDate,
+                                Consumer<Loan> customize) {
+        Loan loan = new Loan(borrower.getId(), borrower.getName(), amount, amount, "Active", loanDate, dueDate, 5.0);
+        customize.accept(loan);
+        assertTrue(backend.loans().addLoan(loan));
+        return loan;
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void issuedLoanIsPaidOffThroughTheService(String kind) throws Exception {
+        Backend backend = open(kind);
+        Borrower borrower = addBorrower(backend, "Jane Smith");
+        LoanService service = new LoanService(backend.loans());
+
+        Loan issued = service.issueLoan(borrower.getId(), borrower.getName(), 1000, 5.0, 12);
+        assertTrue(issued.getId() > 0);
+        Loan stored = backend.loans().getLoanById(issued.getId());
+        assertEquals("Jane Smith", stored.getBorrowerName());
+        assertEquals(1000, stored.getOutstandingBalance(), 0.001);
+
+        assertTrue(service.recordPayment(issued.getId(), 400));
+        Loan partlyPaid = backend.loans().getLoanById(issued.getId());
+        assertEquals(600, partlyPaid.getOutstandingBalance(), 0.001);
+        assertEquals(stored.getDueDate().plusMonths(1), partlyPaid.getDueDate());
+        assertTrue("ACTIVE".equalsIgnoreCase(partlyPaid.getStatus()));
+
+        assertTrue(service.recordPayment(issued.getId(), 600));
+        Loan paid = backend.loans().getLoanById(issued.getId());
+        assertEquals(0, paid.getOutstandingBalance(), 0.001);
+        assertEquals(partlyPaid.getDueDate(), paid.getDueDate());
+        assertEquals("Completed", paid.getStatus());
+
+        assertFalse(service.recordPayment(issued.getId() + 1000, 10));
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void loanForUnknownBorrowerIsRejected(String kind) {
+        Backend backend = open(kind);
+        Loan loan = new Loan(4242, "Nobody", 500, 500, "Active", LocalDate.now(), LocalDate.now().plusMonths(1), 5.0);
+        assertFalse(backend.loans().addLoan(loan));
+        assertEquals(0, backend.loans().getAllLoans().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void searchFindsLoansBeyondTheLoadedPages(String kind) {
+        Backend backend = open(kind);
+        Borrower grace = addBorrower(backend, "Grace Otieno");
+        Borrower other = addBorrower(backend, "Peter 100% Banda");
+        LocalDate today = LocalDate.now();
+        Loan older = addLoan(backend, grace, 100, today.minusMonths(3), today.plusDays(5), loan -> { });
+        for (int i = 0; i < 5; i++) {
+            addLoan(backend, other, 200, today.minusDays(i), today.plusDays(30), loan -> { });
+        }
+        Loan newer = addLoan(backend, grace, 300, today.minusMonths(1), today.plusDays(5), loan -> { });
+
+        LoanRepository loans = backend.loans();
+        assertEquals(List.of(newer.getId()), loans.searchLoansPage("GRACE", null, 0, 1).stream().map(Loan::getId).toList());
+        assertEquals(List.of(older.getId()), loans.searchLoansPage("grace", newer.getLoanDate(), newer.getId(), 10)
+            .stream().map(Loan::getId).toList());
+        assertEquals(List.of(newer.getId()), loans.searchLoansPage(String.valueOf(newer.getId()), null, 0, 10)
+            .stream().map(Loan::getId).toList());
+        // LIKE wildcards in the query are matched literally
+        assertEquals(5, loans.searchLoansPage("100%", null, 0, 10).size());
+        assertEquals(0, loans.searchLoansPage("e_o", null, 0, 10).size());
+        assertEquals(7, loans.searchLoansPage(" ", null, 0, 10).size());
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void loanIdsMatchAsSubstringsSoLongerQueriesNarrow(String kind) {
+        Backend backend = open(kind);
+        Borrower borrower = addBorrower(backend, "Amina Kamau");
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 12; i++) {
+            addLoan(backend, borrower, 100, today.minusDays(i), today.plusDays(30), loan -> { });
+        }
+        LoanRepository loans = backend.loans();
+        List<Integer> ones = loans.searchLoansPage("1", null, 0, 100).stream().map(Loan::getId).sorted().toList();
+        assertEquals(List.of(1, 10, 11, 12), ones);
+        // Loan 12 is among the matches for "1", so narrowing "1" to "12" locally still finds it
+        List<Integer> twelve = loans.searchLoansPage("12", null, 0, 100).stream().map(Loan::getId).toList();
+        assertEquals(List.of(12), twelve);
+        assertTrue(ones.containsAll(twelve));
+        assertEquals(List.of(2, 12), loans.searchLoansPage("2", null, 0, 100).stream().map(Loan::getId).sorted().toList());
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void pagesAndOverdueLoansFollowTheKeysetOrder(String kind) {
+        Backend backend = open(kind);
+        Borrower borrower = addBorrower(backend, "John Doe");
+        LocalDate today = LocalDate.now();
+        Loan oldest = addLoan(backend, borrower, 100, today.minusMonths(3), today.minusDays(30), loan -> { });
+        Loan middle = addLoan(backend, borrower, 200, today.minusMonths(2), today.minusDays(10), loan -> loan.setStatus("OVERDUE"));
+        Loan newest = addLoan(backend, borrower, 300, today.minusMonths(1), today.plusDays(10), loan -> { });
+        // Overdue means past due with a balance, whatever the status
+        Loan completed = addLoan(backend, borrower, 400, today.minusMonths(4), today.minusDays(60),
+            loan -> loan.setStatus("Completed"));
+
+        List<Loan> firstPage = backend.loans().getLoansPage(null, 0, 2);
+        assertEquals(List.of(newest.getId(), middle.getId()), firstPage.stream().map(Loan::getId).toList());
+        Loan last = firstPage.get(1);
+        List<Loan> secondPage = backend.loans().getLoansPage(last.getLoanDate(), last.getId(), 2);
+        assertEquals(oldest.getId(), secondPage.get(0).getId());
+        assertEquals(2, secondPage.size());
+
+        List<Loan> overdue = backend.loans().getOverdueLoans();
+        assertEquals(List.of(completed.getId(), oldest.getId(), middle.getId()),
+            overdue.stream().map(Loan::getId).toList());
+        Loan firstOverdue = overdue.get(0);
+        assertEquals(List.of(oldest.getId(), middle.getId()), backend.loans()
+            .getOverdueLoans(firstOverdue.getDueDate(), firstOverdue.getId(), 10).stream().map(Loan::getId).toList());
+        assertEquals(3, backend.loans().countOverdueLoans());
+        assertEquals(2, backend.loans().getActiveLoans().size());
+
+        PortfolioSummary summary = backend.loans().getPortfolioSummary();
+        assertEquals(2, summary.getLoanCount("ACTIVE"));
+        assertEquals(1000, summary.getTotalLoanAmount(), 0.001);
+        assertEquals(3, summary.getOverdueCount());
+        LoanSnapshot snapshot = backend.loans().loadSnapshot();
+        assertEquals(4, snapshot.size());
+        assertEquals(3, PortfolioAnalytics.summarize(snapshot, today).getOverdueCount());
+    }
+
+    @ParameterizedTest
+    @MethodSource("backends")
+    void borrowersAreFoundByNameAndDeletedWithTheirLoans(String kind) {
+        Backend backend = open(kind);
+        Borrower jane = addBorrower(backend, "Jane Smith");
+        Borrower bob = addBorrower(backend, "Bob Johnson");
+        Loan loan = addLoan(backend, jane, 500, LocalDate.now(), LocalDate.now().plusMonths(1), l -> { });
+
+        assertEquals(jane.getId(), backend.borrowers().findBorrowerIdByName("JANE SMITH"));
+        assertEquals(-1, backend.borrowers().findBorrowerIdByName("Jane"));
+        assertEquals(List.of("Bob Johnson", "Jane Smith"), backend.borrowers().searchBorrowersByName("n")
+            .stream().map(Borrower::getName).toList());
+        assertEquals(List.of(bob.getId()), backend.borrowers().getBorrowersPage(0, 1)
+            .stream().map(Borrower::getId).toList());
+
+        jane.setName("Jane Doe");
+        assertTrue(backend.borrowers().updateBorrower(jane));
+        assertEquals("Jane Doe", backend.loans().getLoanById(loan.getId()).getBorrowerName());
+
+        assertTrue(backend.borrowers().deleteBorrower(jane.getId()));
+        assertNull(backend.borrowers().getBorrowerById(jane.getId()));
+        assertNull(backend.loans().getLoanById(loan.getId()));
+        assertEquals(1, backend.borrowers().getAllBorrowers().size());
+    }
+}
@@ -0,0 +1,141 @@
+package com.microfinance.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microfinance.dao.InMemoryStore;
+import com.microfinance.model.Borrower;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Builds the index from the in-memory store and feeds it the change
+ * notifications BorrowerDAO would send for later writes
+ */
+class BorrowerSearchIndexTest {
+    private InMemoryStore store;
+    private BorrowerSearchIndex index;
+    private Borrower annLee;
+    private Borrower annabel;
+    private Borrower maryAnn;
+    private Borrower joanne;
+    private Borrower ann;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryStore();
+        // Added oldest first; within a tier, newer borrowers come first
+        annLee = addBorrower("Ann Lee", "555-0101");
+        annabel = addBorrower("Annabel Smith", "555-0102");
+        maryAnn = addBorrower("Mary Ann Jones", "555-0103");
+        joanne = addBorrower("Joanne Brown", "(0722) 123-456");
+        ann = addBorrower("Ann", "555 9999");
+        index = BorrowerSearchIndex.build(store.borrowers());
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.close();
+    }
+
+    private Borrower addBorrower(String name, String phone) {
+        Borrower borrower = new Borrower(name, name.toLowerCase().replace(' ', '.') + "@example.com", phone, "1 Main St", 30000);
+        assertTrue(store.borrowers().addBorrower(borrower));
+        return borrower;
+    }
+
+    private List<Integer> search(String query) {
+        return search(query, 10);
+    }
+
+    private List<Integer> search(String query, int limit) {
+        return index.search(query, limit).stream().map(Borrower::getId).collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(Borrower... borrowers) {
+        return Arrays.stream(borrowers).map(Borrower::getId).collect(Collectors.toList());
+    }
+
+    @Test
+    void tiersRankExactThenNamePrefixThenWordPrefixThenContains() {
+        assertEquals(5, index.size());
+        assertEquals(ids(ann, annabel, annLee, maryAnn, joanne), search("ann"));
+        assertEquals(ids(ann, annabel, annLee, maryAnn, joanne), search("  ANN "));
+        assertEquals(ids(annLee), search("ann lee"));
+        assertEquals(ids(ann, annabel), search("ann", 2));
+        // Emails are searched too: "smith" is a word of annabel.smith@example.com as well as the name
+        assertEquals(ids(annabel), search("smith@"));
+        assertEquals(List.of(), search("zed"));
+    }
+
+    @Test
+    void phoneLikeQueriesMatchTheDigits() {
+        assertEquals(ids(maryAnn, annabel, annLee), search("555-01"));
+        assertEquals(ids(joanne), search("0722 123"));
+        assertEquals(ids(joanne), search("(0722)123456"));
+        // Found inside the number, after the prefix matches
+        assertEquals(ids(joanne), search("123-456"));
+        assertEquals(ids(ann), search("+555 9999"));
+    }
+
+    @Test
+    void shortQueriesOnlyMatchPrefixes() {
+        assertEquals(ids(ann, annabel, annLee, maryAnn), search("an"));
+        assertEquals(ids(joanne, maryAnn), search("jo"));
+        assertEquals(List.of(), search("oa"));
+        assertEquals(ids(joanne), search("oan"));
+        assertEquals(ids(maryAnn), search("m"));
+    }
+
+    @Test
+    void updatesAndDeletesAfterTheBuildAreSearched() {
+        Borrower renamed = new Borrower(annabel.getId(), "Bella Smith", "bella@example.com", "555-0102", "1 Main St", 30000);
+        index.borrowerSaved(renamed);
+        assertEquals(ids(ann, annLee, maryAnn, joanne), search("ann"));
+        assertEquals(ids(annabel), search("bella"));
+        assertEquals("Bella Smith", index.search("bella", 1).get(0).getName());
+        // The update is now the newest borrower
+        assertEquals(ids(annabel, maryAnn, annLee), search("555-01"));
+
+        index.borrowerDeleted(ann.getId());
+        assertEquals(4, index.size());
+        assertEquals(ids(annLee, maryAnn, joanne), search("ann"));
+
+        Borrower added = new Borrower(42, "Anna Mwangi", "anna@example.com", "555-4242", "2 Main St", 20000);
+        index.borrowerSaved(added);
+        assertEquals(5, index.size());
+        assertEquals(List.of(42, annLee.getId(), maryAnn.getId(), joanne.getId()), search("ann"));
+
+        // Results are copies, so changing one does not change the index
+        index.search("anna", 1).get(0).setName("Changed");
+        assertEquals(List.of(42), search("anna mwangi"));
+    }
+
+    @Test
+    void idsResolveAfterACompaction() {
+        // Every update leaves a tombstone; the index compacts once there are more than 10,000
+        Borrower updated = new Borrower(annLee);
+        for (int i = 0; i < 10_000; i++) {
+            index.borrowerSaved(updated);
+        }
+        long beforeCompaction = index.estimateMemoryBytes();
+        index.borrowerSaved(updated);
+        assertTrue(index.estimateMemoryBytes() < beforeCompaction / 2,
+            "compaction should drop the tombstones' postings");
+
+        assertEquals(5, index.size());
+        assertEquals(ids(ann, annLee, annabel, maryAnn, joanne), search("ann"));
+        index.borrowerDeleted(maryAnn.getId());
+        index.borrowerSaved(new Borrower(joanne.getId(), "Joan Brown", "joan@example.com", "(0722) 123-456", "1 Main St", 30000));
+        assertEquals(4, index.size());
+        assertEquals(ids(ann, annLee, annabel), search("ann"));
+        assertEquals(ids(joanne), search("joan brown"));
+        assertEquals(ids(joanne), search("0722"));
+        index.borrowerDeleted(annLee.getId());
+        assertEquals(ids(ann, annabel), search("ann"));
+    }
+}
@@ -0,0 +1,66 @@
+package com.microfinance.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microfinance.model.LoanSnapshot;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class LoanSizeHistogramTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    private static List<LoanSizeHistogram.Bucket> bucketsOf(double... amounts) {
+        LoanSnapshot.Builder builder = new LoanSnapshot.Builder(amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
+            builder.add(i + 1, 1, "Borrower", amounts[i], amounts[i], "Active", TODAY, TODAY.plusMonths(1), 10);
+        }
+        return LoanSizeHistogram.of(builder.build()).getBuckets();
+    }
+
+    private static long total(List<LoanSizeHistogram.Bucket> buckets) {
+        return buckets.stream().mapToLong(LoanSizeHistogram.Bucket::getCount).sum();
+    }
+
+    @Test
+    void boundsFollowTheOneTwoFiveScale() {
+        List<LoanSizeHistogram.Bucket> buckets = bucketsOf(150, 450, 999, 1_000, 7_500);
+        double[] lowers = buckets.stream().mapToDouble(LoanSizeHistogram.Bucket::getLower).toArray();
+        assertEquals(List.of(100.0, 200.0, 500.0, 1_000.0, 2_000.0, 5_000.0),
+            buckets.stream().map(LoanSizeHistogram.Bucket::getLower).toList());
+        assertEquals(10_000, buckets.get(buckets.size() - 1).getUpper());
+        for (int i = 1; i < lowers.length; i++) {
+            assertEquals(lowers[i], buckets.get(i - 1).getUpper());
+        }
+        assertEquals(List.of(1L, 1L, 1L, 1L, 0L, 1L), buckets.stream().map(LoanSizeHistogram.Bucket::getCount).toList());
+        assertEquals("$1K-2K", buckets.get(3).getLabel());
+    }
+
+    @Test
+    void maximumOnABoundLandsInTheLastBucket() {
+        List<LoanSizeHistogram.Bucket> buckets = bucketsOf(120, 5_000);
+        LoanSizeHistogram.Bucket last = buckets.get(buckets.size() - 1);
+        assertEquals(5_000, last.getLower());
+        assertEquals(10_000, last.getUpper());
+        assertEquals(1, last.getCount());
+        assertEquals(2, total(buckets));
+    }
+
+    @Test
+    void amountsBelowTheFirstBoundGoInTheFirstBucket() {
+        // Zero amounts do not set the range, and bounds never go below 1
+        List<LoanSizeHistogram.Bucket> buckets = bucketsOf(0, 0.5, 3, 40);
+        LoanSizeHistogram.Bucket first = buckets.get(0);
+        assertEquals(1, first.getLower());
+        assertEquals(2, first.getCount());
+        assertEquals(4, total(buckets));
+        assertTrue(buckets.get(buckets.size() - 1).getUpper() > 40);
+    }
+
+    @Test
+    void emptyOrZeroPortfoliosHaveNoBuckets() {
+        assertTrue(bucketsOf().isEmpty());
+        assertTrue(bucketsOf(0, 0).isEmpty());
+    }
+}
@@ -0,0 +1,68 @@
+package com.microfinance.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.microfinance.model.LoanSnapshot;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PortfolioAnalyticsTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 30);
+
+    private static LoanSnapshot snapshot(double... amounts) {
+        LoanSnapshot.Builder builder = new LoanSnapshot.Builder(amounts.length);
+        for (int i = 0; i < amounts.length; i++) {
+            builder.add(i + 1, 1, "Borrower", amounts[i], amounts[i], "Active", TODAY, TODAY.plusMonths(1), 10);
+        }
+        return builder.build();
+    }
+
+    private static double[] amountsOf(LoanSnapshot snapshot, int[] rows) {
+        return Arrays.stream(rows).mapToDouble(snapshot::getLoanAmount).toArray();
+    }
+
+    @Test
+    void topRowsMatchAFullSort() {
+        Random random = new Random(42);
+        double[] amounts = new double[10_000];
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = random.nextInt(100_000);
+        }
+        LoanSnapshot snapshot = snapshot(amounts);
+        double[] sorted = amounts.clone();
+        Arrays.sort(sorted);
+        for (int k : new int[] {1, 10, 257}) {
+            double[] expected = new double[k];
+            for (int i = 0; i < k; i++) {
+                expected[i] = sorted[sorted.length - 1 - i];
+            }
+            assertArrayEquals(expected, amountsOf(snapshot, PortfolioAnalytics.topRowsByAmount(snapshot, k)), "k=" + k);
+        }
+    }
+
+    @Test
+    void kOutsideTheRowCountIsClamped() {
+        LoanSnapshot snapshot = snapshot(300, 100, 200);
+        assertArrayEquals(new int[] {0, 2, 1}, PortfolioAnalytics.topRowsByAmount(snapshot, 10));
+        assertEquals(0, PortfolioAnalytics.topRowsByAmount(snapshot, 0).length);
+        assertEquals(0, PortfolioAnalytics.topRowsByAmount(snapshot, -1).length);
+        assertEquals(0, PortfolioAnalytics.topRowsByAmount(snapshot(), 5).length);
+    }
+
+    @Test
+    void tiedAmountsAreEachReturnedOnce() {
+        LoanSnapshot snapshot = snapshot(500, 100, 500, 500, 900);
+        int[] rows = PortfolioAnalytics.topRowsByAmount(snapshot, 3);
+        assertArrayEquals(new double[] {900, 500, 500}, amountsOf(snapshot, rows));
+        assertEquals(3, Arrays.stream(rows).distinct().count());
+
+        int[] all = PortfolioAnalytics.topRowsByAmount(snapshot, 5);
+        int[] sortedRows = all.clone();
+        Arrays.sort(sortedRows);
+        assertArrayEquals(new int[] {0, 1, 2, 3, 4}, sortedRows);
+        assertArrayEquals(new double[] {900, 500, 500, 500, 100}, amountsOf(snapshot, all));
+    }
+}
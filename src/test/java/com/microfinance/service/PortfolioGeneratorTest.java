@@ -0,0 +1,76 @@
+package com.microfinance.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microfinance.dao.BorrowerDAO;
+import com.microfinance.dao.LoanDAO;
+import com.microfinance.dao.PaymentDAO;
+import com.microfinance.util.EmbeddedDatabase;
+import com.zaxxer.hikari.HikariDataSource;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PortfolioGeneratorTest {
+    private static final LocalDate AS_OF = LocalDate.of(2025, 6, 30);
+
+    @Test
+    void sameSeedWritesIdenticalFiles(@TempDir Path directory) throws Exception {
+        Path first = directory.resolve("first");
+        Path second = directory.resolve("second");
+        try (CsvPortfolioSink sink = new CsvPortfolioSink(first)) {
+            new PortfolioGenerator(7, AS_OF, 24, 0.2).generate(50, 300, sink);
+        }
+        try (CsvPortfolioSink sink = new CsvPortfolioSink(second)) {
+            new PortfolioGenerator(7, AS_OF, 24, 0.2).generate(50, 300, sink);
+        }
+
+        for (String file : new String[] {CsvPortfolioSink.BORROWERS_FILE, CsvPortfolioSink.LOANS_FILE,
+                CsvPortfolioSink.PAYMENTS_FILE}) {
+            assertArrayEquals(Files.readAllBytes(first.resolve(file)), Files.readAllBytes(second.resolve(file)), file);
+        }
+        assertEquals(301, Files.readAllLines(first.resolve(CsvPortfolioSink.LOANS_FILE)).size());
+    }
+
+    @Test
+    void loadedPortfolioIsConsistent() throws Exception {
+        HikariDataSource dataSource = EmbeddedDatabase.create("portfolio-generator-test");
+        try {
+            LoanDAO loanDAO = new LoanDAO(dataSource::getConnection);
+            RepositoryPortfolioSink sink = new RepositoryPortfolioSink(new BorrowerDAO(dataSource::getConnection),
+                loanDAO, new PaymentDAO(dataSource::getConnection), 128);
+            // As of today, so the database's own overdue query agrees with the generator
+            PortfolioGenerator.Summary summary = new PortfolioGenerator(11, LocalDate.now(), 36, 0.15)
+                .generate(200, 1000, sink);
+            sink.close();
+
+            assertEquals(0, sink.getRejectedRows());
+            assertEquals(200 + 1000 + summary.getPayments(), sink.getRowsWritten());
+            assertTrue(summary.getOverdueLoans() > 0);
+            assertEquals(summary.getOverdueLoans(), loanDAO.countOverdueLoans());
+            // Every balance is the amount less the payments on the ledger
+            assertEquals(0, count(dataSource, "SELECT COUNT(*) FROM loans l WHERE l.loan_amount - l.outstanding_balance"
+                + " <> COALESCE((SELECT SUM(p.payment_amount) FROM payments p WHERE p.loan_id = l.id), 0)"));
+            assertEquals(0, count(dataSource,
+                "SELECT COUNT(*) FROM loans WHERE (status = 'Completed') <> (outstanding_balance = 0)"));
+        } finally {
+            EmbeddedDatabase.drop(dataSource);
+        }
+    }
+
+    private static long count(HikariDataSource dataSource, String sql) throws Exception {
+        try (Connection conn = dataSource.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
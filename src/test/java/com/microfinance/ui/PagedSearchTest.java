@@ -0,0 +1,160 @@
+package com.microfinance.ui;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.microfinance.dao.InMemoryStore;
+import com.microfinance.dao.LoanRepository;
+import com.microfinance.model.Borrower;
+import com.microfinance.model.Loan;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives PagedSearch the way the loans table does, with the in-memory store as
+ * the server, and checks that the rows the filter shows for each query are the
+ * ones a fresh server search returns
+ */
+class PagedSearchTest {
+    private static final int PAGE_SIZE = 5;
+
+    private LoanRepository loans;
+    private Loader loader;
+    private PagedSearch search;
+
+    /**
+     * Stands in for PagedTableLoader: pages of the server search, fetched on demand
+     */
+    private final class Loader {
+        final List<Loan> rows = new ArrayList<>();
+        final List<String> restarts = new ArrayList<>();
+        private String query = "";
+        private boolean exhausted;
+
+        void restart(String query) {
+            restarts.add(query);
+            this.query = query;
+            rows.clear();
+            exhausted = false;
+            loadNextPage();
+        }
+
+        void loadNextPage() {
+            Loan last = rows.isEmpty() ? null : rows.get(rows.size() - 1);
+            List<Loan> page = loans.searchLoansPage(query, last == null ? null : last.getLoanDate(),
+                last == null ? 0 : last.getId(), PAGE_SIZE);
+            rows.addAll(page);
+            exhausted = page.size() < PAGE_SIZE;
+        }
+
+        void loadAll() {
+            while (!exhausted) {
+                loadNextPage();
+            }
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        InMemoryStore store = new InMemoryStore();
+        loans = store.loans();
+        Borrower amina = addBorrower(store, "Amina Kamau");
+        Borrower grace = addBorrower(store, "Grace Otieno");
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 24; i++) {
+            Borrower borrower = i % 3 == 0 ? grace : amina;
+            Loan loan = new Loan(borrower.getId(), borrower.getName(), 100, 100, "Active",
+                today.minusDays(i), today.plusDays(30), 5.0);
+            assertTrue(loans.addLoan(loan));
+        }
+        loader = new Loader();
+        search = new PagedSearch(() -> loader.exhausted, loader::restart);
+        loader.restart("");
+    }
+
+    private static Borrower addBorrower(InMemoryStore store, String name) {
+        Borrower borrower = new Borrower(name, name.toLowerCase().replace(' ', '.') + "@example.com", "555", "1 Main St", 30000);
+        assertTrue(store.borrowers().addBorrower(borrower));
+        return borrower;
+    }
+
+    /**
+     * The rows the filter shows for the query, matched on the same key as the loans table
+     */
+    private List<Integer> shown(String query) {
+        List<Integer> ids = new ArrayList<>();
+        for (Loan loan : loader.rows) {
+            String key = (loan.getBorrowerName() + "\n" + loan.getId()).toLowerCase();
+            if (IncrementalTableFilter.matches(key, query)) {
+                ids.add(loan.getId());
+            }
+        }
+        return ids;
+    }
+
+    private List<Integer> serverSearch(String query) {
+        return loans.searchLoansPage(query, null, 0, 1000).stream().map(Loan::getId).toList();
+    }
+
+    private void type(String query) {
+        search.queryChanged(query);
+        loader.loadAll();
+    }
+
+    @Test
+    void longerQueriesNarrowTheCompleteResultsLocally() {
+        type("1");
+        assertEquals(List.of("", "1"), loader.restarts);
+        assertEquals(serverSearch("1"), shown("1"));
+
+        // Loan 12 matched "1" as well, so it is among the loaded rows
+        type("12");
+        assertEquals(List.of("", "1"), loader.restarts);
+        assertEquals(List.of(12), shown("12"));
+        assertEquals(serverSearch("12"), shown("12"));
+    }
+
+    @Test
+    void nameQueriesNarrowLikeIdQueries() {
+        type("ka");
+        type("kam");
+        type("amina kamau");
+        assertEquals(List.of("", "ka"), loader.restarts);
+        assertEquals(serverSearch("amina kamau"), shown("amina kamau"));
+        assertEquals(16, shown("amina kamau").size());
+    }
+
+    @Test
+    void queriesThatDoNotNarrowAreReloaded() {
+        type("12");
+        type("2");
+        assertEquals(List.of("", "12", "2"), loader.restarts);
+        assertEquals(serverSearch("2"), shown("2"));
+
+        type("");
+        assertEquals(List.of("", "12", "2", ""), loader.restarts);
+        assertEquals(24, loader.rows.size());
+    }
+
+    @Test
+    void partlyLoadedResultsAreReloaded() {
+        // Only the first page of all loans is loaded, so the search goes to the server
+        search.queryChanged("1");
+        assertEquals(List.of("", "1"), loader.restarts);
+        // Likewise while the search's own pages are still loading
+        search.queryChanged("12");
+        assertEquals(List.of("", "1", "12"), loader.restarts);
+        assertEquals("12", search.getLoadedQuery());
+        assertEquals(serverSearch("12"), shown("12"));
+    }
+
+    @Test
+    void theSameQueryIsNotReloaded() {
+        search.queryChanged("1");
+        search.queryChanged("1");
+        assertEquals(List.of("", "1"), loader.restarts);
+    }
+}
@@ -0,0 +1,67 @@
+package com.microfinance.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HistogramTest {
+
+    @Test
+    void percentilesAreWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(100_000_000, histogram.getMax());
+        for (double percentile : new double[] {50, 90, 99, 99.9}) {
+            double expected = percentile * 1_000_000;
+            double actual = histogram.getPercentile(percentile);
+            assertTrue(Math.abs(actual - expected) / expected < 0.035, percentile + "th: " + actual);
+        }
+        for (long value = 0; value < 1_000_000; value += 997) {
+            assertTrue(Histogram.lowerBound(Histogram.indexOf(value)) <= value);
+        }
+    }
+
+    @Test
+    void concurrentRecordingLosesNothing() throws InterruptedException {
+        Histogram histogram = new Histogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    histogram.record(i);
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(200_000, histogram.getCount());
+        assertEquals(49_999, histogram.getMax());
+    }
+
+    @Test
+    void disabledTimersRecordNothing() {
+        Metrics.Timer timer = Metrics.get().timer("test.disabled");
+        boolean wasEnabled = Metrics.isEnabled();
+        Metrics.setEnabled(false);
+        try {
+            timer.stop(timer.start(), 10);
+            assertEquals(0, timer.getCount());
+        } finally {
+            Metrics.setEnabled(wasEnabled);
+        }
+        Metrics.setEnabled(true);
+        timer.stop(timer.start(), 10);
+        assertEquals(1, timer.getCount());
+        assertEquals(10, timer.getRows());
+        assertEquals(10L, Metrics.get().snapshot().get("test.disabled.rows"));
+        Metrics.setEnabled(wasEnabled);
+    }
+}